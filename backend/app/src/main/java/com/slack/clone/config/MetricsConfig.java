@@ -0,0 +1,53 @@
+package com.slack.clone.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Metrics configuration. Timers, counters and SLO buckets are defined where
+ * they are recorded and in application.yml; this only guards cardinality.
+ */
+@Configuration
+@Slf4j
+public class MetricsConfig {
+
+    /**
+     * Tag keys recorded under each meter name prefix. Meters are never tagged
+     * with IDs, so each of these takes a handful of values.
+     */
+    static final Map<String, List<String>> BOUNDED_TAGS = Map.of(
+            "chat.", List.of("type", "cache", "result", "cause"),
+            "auth.", List.of("outcome", "result"));
+
+    /**
+     * Denies new meters once a bounded tag has taken {@code maxTagValues}
+     * distinct values under its prefix, as a backstop if a tag is ever fed from IDs
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> boundedTagValues(
+            @Value("${chat.metrics.max-tag-values:100}") int maxTagValues) {
+        return registry -> BOUNDED_TAGS.forEach((prefix, tagKeys) -> tagKeys.forEach(tagKey ->
+                registry.config().meterFilter(MeterFilter.maximumAllowableTags(
+                        prefix, tagKey, maxTagValues, denyAndWarnOnce(prefix, tagKey, maxTagValues)))));
+    }
+
+    private static MeterFilter denyAndWarnOnce(String prefix, String tagKey, int maxTagValues) {
+        AtomicBoolean warned = new AtomicBoolean();
+        return MeterFilter.deny(id -> {
+            if (warned.compareAndSet(false, true)) {
+                log.warn("Tag '{}' of {}* meters reached {} values; further values are dropped",
+                        tagKey, prefix, maxTagValues);
+            }
+            return true;
+        });
+    }
+}
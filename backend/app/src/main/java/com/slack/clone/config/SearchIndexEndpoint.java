@@ -0,0 +1,37 @@
+package com.slack.clone.config;
+
+import com.slack.clone.chat.search.MessageSearchIndex;
+import com.slack.clone.chat.service.MessageSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Operator endpoint for the message search index: {@code GET} reports its
+ * size, {@code POST} rebuilds it from MongoDB. Not exposed over HTTP by
+ * default; expose it only on a management port.
+ */
+@Component
+@Endpoint(id = "searchindex")
+@RequiredArgsConstructor
+public class SearchIndexEndpoint {
+
+    private final MessageSearchIndex messageSearchIndex;
+    private final MessageSearchService messageSearchService;
+
+    @ReadOperation
+    public Map<String, Long> stats() {
+        return Map.of(
+                "documents", messageSearchIndex.documentCount(),
+                "postingsBytes", messageSearchIndex.postingsSizeInBytes());
+    }
+
+    @WriteOperation
+    public Map<String, Long> rebuild() {
+        return Map.of("indexed", messageSearchService.rebuildIndex());
+    }
+}
@@ -1,22 +1,68 @@
 package com.slack.clone.config;
 
+import com.slack.clone.websocket.StompAuthChannelInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 /**
- * WebSocket configuration for real-time messaging
+ * WebSocket configuration for real-time messaging.
+ * The broker is selected by {@code chat.websocket.broker}:
+ * {@code simple} (default, single node), {@code relay} (external STOMP broker)
+ * or {@code redis} (simple broker per node, bridged over Redis pub/sub).
+ * With {@code spring.threads.virtual.enabled} the client channels run on virtual threads.
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Value("${chat.websocket.broker:simple}")
+    private String brokerMode;
+
+    @Value("${chat.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${chat.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${chat.websocket.channel-pool-size:64}")
+    private int channelPoolSize;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple in-memory message broker
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equals(brokerMode)) {
+            // Relay to an external STOMP broker shared by all nodes
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            // Enable a simple in-memory message broker; in redis mode it is fed by the Redis fan-out bridge
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         // Prefix for messages from clients
         config.setApplicationDestinationPrefixes("/app");
         // Prefix for user-specific messages
@@ -30,4 +76,35 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Authenticate CONNECT and authorize SUBSCRIBE frames
+        registration.interceptors(stompAuthChannelInterceptor);
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadChannelExecutor("clientInboundChannel-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            // Sends to slow clients park a virtual thread instead of holding a platform thread
+            registration.taskExecutor(virtualThreadChannelExecutor("clientOutboundChannel-"));
+        }
+    }
+
+    /**
+     * Pool of virtual threads for a client channel. The channel needs a
+     * ThreadPoolTaskExecutor, so the pool stays, but its threads are cheap
+     * enough to size for blocking work rather than for the CPU count.
+     */
+    private ThreadPoolTaskExecutor virtualThreadChannelExecutor(String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(channelPoolSize);
+        executor.setMaxPoolSize(channelPoolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        return executor;
+    }
 }
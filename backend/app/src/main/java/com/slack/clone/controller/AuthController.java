@@ -4,6 +4,8 @@ import com.slack.clone.identity.dto.AuthResponse;
 import com.slack.clone.identity.dto.LoginRequest;
 import com.slack.clone.identity.dto.RegisterRequest;
 import com.slack.clone.identity.dto.UserDTO;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
 import com.slack.clone.identity.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,7 +13,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -39,11 +40,17 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke all tokens issued to the current user")
+    public ResponseEntity<Void> logout(@CurrentUser AuthenticatedUser currentUser) {
+        authService.revokeTokens(currentUser.userId());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/me")
     @Operation(summary = "Get current user profile")
-    public ResponseEntity<UserDTO> getCurrentUser(Authentication authentication) {
-        String email = authentication.getName();
-        return authService.getUserById(email)
+    public ResponseEntity<UserDTO> getCurrentUser(@CurrentUser AuthenticatedUser currentUser) {
+        return authService.getUserById(currentUser.userId())
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -1,13 +1,23 @@
 package com.slack.clone.controller;
 
+import com.slack.clone.chat.dto.BulkMembershipRequest;
+import com.slack.clone.chat.dto.BulkMembershipResultDTO;
 import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.dto.ChannelPageDTO;
 import com.slack.clone.chat.dto.CreateChannelRequest;
+import com.slack.clone.chat.dto.MarkReadRequest;
 import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSliceDTO;
 import com.slack.clone.chat.dto.SendMessageRequest;
 import com.slack.clone.chat.service.ChannelService;
 import com.slack.clone.chat.service.MessagingService;
-import com.slack.clone.identity.security.JwtService;
+import com.slack.clone.chat.service.UnreadService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -16,11 +26,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * REST controller for channel operations
@@ -34,23 +43,30 @@ public class ChannelController {
 
     private final ChannelService channelService;
     private final MessagingService messagingService;
-    private final JwtService jwtService;
+    private final UnreadService unreadService;
 
     @PostMapping
     @Operation(summary = "Create a new channel")
     public ResponseEntity<ChannelDTO> createChannel(
             @Valid @RequestBody CreateChannelRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         ChannelDTO channel = channelService.createChannel(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(channel);
     }
 
     @GetMapping
-    @Operation(summary = "Get all channels")
-    public ResponseEntity<List<ChannelDTO>> getAllChannels() {
-        List<ChannelDTO> channels = channelService.getAllChannels();
-        return ResponseEntity.ok(channels);
+    @Operation(summary = "Browse the channel directory by name, with optional prefix search")
+    public ResponseEntity<ChannelPageDTO> getChannels(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size,
+            WebRequest webRequest) {
+        ChannelPageDTO page = channelService.getChannelDirectory(q, after, size);
+        if (webRequest.checkNotModified(page.etag())) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{channelId}")
@@ -64,8 +80,8 @@ public class ChannelController {
     @Operation(summary = "Join a channel")
     public ResponseEntity<Void> joinChannel(
             @PathVariable String channelId,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         channelService.addMemberToChannel(channelId, userId);
         return ResponseEntity.ok().build();
     }
@@ -74,38 +90,85 @@ public class ChannelController {
     @Operation(summary = "Leave a channel")
     public ResponseEntity<Void> leaveChannel(
             @PathVariable String channelId,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         channelService.removeMemberFromChannel(channelId, userId);
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{channelId}/members")
+    @Operation(summary = "Add many users to a channel")
+    public ResponseEntity<BulkMembershipResultDTO> addMembers(
+            @PathVariable String channelId,
+            @Valid @RequestBody BulkMembershipRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        BulkMembershipResultDTO result = channelService.addMembersToChannel(channelId, request.getUserIds(), userId);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{channelId}/members/remove")
+    @Operation(summary = "Remove many users from a channel (channel creator only)")
+    public ResponseEntity<BulkMembershipResultDTO> removeMembers(
+            @PathVariable String channelId,
+            @Valid @RequestBody BulkMembershipRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        BulkMembershipResultDTO result = channelService.removeMembersFromChannel(channelId, request.getUserIds(), userId);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{channelId}/messages")
     @Operation(summary = "Get channel message history")
     public ResponseEntity<Page<MessageDTO>> getChannelMessages(
             @PathVariable String channelId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         Pageable pageable = PageRequest.of(page, size);
         Page<MessageDTO> messages = messagingService.getChannelMessages(channelId, userId, pageable);
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/{channelId}/messages/history")
+    @Operation(summary = "Get channel message history using a keyset cursor",
+            responses = @ApiResponse(responseCode = "200",
+                    content = @Content(schema = @Schema(implementation = MessageSliceDTO.class))))
+    public ResponseEntity<byte[]> getChannelHistory(
+            @PathVariable String channelId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        // Pre-encoded JSON, written as-is so cached pages are not serialized again
+        byte[] messages = messagingService.getChannelHistoryJson(channelId, userId, before, after, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(messages);
+    }
+
     @PostMapping("/{channelId}/messages")
     @Operation(summary = "Send a message to channel")
     public ResponseEntity<MessageDTO> sendMessage(
             @PathVariable String channelId,
             @Valid @RequestBody SendMessageRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         MessageDTO message = messagingService.sendChannelMessage(channelId, request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(message);
     }
 
-    private String extractUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        return jwtService.extractUserId(token);
+    @PostMapping("/{channelId}/read")
+    @Operation(summary = "Mark a channel read up to its latest message")
+    public ResponseEntity<Void> markRead(
+            @PathVariable String channelId,
+            @RequestBody(required = false) MarkReadRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        String lastReadCursor = request != null ? request.getLastReadCursor() : null;
+        unreadService.markChannelRead(channelId, userId, lastReadCursor);
+        return ResponseEntity.noContent().build();
     }
 }
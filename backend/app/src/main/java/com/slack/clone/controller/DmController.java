@@ -2,11 +2,15 @@ package com.slack.clone.controller;
 
 import com.slack.clone.chat.dto.CreateDmRequest;
 import com.slack.clone.chat.dto.DmConversationDTO;
+import com.slack.clone.chat.dto.MarkReadRequest;
 import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSliceDTO;
 import com.slack.clone.chat.dto.SendMessageRequest;
 import com.slack.clone.chat.service.DmService;
 import com.slack.clone.chat.service.MessagingService;
-import com.slack.clone.identity.security.JwtService;
+import com.slack.clone.chat.service.UnreadService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -33,14 +37,14 @@ public class DmController {
 
     private final DmService dmService;
     private final MessagingService messagingService;
-    private final JwtService jwtService;
+    private final UnreadService unreadService;
 
     @PostMapping("/conversations")
     @Operation(summary = "Create or get DM conversation")
     public ResponseEntity<DmConversationDTO> createDmConversation(
             @Valid @RequestBody CreateDmRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         DmConversationDTO conversation = dmService.createOrGetDmConversation(request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(conversation);
     }
@@ -48,8 +52,8 @@ public class DmController {
     @GetMapping("/conversations")
     @Operation(summary = "Get all DM conversations for current user")
     public ResponseEntity<List<DmConversationDTO>> getDmConversations(
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         List<DmConversationDTO> conversations = dmService.getDmConversationsForUser(userId);
         return ResponseEntity.ok(conversations);
     }
@@ -67,26 +71,46 @@ public class DmController {
             @PathVariable String conversationId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         Pageable pageable = PageRequest.of(page, size);
         Page<MessageDTO> messages = messagingService.getDmMessages(conversationId, userId, pageable);
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/conversations/{conversationId}/messages/history")
+    @Operation(summary = "Get DM message history using a keyset cursor")
+    public ResponseEntity<MessageSliceDTO> getDmHistory(
+            @PathVariable String conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        MessageSliceDTO messages = messagingService.getDmHistory(conversationId, userId, before, after, size);
+        return ResponseEntity.ok(messages);
+    }
+
     @PostMapping("/conversations/{conversationId}/messages")
     @Operation(summary = "Send a DM message")
     public ResponseEntity<MessageDTO> sendMessage(
             @PathVariable String conversationId,
             @Valid @RequestBody SendMessageRequest request,
-            @RequestHeader("Authorization") String authHeader) {
-        String userId = extractUserId(authHeader);
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
         MessageDTO message = messagingService.sendDmMessage(conversationId, request, userId);
         return ResponseEntity.status(HttpStatus.CREATED).body(message);
     }
 
-    private String extractUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        return jwtService.extractUserId(token);
+    @PostMapping("/conversations/{conversationId}/read")
+    @Operation(summary = "Mark a DM conversation read up to its latest message")
+    public ResponseEntity<Void> markRead(
+            @PathVariable String conversationId,
+            @RequestBody(required = false) MarkReadRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        String lastReadCursor = request != null ? request.getLastReadCursor() : null;
+        unreadService.markDmRead(conversationId, userId, lastReadCursor);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,156 @@
+package com.slack.clone.controller;
+
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.SendMessageRequest;
+import com.slack.clone.chat.service.MessageTailService;
+import com.slack.clone.chat.service.ReactiveMessagingService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Streaming message API backed by the reactive Mongo driver.
+ * History is written as NDJSON or as server-sent events whose ids are
+ * message cursors. Runs alongside the blocking endpoints under /api/reactive.
+ * The live endpoints tail new messages over SSE and resume from {@code Last-Event-ID}.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Reactive Messages", description = "Streaming message history and send APIs")
+public class ReactiveMessageController {
+
+    private static final String DEFAULT_LIMIT = "1000";
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ReactiveMessagingService reactiveMessagingService;
+    private final MessageTailService messageTailService;
+
+    @Value("${chat.live-tail.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+
+    @Value("${chat.live-tail.max-duration:5m}")
+    private Duration maxDuration;
+
+    @GetMapping(value = "/channels/{channelId}/messages", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream channel message history as NDJSON")
+    public Flux<MessageDTO> streamChannelHistory(
+            @PathVariable String channelId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return reactiveMessagingService.streamChannelHistory(channelId, currentUser.userId(), before, after, limit);
+    }
+
+    @GetMapping(value = "/channels/{channelId}/messages", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream channel message history as server-sent events")
+    public Flux<ServerSentEvent<MessageDTO>> streamChannelHistoryEvents(
+            @PathVariable String channelId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return reactiveMessagingService.streamChannelHistory(channelId, currentUser.userId(), before, after, limit)
+                .map(this::toEvent);
+    }
+
+    @GetMapping(value = "/channels/{channelId}/messages/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Tail new channel messages as server-sent events")
+    public Flux<ServerSentEvent<MessageDTO>> tailChannel(
+            @PathVariable String channelId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return live(messageTailService.tailChannel(channelId, currentUser.userId(), lastEventId));
+    }
+
+    @PostMapping("/channels/{channelId}/messages")
+    @Operation(summary = "Send a message to channel")
+    public Mono<ResponseEntity<MessageDTO>> sendChannelMessage(
+            @PathVariable String channelId,
+            @Valid @RequestBody SendMessageRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return reactiveMessagingService.sendChannelMessage(channelId, request, currentUser.userId())
+                .map(message -> ResponseEntity.status(HttpStatus.CREATED).body(message));
+    }
+
+    @GetMapping(value = "/dm/conversations/{conversationId}/messages", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream DM message history as NDJSON")
+    public Flux<MessageDTO> streamDmHistory(
+            @PathVariable String conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return reactiveMessagingService.streamDmHistory(conversationId, currentUser.userId(), before, after, limit);
+    }
+
+    @GetMapping(value = "/dm/conversations/{conversationId}/messages", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream DM message history as server-sent events")
+    public Flux<ServerSentEvent<MessageDTO>> streamDmHistoryEvents(
+            @PathVariable String conversationId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return reactiveMessagingService.streamDmHistory(conversationId, currentUser.userId(), before, after, limit)
+                .map(this::toEvent);
+    }
+
+    @GetMapping(value = "/dm/conversations/{conversationId}/messages/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Tail new DM messages as server-sent events")
+    public Flux<ServerSentEvent<MessageDTO>> tailDm(
+            @PathVariable String conversationId,
+            @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return live(messageTailService.tailDm(conversationId, currentUser.userId(), lastEventId));
+    }
+
+    @PostMapping("/dm/conversations/{conversationId}/messages")
+    @Operation(summary = "Send a DM message")
+    public Mono<ResponseEntity<MessageDTO>> sendDmMessage(
+            @PathVariable String conversationId,
+            @Valid @RequestBody SendMessageRequest request,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return reactiveMessagingService.sendDmMessage(conversationId, request, currentUser.userId())
+                .map(message -> ResponseEntity.status(HttpStatus.CREATED).body(message));
+    }
+
+    /**
+     * Interleave heartbeats so idle proxies keep the connection open, and end
+     * the stream after the max duration; EventSource clients reconnect with
+     * their last event id and lose nothing.
+     */
+    private Flux<ServerSentEvent<MessageDTO>> live(Flux<MessageDTO> messages) {
+        return messages.map(this::toEvent)
+                .take(maxDuration)
+                .publish(events -> Flux.merge(events, Flux.interval(heartbeatInterval)
+                        .map(tick -> ServerSentEvent.<MessageDTO>builder().comment("heartbeat").build())
+                        .takeUntilOther(events.then().thenReturn(Boolean.TRUE))));
+    }
+
+    private ServerSentEvent<MessageDTO> toEvent(MessageDTO message) {
+        // The cursor id lets a client resume from the last message it received
+        return ServerSentEvent.builder(message)
+                .id(MessageCursor.of(message).encode())
+                .event("message")
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.slack.clone.controller;
+
+import com.slack.clone.chat.dto.MessageSearchResultDTO;
+import com.slack.clone.chat.service.MessageSearchService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for message search
+ */
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Search", description = "Message search APIs")
+public class SearchController {
+
+    private final MessageSearchService messageSearchService;
+
+    @GetMapping("/messages")
+    @Operation(summary = "Search messages in the current user's channels and DM conversations")
+    public ResponseEntity<MessageSearchResultDTO> searchMessages(
+            @RequestParam String q,
+            @RequestParam(required = false) String channelId,
+            @RequestParam(required = false) String conversationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        MessageSearchResultDTO results = messageSearchService.search(userId, q, channelId, conversationId, cursor, size);
+        return ResponseEntity.ok(results);
+    }
+}
@@ -0,0 +1,34 @@
+package com.slack.clone.controller;
+
+import com.slack.clone.chat.dto.SidebarDTO;
+import com.slack.clone.chat.service.SidebarService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the aggregate sidebar view
+ */
+@RestController
+@RequestMapping("/api/sidebar")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Sidebar", description = "Aggregate sidebar API")
+public class SidebarController {
+
+    private final SidebarService sidebarService;
+
+    @GetMapping
+    @Operation(summary = "Get channels, DM conversations, latest messages and unread counts of current user")
+    public ResponseEntity<SidebarDTO> getSidebar(@CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        return ResponseEntity.ok(sidebarService.getSidebar(userId));
+    }
+}
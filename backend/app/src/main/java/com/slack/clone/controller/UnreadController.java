@@ -0,0 +1,34 @@
+package com.slack.clone.controller;
+
+import com.slack.clone.chat.dto.UnreadSummaryDTO;
+import com.slack.clone.chat.service.UnreadService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.CurrentUser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for unread counts
+ */
+@RestController
+@RequestMapping("/api/unread")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearer-jwt")
+@Tag(name = "Unread", description = "Unread count APIs")
+public class UnreadController {
+
+    private final UnreadService unreadService;
+
+    @GetMapping
+    @Operation(summary = "Get unread counts of all channels and DM conversations of current user")
+    public ResponseEntity<UnreadSummaryDTO> getUnreadCounts(@CurrentUser AuthenticatedUser currentUser) {
+        String userId = currentUser.userId();
+        return ResponseEntity.ok(unreadService.getUnreadCounts(userId));
+    }
+}
@@ -0,0 +1,109 @@
+package com.slack.clone.websocket;
+
+import com.slack.clone.chat.delivery.MessageDeliveryService;
+import com.slack.clone.chat.service.ChannelService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.JwtService;
+import com.slack.clone.identity.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates STOMP CONNECT frames with the JWT bearer token and authorizes
+ * SUBSCRIBE frames: channel topics require membership, a few other
+ * destinations are allowlisted and everything else is rejected
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String PRESENCE_TOPIC = "/topic/presence";
+    private static final Set<String> PUBLIC_DESTINATIONS = Set.of(
+            PRESENCE_TOPIC, "/user" + MessageDeliveryService.DM_USER_QUEUE);
+    // Ant pattern characters of the simple broker, plus the relay's AMQP-style wildcards
+    private static final Pattern WILDCARD = Pattern.compile("[*?{}#]");
+    // One exact path segment; '.' is a separator for some relay brokers
+    private static final Pattern CHANNEL_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ChannelService channelService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            authorizeSubscription(accessor.getUser(), accessor.getDestination());
+        }
+        return message;
+    }
+
+    private Principal authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            throw new AccessDeniedException("Missing bearer token");
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(authHeader.substring(BEARER_PREFIX.length()));
+        } catch (Exception e) {
+            log.warn("WebSocket authentication failed: {}", e.getMessage());
+            throw new AccessDeniedException("Invalid token");
+        }
+
+        if (tokenRevocationService.isRevoked(claims)) {
+            throw new AccessDeniedException("Token has been revoked");
+        }
+        return new UsernamePasswordAuthenticationToken(AuthenticatedUser.from(claims), null, List.of());
+    }
+
+    /**
+     * Only exact, allowlisted destinations may be subscribed to. The simple
+     * broker matches subscriptions as Ant patterns (and a relay broker has its
+     * own wildcards), so a pattern could otherwise reach every channel topic.
+     */
+    private void authorizeSubscription(Principal user, String destination) {
+        if (user == null || destination == null) {
+            throw new AccessDeniedException("Unauthenticated subscription");
+        }
+        if (WILDCARD.matcher(destination).find()) {
+            throw new AccessDeniedException("Wildcard subscriptions are not allowed");
+        }
+
+        if (destination.startsWith(MessageDeliveryService.CHANNEL_TOPIC_PREFIX)) {
+            String channelId = destination.substring(MessageDeliveryService.CHANNEL_TOPIC_PREFIX.length());
+            if (!CHANNEL_ID.matcher(channelId).matches()) {
+                throw new AccessDeniedException("Invalid channel destination");
+            }
+            if (!channelService.isMember(channelId, user.getName())) {
+                throw new AccessDeniedException("User is not a member of this channel");
+            }
+        } else if (!PUBLIC_DESTINATIONS.contains(destination)) {
+            // Queues are only reachable through /user/ destinations resolved to the caller's own sessions
+            throw new AccessDeniedException("Subscription to " + destination + " is not allowed");
+        }
+    }
+}
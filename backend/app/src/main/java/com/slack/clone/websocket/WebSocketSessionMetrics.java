@@ -0,0 +1,41 @@
+package com.slack.clone.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gauge of STOMP sessions connected to this node. Sessions are tracked by ID
+ * because a disconnect event can be published more than once per session.
+ */
+@Component
+public class WebSocketSessionMetrics {
+
+    private final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+
+    public WebSocketSessionMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("chat.websocket.sessions", sessionIds, Set::size)
+                .description("Active STOMP sessions on this node")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            sessionIds.add(sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessionIds.remove(event.getSessionId());
+    }
+}
@@ -0,0 +1,2 @@
+-- Case-insensitive prefix search for the channel directory: lower(name) LIKE 'abc%'
+create index idx_channel_name_lower_prefix on channels (lower(name) text_pattern_ops);
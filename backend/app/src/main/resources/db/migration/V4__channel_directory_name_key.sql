@@ -0,0 +1,9 @@
+-- The directory filters on a lower-cased name prefix and pages by (name_key, name).
+-- name_key uses the C collation, so LIKE 'abc%' is a range scan on a plain btree and
+-- one index serves the filter, the order and the keyset seek.
+alter table channels add column name_key varchar(100) collate "C";
+update channels set name_key = lower(name);
+alter table channels alter column name_key set not null;
+
+drop index idx_channel_name_lower_prefix;
+create index idx_channel_directory on channels (name_key, name);
@@ -0,0 +1,49 @@
+package com.slack.clone.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for MetricsConfig
+ */
+class MetricsConfigTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        new MetricsConfig().boundedTagValues(3).customize(registry);
+    }
+
+    @Test
+    void boundedTagValues_TagBeyondLimit_DropsNewSeries() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            registry.counter("chat.test", "type", "type-" + i).increment();
+        }
+
+        // When
+        registry.counter("chat.test", "type", "type-3").increment();
+        registry.counter("chat.test", "type", "type-0").increment();
+
+        // Then
+        assertThat(registry.find("chat.test").counters()).hasSize(3);
+        assertThat(registry.find("chat.test").tag("type", "type-3").counter()).isNull();
+        assertThat(registry.get("chat.test").tag("type", "type-0").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void boundedTagValues_OtherPrefixes_AreNotBounded() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            registry.counter("jvm.test", "type", "type-" + i).increment();
+        }
+
+        // Then
+        assertThat(registry.find("jvm.test").counters()).hasSize(10);
+    }
+}
@@ -0,0 +1,125 @@
+package com.slack.clone.websocket;
+
+import com.slack.clone.chat.service.ChannelService;
+import com.slack.clone.identity.security.AuthenticatedUser;
+import com.slack.clone.identity.security.JwtService;
+import com.slack.clone.identity.security.TokenRevocationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StompAuthChannelInterceptor subscription authorization
+ */
+@ExtendWith(MockitoExtension.class)
+class StompAuthChannelInterceptorTest {
+
+    private static final String USER_ID = "user-123";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private MessageChannel channel;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    @Test
+    void shouldAllowSubscriptionToChannelOfMember() {
+        // Given
+        when(channelService.isMember("general", USER_ID)).thenReturn(true);
+        Message<?> subscribe = subscribe("/topic/channels/general");
+
+        // When
+        Message<?> result = interceptor.preSend(subscribe, channel);
+
+        // Then
+        assertThat(result).isSameAs(subscribe);
+    }
+
+    @Test
+    void shouldRejectSubscriptionToChannelOfNonMember() {
+        // Given
+        when(channelService.isMember("private", USER_ID)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> interceptor.preSend(subscribe("/topic/channels/private"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/topic/**",
+            "/topic/*",
+            "/topic/chan*/*",
+            "/topic/channels/*",
+            "/topic/channels/gen?ral",
+            "/topic/channels/{id}",
+            "/topic/channels/#",
+            "/topic/channels/general/extra",
+            "/topic/channels/",
+            "/topic/channels/a.b"
+    })
+    void shouldRejectPatternAndMalformedChannelDestinations(String destination) {
+        // When / Then
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(destination), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(channelService, never()).isMember(any(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/topic/presence", "/user/queue/dm"})
+    void shouldAllowAllowlistedDestinations(String destination) {
+        // Given
+        Message<?> subscribe = subscribe(destination);
+
+        // When
+        Message<?> result = interceptor.preSend(subscribe, channel);
+
+        // Then
+        assertThat(result).isSameAs(subscribe);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/topic/simp-user-registry", "/topic/other", "/queue/dm", "/user/other-user/queue/dm"})
+    void shouldRejectDestinationsNotAllowlisted(String destination) {
+        // When / Then
+        assertThatThrownBy(() -> interceptor.preSend(subscribe(destination), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    private static Message<?> subscribe(String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(USER_ID, "test@example.com", "Test User"), null, List.of()));
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,60 @@
+package com.slack.clone.benchmarks;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.entity.Channel;
+import com.slack.clone.chat.mapper.ChatMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping of messages and channels to API DTOs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChatMapperBenchmark {
+
+    private ChatMapper chatMapper;
+    private ChannelMessage message;
+    private Channel channel;
+
+    @Setup
+    public void setUp() {
+        chatMapper = Mappers.getMapper(ChatMapper.class);
+        message = ChannelMessage.builder()
+                .id("65f1c2a9e4b0a1b2c3d4e5f6")
+                .channelId("channel-1")
+                .senderId("user-1")
+                .content("Deploy finished, dashboards look healthy")
+                .createdAt(LocalDateTime.now())
+                .build();
+        channel = Channel.builder()
+                .id("channel-1")
+                .name("general")
+                .description("General discussion")
+                .createdBy("user-1")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public MessageDTO mapMessage() {
+        return chatMapper.toDTO(message);
+    }
+
+    @Benchmark
+    public ChannelDTO mapChannel() {
+        return chatMapper.toDTO(channel);
+    }
+}
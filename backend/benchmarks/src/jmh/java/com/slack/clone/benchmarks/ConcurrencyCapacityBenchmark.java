@@ -0,0 +1,110 @@
+package com.slack.clone.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time to serve a burst of concurrent requests that each block on I/O, as a
+ * message send does on Postgres membership and the Mongo insert.
+ * {@code platform} is Tomcat's default 200-thread pool; {@code virtual} is
+ * spring.threads.virtual.enabled. The two locked modes hold a per-request
+ * lock across the I/O: {@code synchronized} pins the carrier thread, while
+ * ReentrantLock lets the virtual thread unmount.
+ * <p>
+ * No results have been recorded yet; see the README's virtual threads section.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrencyCapacityBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long IO_MILLIS = 10;
+
+    @Param({"platform", "virtual", "virtual-synchronized", "virtual-reentrant-lock"})
+    private String mode;
+
+    @Param({"200", "1000", "5000"})
+    private int concurrentRequests;
+
+    private ExecutorService executor;
+    private Object[] monitors;
+    private ReentrantLock[] locks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Locks live in fields so escape analysis cannot elide them
+        monitors = new Object[concurrentRequests];
+        locks = new ReentrantLock[concurrentRequests];
+        for (int i = 0; i < concurrentRequests; i++) {
+            monitors[i] = new Object();
+            locks[i] = new ReentrantLock();
+        }
+        executor = "platform".equals(mode)
+                ? Executors.newFixedThreadPool(TOMCAT_MAX_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void serveBurst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            int request = i;
+            executor.execute(() -> {
+                try {
+                    handleRequest(request);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void handleRequest(int request) {
+        switch (mode) {
+            case "virtual-synchronized" -> {
+                synchronized (monitors[request]) {
+                    blockOnIo();
+                }
+            }
+            case "virtual-reentrant-lock" -> {
+                ReentrantLock lock = locks[request];
+                lock.lock();
+                try {
+                    blockOnIo();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            default -> blockOnIo();
+        }
+    }
+
+    private static void blockOnIo() {
+        try {
+            Thread.sleep(IO_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.slack.clone.benchmarks;
+
+import com.slack.clone.shared.util.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ID generation throughput for time-ordered IDs versus random UUIDs, plus an
+ * ordered-index insert proxy: inserting into a sorted map approximates B-tree
+ * page locality (right-edge appends versus random splits).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdGeneratorBenchmark {
+
+    private static final int INDEX_BATCH = 10_000;
+
+    @Benchmark
+    public String generateId() {
+        return IdGenerator.generateId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String generateIdContended() {
+        return IdGenerator.generateId();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @State(Scope.Thread)
+    public static class IndexState {
+
+        @Param({"uuidv7", "random"})
+        private String generator;
+
+        private Supplier<String> ids;
+
+        @Setup
+        public void setUp() {
+            ids = "uuidv7".equals(generator)
+                    ? IdGenerator::generateId
+                    : () -> UUID.randomUUID().toString();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(INDEX_BATCH)
+    public TreeMap<String, Boolean> orderedIndexInsert(IndexState state) {
+        TreeMap<String, Boolean> index = new TreeMap<>();
+        for (int i = 0; i < INDEX_BATCH; i++) {
+            index.put(state.ids.get(), Boolean.TRUE);
+        }
+        return index;
+    }
+}
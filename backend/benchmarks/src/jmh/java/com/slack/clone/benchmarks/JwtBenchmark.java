@@ -0,0 +1,65 @@
+package com.slack.clone.benchmarks;
+
+import com.slack.clone.identity.entity.User;
+import com.slack.clone.identity.security.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT issue and verify costs: raw signature verification versus the cached claims path
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    static final String SECRET =
+            "c2xhY2tjbG9uZXNlY3JldGtleWZvcmp3dGVuY3J5cHRpb25hbmRkZWNyeXB0aW9ubXVzdGJlbG9uZ2Vub3VnaA==";
+
+    private JwtService jwtService;
+    private JwtParser parser;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3600000L, 50000, new SimpleMeterRegistry());
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build();
+        user = User.builder()
+                .id("0b5c3e1e-2a8f-4d43-9a0e-6f5d4c3b2a19")
+                .email("bench@example.com")
+                .displayName("Bench User")
+                .build();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims parseClaimsCached() {
+        return jwtService.parseClaims(token);
+    }
+}
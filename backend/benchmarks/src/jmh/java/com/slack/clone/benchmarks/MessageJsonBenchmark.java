@@ -0,0 +1,80 @@
+package com.slack.clone.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.slack.clone.chat.cache.HistoryPageCache;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSliceDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of message history pages, configured like the application ObjectMapper,
+ * against serving the pre-encoded page from HistoryPageCache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageJsonBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private MessageSliceDTO page;
+    private HistoryPageCache historyPageCache;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LocalDateTime base = LocalDateTime.now();
+        List<MessageDTO> messages = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            messages.add(MessageDTO.builder()
+                    .id(String.format("65f1c2a9e4b0a1b2c3d4%04x", i))
+                    .senderId("user-" + (i % 7))
+                    .content("Message " + i + " with a typical sentence of chat text in it")
+                    .createdAt(base.minusSeconds(i))
+                    .type("TEXT")
+                    .build());
+        }
+        page = MessageSliceDTO.builder()
+                .messages(messages)
+                .nextCursor("MjAyNi0wMS0wMVQwMDowMHw2NWYx")
+                .hasNext(true)
+                .build();
+
+        historyPageCache = new HistoryPageCache(objectMapper, new SimpleMeterRegistry(),
+                DataSize.ofMegabytes(32), Duration.ofHours(1));
+        historyPageCache.getOrLoad("channel-1", page.getNextCursor(), pageSize, () -> page);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] cachedPage() {
+        return historyPageCache.getOrLoad("channel-1", page.getNextCursor(), pageSize, () -> page);
+    }
+}
@@ -0,0 +1,139 @@
+package com.slack.clone.chat.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A named two-tier cache: a bounded per-node near-cache in front of an
+ * optional shared remote tier. Without a remote tier it is a plain local cache.
+ */
+@Slf4j
+public class CacheRegion<V> {
+
+    private final String name;
+    private final Cache<String, V> near;
+    private final RemoteCacheTier remote;
+    private final Duration remoteTtl;
+    private final Function<V, String> encoder;
+    private final Function<String, V> decoder;
+
+    CacheRegion(String name, Cache<String, V> near, RemoteCacheTier remote, Duration remoteTtl,
+                Function<V, String> encoder, Function<String, V> decoder) {
+        this.name = name;
+        this.near = near;
+        this.remote = remote;
+        this.remoteTtl = remoteTtl;
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<V> get(String key) {
+        V value = near.getIfPresent(key);
+        if (value != null) {
+            return Optional.of(value);
+        }
+        if (remote == null) {
+            return Optional.empty();
+        }
+
+        Optional<String> encoded = remote.get(remoteKey(key));
+        if (encoded.isEmpty()) {
+            return Optional.empty();
+        }
+        V remoteValue;
+        try {
+            remoteValue = decoder.apply(encoded.get());
+        } catch (RuntimeException e) {
+            // E.g. written by an older version; drop it so the caller reloads and re-caches
+            log.warn("Discarding undecodable {} cache entry {}", name, key, e);
+            remote.delete(remoteKey(key));
+            return Optional.empty();
+        }
+        near.put(key, remoteValue);
+        return Optional.of(remoteValue);
+    }
+
+    public void put(String key, V value) {
+        near.put(key, value);
+        if (remote != null) {
+            remote.set(remoteKey(key), encoder.apply(value), remoteTtl);
+        }
+    }
+
+    /**
+     * Evict the entry on this node, in the shared tier and on every other node
+     */
+    public void evict(String key) {
+        near.invalidate(key);
+        if (remote != null) {
+            remote.delete(remoteKey(key));
+            remote.publishInvalidation(name, key);
+        }
+    }
+
+    /**
+     * Evict now and, when called inside a transaction, again after commit so
+     * concurrent readers cannot re-cache the pre-commit state
+     */
+    public void evictAfterCommit(String key) {
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evict many entries with one remote delete and batched invalidation broadcasts
+     */
+    public void evictAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        near.invalidateAll(keys);
+        if (remote != null) {
+            remote.deleteAll(keys.stream().map(this::remoteKey).toList());
+            remote.publishInvalidations(name, keys);
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #evictAfterCommit(String)}
+     */
+    public void evictAllAfterCommit(Collection<String> keys) {
+        List<String> snapshot = List.copyOf(keys);
+        evictAll(snapshot);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll(snapshot);
+                }
+            });
+        }
+    }
+
+    void invalidateLocal(String key) {
+        near.invalidate(key);
+    }
+
+    private String remoteKey(String key) {
+        return "chat:" + name + ":" + key;
+    }
+}
@@ -0,0 +1,69 @@
+package com.slack.clone.chat.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Creates cache regions and routes cross-node invalidations to them. The
+ * remote tier is only present when {@code chat.cache.mode=redis}.
+ */
+@Component
+@Slf4j
+public class CacheRegions {
+
+    private final RemoteCacheTier remoteTier;
+    private final MeterRegistry meterRegistry;
+    private final Duration nearTtl;
+    private final Map<String, CacheRegion<?>> regions = new ConcurrentHashMap<>();
+
+    public CacheRegions(
+            Optional<RemoteCacheTier> remoteTier,
+            MeterRegistry meterRegistry,
+            @Value("${chat.cache.near-ttl:30s}") Duration nearTtl) {
+        this.remoteTier = remoteTier.orElse(null);
+        this.meterRegistry = meterRegistry;
+        this.nearTtl = nearTtl;
+
+        if (this.remoteTier != null) {
+            this.remoteTier.onInvalidation(this::invalidateLocal);
+        }
+    }
+
+    /**
+     * Create a region. With a remote tier the near-cache TTL is capped at
+     * {@code chat.cache.near-ttl}, bounding staleness if an invalidation is lost.
+     */
+    public <V> CacheRegion<V> create(String name, long maxSize, Duration ttl,
+                                     Function<V, String> encoder, Function<String, V> decoder) {
+        Duration localTtl = remoteTier == null || ttl.compareTo(nearTtl) < 0 ? ttl : nearTtl;
+        Cache<String, V> near = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, near, "chat." + name);
+
+        CacheRegion<V> region = new CacheRegion<>(name, near, remoteTier, ttl, encoder, decoder);
+        regions.put(name, region);
+        return region;
+    }
+
+    private void invalidateLocal(String regionName, String key) {
+        CacheRegion<?> region = regions.get(regionName);
+        if (region != null) {
+            log.debug("Invalidating {}/{} from remote notification", regionName, key);
+            region.invalidateLocal(key);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.slack.clone.chat.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.dto.DmConversationDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache for channel and DM conversation lookups by ID
+ */
+@Component
+public class ChatEntityCache {
+
+    private final ObjectMapper objectMapper;
+    private final CacheRegion<ChannelDTO> channels;
+    private final CacheRegion<DmConversationDTO> dmConversations;
+    private final CacheRegion<String> dmConversationIds;
+
+    public ChatEntityCache(
+            CacheRegions cacheRegions,
+            ObjectMapper objectMapper,
+            @Value("${chat.cache.entities.max-size:20000}") long maxSize,
+            @Value("${chat.cache.entities.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.channels = cacheRegions.create("channels", maxSize, ttl,
+                this::toJson, fromJson(ChannelDTO.class));
+        this.dmConversations = cacheRegions.create("dm-conversations", maxSize, ttl,
+                this::toJson, fromJson(DmConversationDTO.class));
+        this.dmConversationIds = cacheRegions.create("dm-conversation-ids", maxSize, ttl,
+                Function.identity(), Function.identity());
+    }
+
+    public Optional<ChannelDTO> getChannel(String channelId) {
+        return channels.get(channelId);
+    }
+
+    public void putChannel(ChannelDTO channel) {
+        channels.put(channel.getId(), channel);
+    }
+
+    /**
+     * Evict a channel on every node
+     */
+    public void evictChannel(String channelId) {
+        channels.evictAfterCommit(channelId);
+    }
+
+    public Optional<DmConversationDTO> getDmConversation(String conversationId) {
+        return dmConversations.get(conversationId);
+    }
+
+    public void putDmConversation(DmConversationDTO conversation) {
+        dmConversations.put(conversation.getId(), conversation);
+    }
+
+    /**
+     * Conversation ID of a canonically ordered user pair. Conversations are
+     * never deleted, so entries need no eviction.
+     */
+    public Optional<String> getDmConversationId(String user1Id, String user2Id) {
+        return dmConversationIds.get(pairKey(user1Id, user2Id));
+    }
+
+    public void putDmConversationId(String user1Id, String user2Id, String conversationId) {
+        dmConversationIds.put(pairKey(user1Id, user2Id), conversationId);
+    }
+
+    private static String pairKey(String user1Id, String user2Id) {
+        return user1Id + ":" + user2Id;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cache value", e);
+        }
+    }
+
+    private <T> Function<String, T> fromJson(Class<T> type) {
+        return json -> {
+            try {
+                return objectMapper.readValue(json, type);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to deserialize cache value", e);
+            }
+        };
+    }
+}
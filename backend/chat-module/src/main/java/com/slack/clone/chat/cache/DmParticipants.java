@@ -0,0 +1,11 @@
+package com.slack.clone.chat.cache;
+
+/**
+ * The two participants of a DM conversation
+ */
+public record DmParticipants(String user1Id, String user2Id) {
+
+    public boolean includes(String userId) {
+        return user1Id.equals(userId) || user2Id.equals(userId);
+    }
+}
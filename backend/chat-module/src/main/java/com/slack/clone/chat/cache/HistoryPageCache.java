@@ -0,0 +1,103 @@
+package com.slack.clone.chat.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slack.clone.chat.dto.MessageSliceDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-node cache of encoded JSON for channel history pages behind a
+ * {@code before} cursor. Once settled those pages do not change, so every
+ * reader after the first gets the same bytes without mapping or serializing.
+ * Entries expire a fixed time after they were built, however often they are
+ * read, which bounds how long a page can miss a message persisted late on another node.
+ */
+@Component
+public class HistoryPageCache {
+
+    private static final int LOAD_STRIPES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Cache<String, byte[]> cache;
+    // ReentrantLock rather than a compute() bin lock, which would pin virtual threads during the Mongo load
+    private final Lock[] loadLocks = new Lock[LOAD_STRIPES];
+
+    public HistoryPageCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${chat.cache.history-pages.max-bytes:32MB}") DataSize maxBytes,
+            @Value("${chat.cache.history-pages.ttl:1h}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < LOAD_STRIPES; i++) {
+            loadLocks[i] = new ReentrantLock();
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String key, byte[] json) -> json.length)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.history-pages");
+        Gauge.builder("chat.history-pages.resident.bytes", cache, HistoryPageCache::residentBytes)
+                .description("Encoded history page bytes held in memory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encoded page for (channel, before cursor, size), building it with
+     * {@code loader} on a miss. Concurrent misses of one page load it once.
+     * The returned array is shared and must not be modified.
+     */
+    public byte[] getOrLoad(String channelId, String before, int size, Supplier<MessageSliceDTO> loader) {
+        String key = channelId + ':' + before + ':' + size;
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Lock lock = loadLocks[Math.floorMod(key.hashCode(), LOAD_STRIPES)];
+        lock.lock();
+        try {
+            cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+            byte[] loaded = encode(loader.get());
+            cache.put(key, loaded);
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Encode a page that is not cacheable, with the same mapper
+     */
+    public byte[] encode(MessageSliceDTO page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize history page", e);
+        }
+    }
+
+    private static double residentBytes(Cache<String, byte[]> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,72 @@
+package com.slack.clone.chat.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Cache for the channel membership and DM participant checks on the message
+ * send/read path
+ */
+@Component
+public class MembershipCache {
+
+    private final CacheRegion<Boolean> channelMembers;
+    private final CacheRegion<DmParticipants> dmParticipants;
+
+    public MembershipCache(
+            CacheRegions cacheRegions,
+            @Value("${chat.cache.membership.max-size:100000}") long maxSize,
+            @Value("${chat.cache.membership.ttl:5m}") Duration ttl) {
+        this.channelMembers = cacheRegions.create("channel-members", maxSize, ttl,
+                member -> member ? "1" : "0",
+                "1"::equals);
+        this.dmParticipants = cacheRegions.create("dm-participants", maxSize, ttl,
+                participants -> participants.user1Id() + ":" + participants.user2Id(),
+                MembershipCache::decodeParticipants);
+    }
+
+    public Optional<Boolean> getChannelMembership(String channelId, String userId) {
+        return channelMembers.get(channelMemberKey(channelId, userId));
+    }
+
+    public void putChannelMembership(String channelId, String userId, boolean member) {
+        channelMembers.put(channelMemberKey(channelId, userId), member);
+    }
+
+    /**
+     * Evict a membership entry on every node
+     */
+    public void evictChannelMembership(String channelId, String userId) {
+        channelMembers.evictAfterCommit(channelMemberKey(channelId, userId));
+    }
+
+    /**
+     * Evict the memberships of many users in a channel on every node, in one pass
+     */
+    public void evictChannelMemberships(String channelId, Collection<String> userIds) {
+        channelMembers.evictAllAfterCommit(userIds.stream()
+                .map(userId -> channelMemberKey(channelId, userId))
+                .toList());
+    }
+
+    public Optional<DmParticipants> getDmParticipants(String conversationId) {
+        return dmParticipants.get(conversationId);
+    }
+
+    public void putDmParticipants(String conversationId, DmParticipants participants) {
+        dmParticipants.put(conversationId, participants);
+    }
+
+    private static String channelMemberKey(String channelId, String userId) {
+        return channelId + ":" + userId;
+    }
+
+    private static DmParticipants decodeParticipants(String value) {
+        int separatorIndex = value.indexOf(':');
+        return new DmParticipants(value.substring(0, separatorIndex), value.substring(separatorIndex + 1));
+    }
+}
@@ -0,0 +1,93 @@
+package com.slack.clone.chat.cache;
+
+import com.slack.clone.chat.dto.MessageDTO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a channel's most recent messages, newest first.
+ * {@code hasOlder} records whether history continues past the oldest one held,
+ * and {@code total} the channel's message count, or {@link #UNKNOWN_TOTAL}.
+ */
+public record RecentMessages(List<MessageDTO> messages, boolean hasOlder, long total) {
+
+    public static final long UNKNOWN_TOTAL = -1;
+
+    private static final Comparator<MessageDTO> NEWEST_FIRST = Comparator
+            .comparing(MessageDTO::getCreatedAt)
+            .thenComparing(MessageDTO::getId)
+            .reversed();
+
+    // Object headers, two UUID strings and the timestamp of a message
+    private static final int MESSAGE_OVERHEAD_BYTES = 256;
+
+    public RecentMessages {
+        messages = List.copyOf(messages);
+    }
+
+    /**
+     * Snapshot of a freshly loaded ring; the total is only known when it holds the whole history
+     */
+    public RecentMessages(List<MessageDTO> messages, boolean hasOlder) {
+        this(messages, hasOlder, hasOlder ? UNKNOWN_TOTAL : messages.size());
+    }
+
+    public boolean hasTotal() {
+        return total != UNKNOWN_TOTAL;
+    }
+
+    /**
+     * Copy with a counted total
+     */
+    public RecentMessages withTotal(long total) {
+        return new RecentMessages(messages, hasOlder, total);
+    }
+
+    /**
+     * Copy with {@code message} inserted in order, keeping at most {@code capacity}
+     */
+    public RecentMessages with(MessageDTO message, int capacity) {
+        List<MessageDTO> updated = new ArrayList<>(messages.size() + 1);
+        updated.addAll(messages);
+        int index = 0;
+        while (index < updated.size() && NEWEST_FIRST.compare(updated.get(index), message) < 0) {
+            index++;
+        }
+        if (index < updated.size() && updated.get(index).getId().equals(message.getId())) {
+            return this;
+        }
+        updated.add(index, message);
+
+        boolean truncated = updated.size() > capacity;
+        if (truncated) {
+            updated.remove(updated.size() - 1);
+        }
+        return new RecentMessages(updated, hasOlder || truncated, hasTotal() ? total + 1 : UNKNOWN_TOTAL);
+    }
+
+    /**
+     * The newest {@code size} messages as the first history slice
+     */
+    public Slice<MessageDTO> firstPage(int size) {
+        List<MessageDTO> content = messages.subList(0, Math.min(size, messages.size()));
+        boolean hasNext = messages.size() > size || hasOlder;
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Approximate heap footprint, used as the cache weight
+     */
+    public int estimatedBytes() {
+        long bytes = 64;
+        for (MessageDTO message : messages) {
+            String content = message.getContent();
+            bytes += MESSAGE_OVERHEAD_BYTES + (content != null ? 2L * content.length() : 0);
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+}
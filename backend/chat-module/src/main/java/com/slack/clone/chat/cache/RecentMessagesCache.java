@@ -0,0 +1,184 @@
+package com.slack.clone.chat.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.slack.clone.chat.dto.MessageDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-node cache of each hot channel's most recent messages, which back the
+ * first history page every member reads. Sends append to a channel's ring
+ * when it is resident; a miss loads it from Mongo. Loads and appends of one
+ * channel are serialized by a striped lock, so a send can never slip between
+ * a load and its insert.
+ * <p>
+ * Memory is bounded by the estimated bytes of all rings, evicting cold
+ * channels first. Rings are rebuilt from Mongo after the TTL, which bounds
+ * drift from writes this node did not see, such as sends on other nodes.
+ * Each ring also keeps its channel's message count, counted at most once
+ * per ring and bumped by appends, so the same TTL bounds its drift.
+ */
+@Component
+public class RecentMessagesCache {
+
+    private static final int WRITE_STRIPES = 1024;
+
+    private final Cache<String, RecentMessages> cache;
+    private final int capacity;
+    // ReentrantLock rather than a compute() bin lock, which would pin virtual threads during the Mongo load
+    private final Lock[] stripeLocks = new Lock[WRITE_STRIPES];
+    // Bumped under the stripe lock on each write, so a loader that itself writes does not cache its result
+    private final long[] writeVersions = new long[WRITE_STRIPES];
+
+    public RecentMessagesCache(
+            MeterRegistry meterRegistry,
+            @Value("${chat.cache.recent-messages.per-channel:50}") int capacity,
+            @Value("${chat.cache.recent-messages.max-bytes:64MB}") DataSize maxBytes,
+            @Value("${chat.cache.recent-messages.ttl:60s}") Duration ttl) {
+        this.capacity = capacity;
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            stripeLocks[i] = new ReentrantLock();
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String channelId, RecentMessages recent) -> recent.estimatedBytes())
+                // Appends keep the original expiry, so hot channels are still rebuilt
+                .expireAfter(Expiry.creating((String channelId, RecentMessages recent) -> ttl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.recent-messages");
+        Gauge.builder("chat.recent-messages.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of first-page history reads served from memory")
+                .register(meterRegistry);
+        Gauge.builder("chat.recent-messages.resident.bytes", cache, RecentMessagesCache::residentBytes)
+                .description("Estimated heap held by cached recent messages")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Most messages held per channel; larger pages bypass the cache
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Recent messages of a channel, loading the newest {@link #capacity()}
+     * with {@code loader} on a miss
+     */
+    public RecentMessages getOrLoad(String channelId, Supplier<Slice<MessageDTO>> loader) {
+        return getOrLoad(channelId, loader, true);
+    }
+
+    /**
+     * Recent messages of a channel, loading the newest {@link #capacity()}
+     * with {@code loader} on a miss. With {@code cacheOnMiss} false a loaded
+     * ring is returned but not cached, for when the loader may not yet see
+     * every acknowledged message.
+     */
+    public RecentMessages getOrLoad(String channelId, Supplier<Slice<MessageDTO>> loader, boolean cacheOnMiss) {
+        RecentMessages cached = cache.getIfPresent(channelId);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(channelId);
+        Lock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            cached = cache.getIfPresent(channelId);
+            if (cached != null) {
+                return cached;
+            }
+
+            long version = writeVersions[stripe];
+            Slice<MessageDTO> slice = loader.get();
+            RecentMessages loaded = new RecentMessages(slice.getContent(), slice.hasNext());
+            if (cacheOnMiss && writeVersions[stripe] == version) {
+                cache.put(channelId, loaded);
+            }
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Message count of a channel whose resident ring does not know it yet,
+     * counting with {@code counter} and keeping the result with the ring.
+     * Appends wait for the count, as they wait for a load.
+     */
+    public long countTotal(String channelId, LongSupplier counter) {
+        int stripe = stripe(channelId);
+        Lock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            RecentMessages cached = cache.getIfPresent(channelId);
+            if (cached != null && cached.hasTotal()) {
+                return cached.total();
+            }
+            long total = counter.getAsLong();
+            if (cached != null) {
+                cache.asMap().computeIfPresent(channelId, (id, recent) -> recent.withTotal(total));
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add a sent message to the channel's ring if it is resident
+     */
+    public void append(String channelId, MessageDTO message) {
+        int stripe = stripe(channelId);
+        Lock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            writeVersions[stripe]++;
+            cache.asMap().computeIfPresent(channelId, (id, recent) -> recent.with(message, capacity));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop a channel's ring, e.g. after its history changed
+     */
+    public void evict(String channelId) {
+        int stripe = stripe(channelId);
+        Lock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+            writeVersions[stripe]++;
+            cache.invalidate(channelId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static double residentBytes(Cache<String, RecentMessages> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+
+    private static int stripe(String channelId) {
+        return Math.floorMod(channelId.hashCode(), WRITE_STRIPES);
+    }
+}
@@ -0,0 +1,112 @@
+package com.slack.clone.chat.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Redis implementation of the shared cache tier. Invalidations travel over a
+ * single pub/sub topic as {@code region<newline>key[<newline>key...]}. Redis failures degrade
+ * to cache misses rather than failing the request.
+ */
+@Slf4j
+public class RedisRemoteCacheTier implements RemoteCacheTier {
+
+    static final String INVALIDATION_TOPIC = "chat:cache:invalidations";
+    private static final char SEPARATOR = '\n';
+    // Keeps bulk invalidation messages well under typical pub/sub buffer limits
+    private static final int MAX_KEYS_PER_INVALIDATION = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisRemoteCacheTier(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        try {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(key));
+        } catch (DataAccessException e) {
+            log.warn("Redis cache read failed for {}: {}", key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (DataAccessException e) {
+            log.warn("Redis cache write failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Redis cache delete failed for {}: {}", key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys) {
+        try {
+            redisTemplate.delete(keys);
+        } catch (DataAccessException e) {
+            log.warn("Redis cache delete failed for {} keys: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void publishInvalidation(String region, String key) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_TOPIC, region + SEPARATOR + key);
+        } catch (DataAccessException e) {
+            log.warn("Redis invalidation publish failed for {}/{}: {}", region, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void publishInvalidations(String region, Collection<String> keys) {
+        List<String> remaining = List.copyOf(keys);
+        for (int from = 0; from < remaining.size(); from += MAX_KEYS_PER_INVALIDATION) {
+            List<String> chunk = remaining.subList(from, Math.min(from + MAX_KEYS_PER_INVALIDATION, remaining.size()));
+            try {
+                redisTemplate.convertAndSend(INVALIDATION_TOPIC, region + SEPARATOR + String.join(String.valueOf(SEPARATOR), chunk));
+            } catch (DataAccessException e) {
+                log.warn("Redis invalidation publish failed for {} keys in {}: {}", chunk.size(), region, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onInvalidation(BiConsumer<String, String> handler) {
+        listenerContainer.addMessageListener(
+                (Message message, byte[] pattern) -> {
+                    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+                    int separatorIndex = body.indexOf(SEPARATOR);
+                    if (separatorIndex > 0) {
+                        String region = body.substring(0, separatorIndex);
+                        for (String key : body.substring(separatorIndex + 1).split(String.valueOf(SEPARATOR))) {
+                            handler.accept(region, key);
+                        }
+                    }
+                },
+                new ChannelTopic(INVALIDATION_TOPIC));
+    }
+}
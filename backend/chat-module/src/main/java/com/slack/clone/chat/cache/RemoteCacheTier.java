@@ -0,0 +1,36 @@
+package com.slack.clone.chat.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Shared cache tier behind the per-node near-caches, with cross-node
+ * invalidation broadcast
+ */
+public interface RemoteCacheTier {
+
+    Optional<String> get(String key);
+
+    void set(String key, String value, Duration ttl);
+
+    void delete(String key);
+
+    void deleteAll(Collection<String> keys);
+
+    /**
+     * Broadcast an invalidation of {@code key} in {@code region} to every node
+     */
+    void publishInvalidation(String region, String key);
+
+    /**
+     * Broadcast an invalidation of many keys in {@code region} to every node
+     */
+    void publishInvalidations(String region, Collection<String> keys);
+
+    /**
+     * Register the handler invoked for invalidations published by any node
+     */
+    void onInvalidation(BiConsumer<String, String> handler);
+}
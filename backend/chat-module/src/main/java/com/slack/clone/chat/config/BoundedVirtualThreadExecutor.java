@@ -0,0 +1,72 @@
+package com.slack.clone.chat.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts a virtual thread per task with a cap on tasks in flight.
+ * Like a bounded pool queue, work over the cap is dropped rather than
+ * blocking the submitting thread.
+ */
+@Slf4j
+public class BoundedVirtualThreadExecutor implements TaskExecutor, AutoCloseable {
+
+    private final ThreadFactory threadFactory;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long awaitTerminationMillis;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxInFlight, long awaitTerminationMillis) {
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.awaitTerminationMillis = awaitTerminationMillis;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            log.warn("{} tasks in flight, dropping task", maxInFlight);
+            return;
+        }
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of tasks currently running
+     */
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Wait for running tasks to finish, up to the termination timeout
+     */
+    @Override
+    public void close() {
+        try {
+            if (permits.tryAcquire(maxInFlight, awaitTerminationMillis, TimeUnit.MILLISECONDS)) {
+                permits.release(maxInFlight);
+            } else {
+                log.warn("Timed out waiting for {} tasks to finish", inFlight());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.slack.clone.chat.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Async executors for the chat module.
+ * With {@code spring.threads.virtual.enabled} each task runs on its own
+ * virtual thread instead of a bounded platform-thread pool.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class ChatAsyncConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Declaring our own executors backs off Boot's default one, so keep it
+     * available for MVC async handling and un-qualified {@code @Async}.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder threadPoolBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder simpleBuilder) {
+        // Boot's simple builder already applies virtual threads and the task-execution properties
+        return virtualThreads ? simpleBuilder.build() : threadPoolBuilder.build();
+    }
+
+    /**
+     * Executor for real-time message fan-out. When saturated, deliveries are
+     * dropped rather than run on the request thread.
+     */
+    @Bean
+    public TaskExecutor messageDeliveryExecutor(
+            @Value("${chat.delivery.pool-size:4}") int poolSize,
+            @Value("${chat.delivery.queue-capacity:10000}") int queueCapacity) {
+        if (virtualThreads) {
+            // No pool to size: the queue capacity bounds deliveries in flight instead
+            return new BoundedVirtualThreadExecutor("message-delivery-", queueCapacity, 10_000);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("message-delivery-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Message delivery queue full, dropping real-time delivery"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Executor for the sidebar's parallel reads. Unlike deliveries these
+     * cannot be dropped, so when saturated the request thread runs them itself
+     * and a reconnect storm degrades to sequential reads instead of queueing.
+     */
+    @Bean
+    public AsyncTaskExecutor sidebarExecutor(
+            @Value("${chat.sidebar.pool-size:16}") int poolSize,
+            @Value("${chat.sidebar.queue-capacity:64}") int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sidebar-");
+            executor.setVirtualThreads(true);
+            // Reads share the JDBC and Mongo pools, so the limit still applies
+            executor.setConcurrencyLimit(poolSize);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sidebar-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.slack.clone.chat.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.clone.chat.delivery.LocalMessageFanout;
+import com.slack.clone.chat.delivery.MessageFanout;
+import com.slack.clone.chat.delivery.RedisMessageFanout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+/**
+ * Selects the real-time fan-out strategy from {@code chat.websocket.broker}:
+ * {@code simple} (default) and {@code relay} send to the local broker,
+ * {@code redis} bridges nodes over Redis pub/sub
+ */
+@Configuration
+public class MessageFanoutConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.websocket.broker", havingValue = "redis")
+    public MessageFanout redisMessageFanout(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            SimpMessageSendingOperations messagingTemplate,
+            ObjectMapper objectMapper) {
+        return new RedisMessageFanout(redisTemplate, redisMessageListenerContainer, messagingTemplate, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MessageFanout.class)
+    public MessageFanout localMessageFanout(SimpMessageSendingOperations messagingTemplate) {
+        return new LocalMessageFanout(messagingTemplate);
+    }
+}
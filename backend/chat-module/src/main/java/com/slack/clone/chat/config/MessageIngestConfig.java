@@ -0,0 +1,63 @@
+package com.slack.clone.chat.config;
+
+import com.slack.clone.chat.ingest.BatchingMessageIngest;
+import com.slack.clone.chat.ingest.DirectMessageIngest;
+import com.slack.clone.chat.ingest.MessageIngest;
+import com.slack.clone.chat.ingest.WalMessageIngest;
+import com.slack.clone.chat.ingest.wal.WriteAheadLog;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Selects the channel message persistence path from {@code chat.ingest.mode}:
+ * {@code direct} (default) saves synchronously, {@code batched} acknowledges
+ * after queueing and writes behind in bulk, {@code wal} acknowledges after a
+ * durable local log append and replays into Mongo
+ */
+@Configuration
+public class MessageIngestConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.ingest.mode", havingValue = "batched")
+    public BatchingMessageIngest batchingMessageIngest(
+            MongoTemplate mongoTemplate,
+            @Value("${chat.ingest.batch.shards:4}") int shards,
+            @Value("${chat.ingest.batch.queue-capacity:10000}") int queueCapacity,
+            @Value("${chat.ingest.batch.max-size:500}") int maxBatchSize,
+            @Value("${chat.ingest.batch.flush-interval:20ms}") Duration flushInterval,
+            @Value("${chat.ingest.batch.drain-timeout:30s}") Duration drainTimeout) {
+        return new BatchingMessageIngest(mongoTemplate, shards, queueCapacity, maxBatchSize, flushInterval, drainTimeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.ingest.mode", havingValue = "wal")
+    public WalMessageIngest walMessageIngest(
+            MongoTemplate mongoTemplate,
+            @Value("${chat.ingest.wal.directory:./data/message-wal}") Path directory,
+            @Value("${chat.ingest.wal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${chat.ingest.wal.max-segments:64}") int maxSegments,
+            @Value("${chat.ingest.wal.replay-batch-size:500}") int replayBatchSize,
+            @Value("${chat.ingest.batch.drain-timeout:30s}") Duration drainTimeout) throws IOException {
+        WriteAheadLog wal = new WriteAheadLog(directory, Math.toIntExact(segmentSize.toBytes()), maxSegments);
+        return new WalMessageIngest(wal, mongoTemplate, replayBatchSize, drainTimeout);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(MessageIngest.class)
+    public MessageIngest directMessageIngest(
+            ChannelMessageRepository channelMessageRepository,
+            DmMessageRepository dmMessageRepository) {
+        return new DirectMessageIngest(channelMessageRepository, dmMessageRepository);
+    }
+}
@@ -0,0 +1,31 @@
+package com.slack.clone.chat.config;
+
+import com.slack.clone.chat.unread.InMemoryReadStateStore;
+import com.slack.clone.chat.unread.ReadStateStore;
+import com.slack.clone.chat.unread.RedisReadStateStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Selects where unread counters live from {@code chat.cache.mode}:
+ * {@code local} (default) keeps them in memory on a single node,
+ * {@code redis} shares them between nodes
+ */
+@Configuration
+public class ReadStateStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "chat.cache.mode", havingValue = "redis")
+    public ReadStateStore redisReadStateStore(StringRedisTemplate redisTemplate) {
+        return new RedisReadStateStore(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ReadStateStore.class)
+    public ReadStateStore inMemoryReadStateStore() {
+        return new InMemoryReadStateStore();
+    }
+}
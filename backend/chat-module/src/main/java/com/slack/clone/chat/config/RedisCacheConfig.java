@@ -0,0 +1,24 @@
+package com.slack.clone.chat.config;
+
+import com.slack.clone.chat.cache.RedisRemoteCacheTier;
+import com.slack.clone.chat.cache.RemoteCacheTier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Enables the Redis tier behind the chat near-caches
+ */
+@Configuration
+@ConditionalOnProperty(name = "chat.cache.mode", havingValue = "redis")
+public class RedisCacheConfig {
+
+    @Bean
+    public RemoteCacheTier redisRemoteCacheTier(
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer redisMessageListenerContainer) {
+        return new RedisRemoteCacheTier(redisTemplate, redisMessageListenerContainer);
+    }
+}
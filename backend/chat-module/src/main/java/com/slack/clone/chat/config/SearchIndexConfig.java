@@ -0,0 +1,32 @@
+package com.slack.clone.chat.config;
+
+import com.slack.clone.chat.search.MessageSearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Message search index on local disk
+ */
+@Configuration
+public class SearchIndexConfig {
+
+    @Bean
+    public MessageSearchIndex messageSearchIndex(
+            @Value("${chat.search.directory:./data/search-index}") Path directory,
+            MeterRegistry meterRegistry) {
+        MessageSearchIndex index = new MessageSearchIndex(directory);
+        Gauge.builder("chat.search.documents", index, MessageSearchIndex::documentCount)
+                .description("Messages in the search index")
+                .register(meterRegistry);
+        Gauge.builder("chat.search.postings.bytes", index, MessageSearchIndex::postingsSizeInBytes)
+                .description("Size of the compressed search postings")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return index;
+    }
+}
@@ -0,0 +1,48 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.function.Consumer;
+
+/**
+ * One subscriber's view of a conversation's live messages.
+ * Messages are buffered from registration until the subscriber reads them,
+ * up to a bound; a subscriber that falls further behind is completed so the
+ * client reconnects and catches up from history.
+ */
+public class LiveTail {
+
+    private final Sinks.Many<MessageDTO> sink;
+    private final Consumer<LiveTail> onClose;
+
+    LiveTail(int bufferSize, Consumer<LiveTail> onClose) {
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<MessageDTO>get(bufferSize).get());
+        this.onClose = onClose;
+    }
+
+    /**
+     * Live messages, from registration onwards. May be subscribed once.
+     */
+    public Flux<MessageDTO> messages() {
+        return sink.asFlux().doFinally(signal -> close());
+    }
+
+    /**
+     * Stop receiving messages and release the registration
+     */
+    public void close() {
+        onClose.accept(this);
+        sink.tryEmitComplete();
+    }
+
+    boolean offer(MessageDTO message) {
+        Sinks.EmitResult result = sink.tryEmitNext(message);
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+            close();
+        }
+        return result.isSuccess();
+    }
+}
@@ -0,0 +1,26 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+/**
+ * Sends straight to the configured broker. Used with the simple broker
+ * (single node) and with the external STOMP broker relay, which handles
+ * cross-node delivery itself.
+ */
+@RequiredArgsConstructor
+public class LocalMessageFanout implements MessageFanout {
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    @Override
+    public void toChannel(String channelId, MessageEventDTO payload) {
+        messagingTemplate.convertAndSend(MessageDeliveryService.CHANNEL_TOPIC_PREFIX + channelId, payload);
+    }
+
+    @Override
+    public void toUser(String userId, MessageEventDTO payload) {
+        messagingTemplate.convertAndSendToUser(userId, MessageDeliveryService.DM_USER_QUEUE, payload);
+    }
+}
@@ -0,0 +1,189 @@
+package com.slack.clone.chat.delivery;
+
+import com.mongodb.MongoException;
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.mapper.ChatMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveChangeStreamOperation.TerminatingChangeStream;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tails inserts into the message collections with one change stream per
+ * collection per node and multiplexes them to live-tail subscribers by
+ * conversation and to {@link MessageInsertListener}s. When a stream fails it
+ * is reopened after its last resume token, so connected subscribers do not
+ * miss messages across a failover.
+ */
+@Component
+@Slf4j
+public class MessageChangeStream implements SmartLifecycle {
+
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ChatMapper chatMapper;
+    private final List<MessageInsertListener> insertListeners;
+    private final boolean enabled;
+    private final int bufferSize;
+
+    private final Map<String, Set<LiveTail>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicReference<BsonValue> channelResumeToken = new AtomicReference<>();
+    private final AtomicReference<BsonValue> dmResumeToken = new AtomicReference<>();
+    private volatile Disposable streams;
+
+    public MessageChangeStream(ReactiveMongoTemplate mongoTemplate,
+                               ChatMapper chatMapper,
+                               List<MessageInsertListener> insertListeners,
+                               @Value("${chat.live-tail.enabled:true}") boolean enabled,
+                               @Value("${chat.live-tail.buffer-size:256}") int bufferSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.chatMapper = chatMapper;
+        this.insertListeners = insertListeners;
+        this.enabled = enabled;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Register for a conversation's live messages. Messages inserted after
+     * this call are buffered until the returned tail is read.
+     */
+    public LiveTail register(ConversationType type, String targetId) {
+        String key = key(type, targetId);
+        LiveTail tail = new LiveTail(bufferSize, closed -> unregister(key, closed));
+        subscribers.compute(key, (k, tails) -> {
+            Set<LiveTail> registered = tails != null ? tails : ConcurrentHashMap.newKeySet();
+            registered.add(tail);
+            return registered;
+        });
+        return tail;
+    }
+
+    /**
+     * Number of conversations with at least one live subscriber
+     */
+    public int activeConversations() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        streams = Disposables.composite(
+                tail(ChannelMessage.class, channelResumeToken,
+                        message -> onInsert(ConversationType.CHANNEL, message.getChannelId(), chatMapper.toDTO(message))),
+                tail(DmMessage.class, dmResumeToken,
+                        message -> onInsert(ConversationType.DM, message.getConversationId(), chatMapper.toDTO(message))));
+        log.info("Message change streams started");
+    }
+
+    @Override
+    public void stop() {
+        Disposable current = streams;
+        streams = null;
+        if (current != null) {
+            current.dispose();
+        }
+        // Clients reconnect with their last event id and resume on another node
+        subscribers.values().forEach(tails -> tails.forEach(LiveTail::close));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return streams != null;
+    }
+
+    /**
+     * Deliver a message to the live tails of its conversation
+     */
+    public void publish(ConversationType type, String targetId, MessageDTO message) {
+        Set<LiveTail> tails = subscribers.get(key(type, targetId));
+        if (tails != null) {
+            tails.forEach(tail -> tail.offer(message));
+        }
+    }
+
+    private void onInsert(ConversationType type, String targetId, MessageDTO message) {
+        publish(type, targetId, message);
+        for (MessageInsertListener listener : insertListeners) {
+            try {
+                listener.onInsert(type, targetId, message);
+            } catch (RuntimeException e) {
+                // Failing here would reopen the stream and replay the message to every listener
+                log.warn("Insert listener failed for message {}", message.getId(), e);
+            }
+        }
+    }
+
+    private <T> Disposable tail(Class<T> documentType, AtomicReference<BsonValue> resumeToken, Consumer<T> onInsert) {
+        return Flux.defer(() -> open(documentType, resumeToken.get()))
+                .doOnNext(event -> {
+                    if (event.getBody() != null) {
+                        onInsert.accept(event.getBody());
+                    }
+                    resumeToken.set(event.getResumeToken());
+                })
+                .doOnError(e -> {
+                    log.warn("Change stream on {} failed, reopening", documentType.getSimpleName(), e);
+                    if (isHistoryLost(e)) {
+                        // The token fell off the oplog; start from now rather than retry it forever
+                        resumeToken.set(null);
+                    }
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF).maxBackoff(MAX_BACKOFF).transientErrors(true))
+                .subscribe();
+    }
+
+    private <T> Flux<ChangeStreamEvent<T>> open(Class<T> documentType, BsonValue resumeToken) {
+        var inserts = mongoTemplate.changeStream(documentType)
+                .watchCollection(mongoTemplate.getCollectionName(documentType))
+                .filter(where("operationType").is("insert"));
+        TerminatingChangeStream<T> stream = resumeToken != null ? inserts.resumeAfter(resumeToken) : inserts;
+        return stream.listen();
+    }
+
+    private static boolean isHistoryLost(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof MongoException mongoException && mongoException.getCode() == CHANGE_STREAM_HISTORY_LOST) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void unregister(String key, LiveTail tail) {
+        subscribers.computeIfPresent(key, (k, tails) -> {
+            tails.remove(tail);
+            return tails.isEmpty() ? null : tails;
+        });
+    }
+
+    private static String key(ConversationType type, String targetId) {
+        return type.name() + ':' + targetId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageEventDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Pushes sent messages to STOMP subscribers off the request thread
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageDeliveryService {
+
+    public static final String CHANNEL_TOPIC_PREFIX = "/topic/channels/";
+    public static final String DM_USER_QUEUE = "/queue/dm";
+
+    private final MessageFanout messageFanout;
+
+    @Async("messageDeliveryExecutor")
+    @EventListener
+    public void onMessageSent(MessageSentEvent event) {
+        MessageEventDTO payload = MessageEventDTO.builder()
+                .type(event.type().name())
+                .targetId(event.targetId())
+                .message(event.message())
+                .build();
+
+        try {
+            if (event.type() == MessageSentEvent.ConversationType.CHANNEL) {
+                messageFanout.toChannel(event.targetId(), payload);
+            } else {
+                for (String recipientId : event.recipientIds()) {
+                    messageFanout.toUser(recipientId, payload);
+                }
+            }
+        } catch (Exception e) {
+            // Clients recover missed messages from the history endpoints
+            log.warn("Failed to deliver message {} to {}", event.message().getId(), event.targetId(), e);
+        }
+    }
+}
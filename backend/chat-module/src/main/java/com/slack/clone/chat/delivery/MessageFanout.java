@@ -0,0 +1,13 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageEventDTO;
+
+/**
+ * Delivers real-time payloads to WebSocket subscribers, possibly across nodes
+ */
+public interface MessageFanout {
+
+    void toChannel(String channelId, MessageEventDTO payload);
+
+    void toUser(String userId, MessageEventDTO payload);
+}
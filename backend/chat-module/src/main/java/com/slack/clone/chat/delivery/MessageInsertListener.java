@@ -0,0 +1,12 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+
+/**
+ * Receives every message inserted into MongoDB, whichever node sent it
+ */
+public interface MessageInsertListener {
+
+    void onInsert(ConversationType type, String targetId, MessageDTO message);
+}
@@ -0,0 +1,191 @@
+package com.slack.clone.chat.delivery;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.clone.chat.dto.MessageEventDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cross-node fan-out over Redis pub/sub. Each node subscribes to a Redis
+ * channel once per channel topic or user queue that has at least one local
+ * STOMP subscriber, and relays what it receives to its own simple broker.
+ */
+@Slf4j
+public class RedisMessageFanout implements MessageFanout {
+
+    static final String CHANNEL_KEY_PREFIX = "ws:channel:";
+    static final String USER_KEY_PREFIX = "ws:user:";
+    private static final String USER_DM_DESTINATION = "/user" + MessageDeliveryService.DM_USER_QUEUE;
+    private static final int SUBSCRIPTION_STRIPES = 256;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SimpMessageSendingOperations localTemplate;
+    private final ObjectMapper objectMapper;
+    private final MessageListener relayListener = this::relayToLocalSubscribers;
+
+    /** Redis channel -> number of local STOMP subscriptions */
+    private final Map<String, Integer> localSubscriberCounts = new ConcurrentHashMap<>();
+    /** STOMP session -> (subscription id -> Redis channel) */
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    /**
+     * Orders the Redis subscribe and unsubscribe of one channel with its count changes. These calls block,
+     * so they run under a ReentrantLock rather than inside compute(), which would pin virtual threads.
+     */
+    private final Lock[] subscriptionLocks = new Lock[SUBSCRIPTION_STRIPES];
+
+    public RedisMessageFanout(StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              SimpMessageSendingOperations localTemplate,
+                              ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.localTemplate = localTemplate;
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < SUBSCRIPTION_STRIPES; i++) {
+            subscriptionLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void toChannel(String channelId, MessageEventDTO payload) {
+        publish(CHANNEL_KEY_PREFIX + channelId, payload);
+    }
+
+    @Override
+    public void toUser(String userId, MessageEventDTO payload) {
+        publish(USER_KEY_PREFIX + userId, payload);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String redisChannel = redisChannelFor(accessor.getDestination(), event.getUser());
+        if (redisChannel == null || accessor.getSessionId() == null) {
+            return;
+        }
+
+        sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), redisChannel);
+        retain(redisChannel);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+        if (subscriptions != null) {
+            String redisChannel = subscriptions.remove(accessor.getSubscriptionId());
+            if (redisChannel != null) {
+                release(redisChannel);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    int localSubscriberCount(String redisChannel) {
+        return localSubscriberCounts.getOrDefault(redisChannel, 0);
+    }
+
+    private void retain(String redisChannel) {
+        Lock lock = lockFor(redisChannel);
+        lock.lock();
+        try {
+            if (localSubscriberCounts.merge(redisChannel, 1, Integer::sum) == 1) {
+                listenerContainer.addMessageListener(relayListener, new ChannelTopic(redisChannel));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(String redisChannel) {
+        Lock lock = lockFor(redisChannel);
+        lock.lock();
+        try {
+            Integer count = localSubscriberCounts.get(redisChannel);
+            if (count == null) {
+                return;
+            }
+            if (count > 1) {
+                localSubscriberCounts.put(redisChannel, count - 1);
+                return;
+            }
+            localSubscriberCounts.remove(redisChannel);
+            listenerContainer.removeMessageListener(relayListener, new ChannelTopic(redisChannel));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lockFor(String redisChannel) {
+        return subscriptionLocks[Math.floorMod(redisChannel.hashCode(), SUBSCRIPTION_STRIPES)];
+    }
+
+    private void publish(String redisChannel, MessageEventDTO payload) {
+        try {
+            redisTemplate.convertAndSend(redisChannel, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException | DataAccessException e) {
+            log.warn("Failed to publish real-time message to {}", redisChannel, e);
+        }
+    }
+
+    private void relayToLocalSubscribers(Message message, byte[] pattern) {
+        String redisChannel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        MessageEventDTO payload;
+        try {
+            payload = objectMapper.readValue(message.getBody(), MessageEventDTO.class);
+        } catch (IOException e) {
+            log.warn("Dropping malformed real-time message on {}", redisChannel, e);
+            return;
+        }
+
+        if (redisChannel.startsWith(CHANNEL_KEY_PREFIX)) {
+            String channelId = redisChannel.substring(CHANNEL_KEY_PREFIX.length());
+            localTemplate.convertAndSend(MessageDeliveryService.CHANNEL_TOPIC_PREFIX + channelId, payload);
+        } else if (redisChannel.startsWith(USER_KEY_PREFIX)) {
+            String userId = redisChannel.substring(USER_KEY_PREFIX.length());
+            localTemplate.convertAndSendToUser(userId, MessageDeliveryService.DM_USER_QUEUE, payload);
+        }
+    }
+
+    private String redisChannelFor(String destination, Principal user) {
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith(MessageDeliveryService.CHANNEL_TOPIC_PREFIX)) {
+            return CHANNEL_KEY_PREFIX + destination.substring(MessageDeliveryService.CHANNEL_TOPIC_PREFIX.length());
+        }
+        if (USER_DM_DESTINATION.equals(destination) && user != null) {
+            return USER_KEY_PREFIX + user.getName();
+        }
+        return null;
+    }
+}
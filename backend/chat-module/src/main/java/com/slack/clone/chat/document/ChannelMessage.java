@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
  * Channel message document stored in MongoDB
  */
 @Document(collection = "channel_messages")
-@CompoundIndex(name = "channel_created_idx", def = "{'channelId': 1, 'createdAt': 1}")
+@CompoundIndex(name = "channel_created_idx", def = "{'channelId': 1, 'createdAt': 1, '_id': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
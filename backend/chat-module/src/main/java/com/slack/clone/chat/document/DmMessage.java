@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
  * DM message document stored in MongoDB
  */
 @Document(collection = "dm_messages")
-@CompoundIndex(name = "conversation_created_idx", def = "{'conversationId': 1, 'createdAt': 1}")
+@CompoundIndex(name = "conversation_created_idx", def = "{'conversationId': 1, 'createdAt': 1, '_id': 1}")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,23 @@
+package com.slack.clone.chat.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for adding or removing many channel members at once
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMembershipRequest {
+
+    @NotEmpty(message = "At least one user ID is required")
+    @Size(max = 10000, message = "At most 10000 users per request")
+    private List<@NotBlank String> userIds;
+}
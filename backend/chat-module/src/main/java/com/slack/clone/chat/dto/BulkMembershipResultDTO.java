@@ -0,0 +1,21 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Per-user outcome of a bulk membership change, in request order, and the
+ * number of memberships actually changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkMembershipResultDTO {
+    private Map<String, MembershipChangeStatus> results;
+    private int changed;
+}
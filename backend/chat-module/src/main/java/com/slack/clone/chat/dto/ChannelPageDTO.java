@@ -0,0 +1,39 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Cursor-paginated page of the channel directory for API responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChannelPageDTO {
+    private List<ChannelDTO> channels;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Entity tag over the page content, used for conditional GETs. It is computed
+     * from the queried page, so a match saves the response body, not the query.
+     */
+    public String etag() {
+        StringBuilder content = new StringBuilder();
+        for (ChannelDTO channel : channels) {
+            content.append(channel.getId()).append('\u0000')
+                    .append(channel.getName()).append('\u0000')
+                    .append(channel.getDescription()).append('\u0000')
+                    .append(channel.getMemberCount()).append('\n');
+        }
+        content.append(nextCursor);
+        return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,16 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to mark a conversation read; the cursor of the last message the
+ * client displayed is kept as the read position
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarkReadRequest {
+    private String lastReadCursor;
+}
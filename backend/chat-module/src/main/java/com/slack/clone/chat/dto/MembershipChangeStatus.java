@@ -0,0 +1,11 @@
+package com.slack.clone.chat.dto;
+
+/**
+ * Outcome of a bulk membership change for one user
+ */
+public enum MembershipChangeStatus {
+    ADDED,
+    ALREADY_MEMBER,
+    REMOVED,
+    NOT_MEMBER
+}
@@ -0,0 +1,54 @@
+package com.slack.clone.chat.dto;
+
+import com.slack.clone.shared.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset cursor over (createdAt, id) used for message history pagination.
+ * Clients only ever see the opaque encoded form.
+ */
+public record MessageCursor(LocalDateTime createdAt, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static MessageCursor of(MessageDTO message) {
+        return new MessageCursor(message.getCreatedAt(), message.getId());
+    }
+
+    /**
+     * Encode cursor as an opaque URL-safe token
+     */
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque token produced by {@link #encode()}
+     */
+    public static MessageCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+
+        int separatorIndex = raw.indexOf(SEPARATOR);
+        if (separatorIndex <= 0 || separatorIndex == raw.length() - 1) {
+            throw new ValidationException("Invalid cursor");
+        }
+
+        try {
+            return new MessageCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    raw.substring(separatorIndex + 1));
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Real-time message payload pushed to WebSocket subscribers
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageEventDTO {
+    private String type;
+    private String targetId;
+    private MessageDTO message;
+}
@@ -0,0 +1,20 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A search match; exactly one of {@code channelId} and {@code conversationId} is set
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchHitDTO {
+    private String channelId;
+    private String conversationId;
+    private MessageDTO message;
+    private double score;
+}
@@ -0,0 +1,21 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A page of search matches, best first. {@code nextCursor} is set when more matches follow.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchResultDTO {
+    private List<MessageSearchHitDTO> hits;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cursor-paginated slice of messages for API responses
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSliceDTO {
+    private List<MessageDTO> messages;
+    private String nextCursor;
+    private boolean hasNext;
+}
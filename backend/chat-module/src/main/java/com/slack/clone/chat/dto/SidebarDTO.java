@@ -0,0 +1,26 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything needed to render the sidebar: the user's channels and DM
+ * conversations, the latest message of each keyed by conversation ID, and
+ * unread counts. Conversations without messages have no latest message entry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SidebarDTO {
+    private List<ChannelDTO> channels;
+    private List<DmConversationDTO> dms;
+    private Map<String, MessageDTO> latestChannelMessages;
+    private Map<String, MessageDTO> latestDmMessages;
+    private UnreadSummaryDTO unread;
+}
@@ -0,0 +1,18 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unread count and read position of one conversation
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnreadCountDTO {
+    private long unreadCount;
+    private String lastReadCursor;
+}
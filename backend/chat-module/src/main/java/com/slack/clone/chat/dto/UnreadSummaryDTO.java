@@ -0,0 +1,20 @@
+package com.slack.clone.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Unread counts of all of a user's channels and DM conversations, keyed by ID
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnreadSummaryDTO {
+    private Map<String, UnreadCountDTO> channels;
+    private Map<String, UnreadCountDTO> dms;
+}
@@ -3,18 +3,21 @@ package com.slack.clone.chat.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Channel entity stored in PostgreSQL
  */
 @Entity
 @Table(name = "channels", indexes = {
-        @Index(name = "idx_channel_name", columnList = "name", unique = true)
+        @Index(name = "idx_channel_name", columnList = "name", unique = true),
+        @Index(name = "idx_channel_directory", columnList = "name_key, name")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Getter
@@ -22,7 +25,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Channel {
+public class Channel implements Persistable<String> {
 
     @Id
     @Column(length = 36)
@@ -31,6 +34,13 @@ public class Channel {
     @Column(nullable = false, unique = true, length = 100)
     private String name;
 
+    /**
+     * Lower-cased name the directory filters, orders and pages on; kept in step with {@link #name}
+     */
+    @Column(name = "name_key", nullable = false, length = 100)
+    @Setter(AccessLevel.NONE)
+    private String nameKey;
+
     @Column(length = 500)
     private String description;
 
@@ -44,4 +54,37 @@ public class Channel {
     @OneToMany(mappedBy = "channel", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<ChannelMember> members = new ArrayList<>();
+
+    /**
+     * IDs are assigned before saving, so newness is tracked here; otherwise
+     * save() would merge, selecting each row before inserting it and defeating batching
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateNameKey() {
+        nameKey = nameKey(name);
+    }
+
+    /**
+     * Directory key of a channel name
+     */
+    public static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,25 @@
+package com.slack.clone.chat.event;
+
+import com.slack.clone.chat.dto.MessageDTO;
+
+import java.util.List;
+
+/**
+ * Published after a message has been accepted for persistence.
+ * For DMs {@code recipientIds} holds both participants; for channels it is empty.
+ */
+public record MessageSentEvent(ConversationType type, String targetId, List<String> recipientIds, MessageDTO message) {
+
+    public enum ConversationType {
+        CHANNEL,
+        DM
+    }
+
+    public static MessageSentEvent channel(String channelId, MessageDTO message) {
+        return new MessageSentEvent(ConversationType.CHANNEL, channelId, List.of(), message);
+    }
+
+    public static MessageSentEvent dm(String conversationId, List<String> participantIds, MessageDTO message) {
+        return new MessageSentEvent(ConversationType.DM, conversationId, participantIds, message);
+    }
+}
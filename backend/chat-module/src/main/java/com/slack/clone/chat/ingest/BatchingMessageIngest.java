@@ -0,0 +1,304 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.shared.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind ingest: sends are acknowledged once queued, and writer threads
+ * flush batches with a single ordered insertMany when a batch fills or the flush
+ * interval elapses.
+ * <p>
+ * Channels are hashed onto shards, each with a bounded queue and a single writer,
+ * so messages of one channel are written in ingest order. Acknowledged messages are
+ * not dropped while Mongo is unavailable: a writer keeps retrying its batch with capped
+ * backoff, its shard fills up and further sends are rejected with 429. A message Mongo
+ * rejects outright, such as one failing validation, is logged and skipped instead so
+ * it cannot wedge its shard. Direct
+ * messages are low volume and written synchronously. On shutdown intake stops and
+ * every queued message is flushed before the Mongo client is closed.
+ */
+@Slf4j
+public class BatchingMessageIngest implements MessageIngest, SmartLifecycle {
+
+    /**
+     * Stop after the web server has stopped taking requests, before data sources are closed
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(100);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final List<BlockingQueue<ChannelMessage>> shards;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final Duration drainTimeout;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+
+    /**
+     * Messages taken off a shard by a writer and not yet stored
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    /**
+     * Queued or in-flight message count per channel, absent once all are stored
+     */
+    private final Map<String, Integer> pendingByChannel = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the running flag so no message is queued after writers begin their final drain
+     */
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile long drainDeadline;
+
+    public BatchingMessageIngest(MongoTemplate mongoTemplate, int shardCount, int queueCapacity,
+                                 int maxBatchSize, Duration flushInterval, Duration drainTimeout) {
+        this(mongoTemplate, shardCount, queueCapacity, maxBatchSize, flushInterval, drainTimeout,
+                MIN_BACKOFF, MAX_BACKOFF);
+    }
+
+    BatchingMessageIngest(MongoTemplate mongoTemplate, int shardCount, int queueCapacity,
+                          int maxBatchSize, Duration flushInterval, Duration drainTimeout,
+                          Duration minBackoff, Duration maxBackoff) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.drainTimeout = drainTimeout;
+        this.minBackoffMillis = minBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+    }
+
+    @Override
+    public ChannelMessage ingest(ChannelMessage message) {
+        lifecycleLock.readLock().lock();
+        try {
+            if (!running) {
+                // Not started or already draining: fall back to a synchronous write
+                mongoTemplate.insert(message);
+                return message;
+            }
+            // Counted before it is queued so a writer can never release it first
+            pendingByChannel.merge(message.getChannelId(), 1, Integer::sum);
+            if (!shardFor(message.getChannelId()).offer(message)) {
+                release(message);
+                throw new TooManyRequestsException("Message ingest queue is full, retry shortly");
+            }
+            return message;
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public DmMessage ingest(DmMessage message) {
+        mongoTemplate.insert(message);
+        return message;
+    }
+
+    @Override
+    public boolean hasBacklog(String channelId) {
+        return pendingByChannel.containsKey(channelId);
+    }
+
+    /**
+     * Number of messages accepted but not yet stored in Mongo
+     */
+    public int pendingCount() {
+        return shards.stream().mapToInt(BlockingQueue::size).sum() + inFlight.get();
+    }
+
+    @Override
+    public void start() {
+        lifecycleLock.writeLock().lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            for (int i = 0; i < shards.size(); i++) {
+                BlockingQueue<ChannelMessage> shard = shards.get(i);
+                Thread writer = new Thread(() -> runWriter(shard), "message-ingest-" + i);
+                writers.add(writer);
+                writer.start();
+            }
+            log.info("Batched message ingest started with {} shards", shards.size());
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        lifecycleLock.writeLock().lock();
+        try {
+            drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(drainDeadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.clear();
+
+        int pending = pendingCount();
+        if (pending > 0) {
+            log.error("Message ingest drain timed out with {} messages unflushed", pending);
+        } else {
+            log.info("Batched message ingest drained");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private BlockingQueue<ChannelMessage> shardFor(String channelId) {
+        return shards.get(Math.floorMod(channelId.hashCode(), shards.size()));
+    }
+
+    private void runWriter(BlockingQueue<ChannelMessage> shard) {
+        List<ChannelMessage> batch = new ArrayList<>(maxBatchSize);
+        while (running || !shard.isEmpty()) {
+            try {
+                fillBatch(shard, batch);
+            } catch (InterruptedException e) {
+                // Keep draining; the lifecycle decides when writers exit
+                log.warn("Message ingest writer interrupted, continuing drain");
+            }
+            if (!batch.isEmpty()) {
+                inFlight.addAndGet(batch.size());
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(BlockingQueue<ChannelMessage> shard, List<ChannelMessage> batch)
+            throws InterruptedException {
+        ChannelMessage first = shard.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < maxBatchSize) {
+            if (shard.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return;
+            }
+            ChannelMessage next = shard.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<ChannelMessage> batch) {
+        try {
+            mongoTemplate.insert(batch, ChannelMessage.class);
+            inFlight.addAndGet(-batch.size());
+            batch.forEach(this::release);
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Bulk insert of {} messages failed, retrying individually: {}", batch.size(), e.getMessage());
+        }
+
+        // An ordered insertMany may have stored a prefix of the batch; save() upserts by id so retries are idempotent.
+        // Messages were acknowledged when queued, so they are retried until stored while Mongo is unavailable.
+        long backoffMillis = minBackoffMillis;
+        int next = 0;
+        while (next < batch.size()) {
+            try {
+                mongoTemplate.save(batch.get(next));
+                inFlight.decrementAndGet();
+                release(batch.get(next));
+                next++;
+                backoffMillis = minBackoffMillis;
+            } catch (DataAccessException e) {
+                if (!isRetryable(e)) {
+                    ChannelMessage rejected = batch.get(next);
+                    log.error("Dropping message {} in channel {}, rejected by Mongo: {}",
+                            rejected.getId(), rejected.getChannelId(), e.getMessage(), e);
+                    inFlight.decrementAndGet();
+                    release(rejected);
+                    next++;
+                    continue;
+                }
+                if (!running && System.nanoTime() >= drainDeadline) {
+                    log.error("Giving up on {} messages at shutdown, Mongo still failing: {}",
+                            batch.size() - next, e.getMessage());
+                    return;
+                }
+                log.warn("Mongo unavailable, retrying message {} in {} ms: {}",
+                        batch.get(next).getId(), backoffMillis, e.getMessage());
+                sleepQuietly(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    /**
+     * Whether the failure may clear up on its own: transient errors and lost or timed out connections
+     */
+    private static boolean isRetryable(DataAccessException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException;
+    }
+
+    private void release(ChannelMessage message) {
+        pendingByChannel.computeIfPresent(message.getChannelId(), (channelId, count) -> count == 1 ? null : count - 1);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
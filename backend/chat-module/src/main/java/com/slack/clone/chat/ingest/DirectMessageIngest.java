@@ -0,0 +1,27 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Saves each message synchronously before the send is acknowledged
+ */
+@RequiredArgsConstructor
+public class DirectMessageIngest implements MessageIngest {
+
+    private final ChannelMessageRepository channelMessageRepository;
+    private final DmMessageRepository dmMessageRepository;
+
+    @Override
+    public ChannelMessage ingest(ChannelMessage message) {
+        return channelMessageRepository.save(message);
+    }
+
+    @Override
+    public DmMessage ingest(DmMessage message) {
+        return dmMessageRepository.save(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+
+/**
+ * Persistence path for new messages, selected by {@code chat.ingest.mode}
+ */
+public interface MessageIngest {
+
+    /**
+     * Accept a message for persistence and return the message as acknowledged to the sender.
+     * Implementations may persist asynchronously; messages of one channel are stored in ingest order.
+     */
+    ChannelMessage ingest(ChannelMessage message);
+
+    /**
+     * Accept a direct message for persistence and return the message as acknowledged to the sender
+     */
+    DmMessage ingest(DmMessage message);
+
+    /**
+     * Whether messages of the channel acknowledged by this node may not be in Mongo yet.
+     * Readers must not cache what they load from Mongo for such a channel.
+     */
+    default boolean hasBacklog(String channelId) {
+        return false;
+    }
+}
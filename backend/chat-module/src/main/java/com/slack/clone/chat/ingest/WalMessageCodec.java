@@ -0,0 +1,119 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of messages for write-ahead log records
+ */
+final class WalMessageCodec {
+
+    static final byte CHANNEL_MESSAGE = 1;
+    static final byte DM_MESSAGE = 2;
+
+    private WalMessageCodec() {
+        // Utility class
+    }
+
+    static byte[] encode(ChannelMessage message) {
+        return encode(message.getId(), message.getChannelId(), message.getSenderId(), message.getContent(),
+                message.getCreatedAt(), message.getEditedAt(), message.getType());
+    }
+
+    static byte[] encode(DmMessage message) {
+        return encode(message.getId(), message.getConversationId(), message.getSenderId(), message.getContent(),
+                message.getCreatedAt(), message.getEditedAt(), message.getType());
+    }
+
+    static ChannelMessage decodeChannelMessage(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return ChannelMessage.builder()
+                    .id(readString(in))
+                    .channelId(readString(in))
+                    .senderId(readString(in))
+                    .content(readString(in))
+                    .createdAt(readTime(in))
+                    .editedAt(readTime(in))
+                    .type(readString(in))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed channel message record", e);
+        }
+    }
+
+    static DmMessage decodeDmMessage(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return DmMessage.builder()
+                    .id(readString(in))
+                    .conversationId(readString(in))
+                    .senderId(readString(in))
+                    .content(readString(in))
+                    .createdAt(readTime(in))
+                    .editedAt(readTime(in))
+                    .type(readString(in))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed direct message record", e);
+        }
+    }
+
+    private static byte[] encode(String id, String targetId, String senderId, String content,
+                                 LocalDateTime createdAt, LocalDateTime editedAt, String type) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + (content == null ? 0 : content.length() * 3));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, id);
+            writeString(out, targetId);
+            writeString(out, senderId);
+            writeString(out, content);
+            writeTime(out, createdAt);
+            writeTime(out, editedAt);
+            writeString(out, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
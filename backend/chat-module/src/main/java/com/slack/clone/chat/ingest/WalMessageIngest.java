@@ -0,0 +1,227 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.ingest.wal.WalBatch;
+import com.slack.clone.chat.ingest.wal.WalEntry;
+import com.slack.clone.chat.ingest.wal.WalFullException;
+import com.slack.clone.chat.ingest.wal.WriteAheadLog;
+import com.slack.clone.shared.exception.TooManyRequestsException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest through a local write-ahead log: sends are acknowledged once their
+ * record is durable on local disk, and a replayer thread drains the log into
+ * Mongo, backing off while Mongo is slow or unavailable.
+ * <p>
+ * Replay is at-least-once; records are re-applied with idempotent upserts by id
+ * after a crash between insert and checkpoint. Whatever is not replayed before
+ * shutdown is replayed on the next start.
+ */
+@Slf4j
+public class WalMessageIngest implements MessageIngest, SmartLifecycle {
+
+    private static final long MIN_BACKOFF_MILLIS = 100;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+
+    private final WriteAheadLog wal;
+    private final MongoTemplate mongoTemplate;
+    private final int replayBatchSize;
+    private final Duration drainTimeout;
+
+    private final Semaphore appended = new Semaphore(0);
+    /**
+     * WAL end position of each channel's newest appended message, dropped once replayed
+     */
+    private final Map<String, Long> lastPositionByChannel = new ConcurrentHashMap<>();
+    /**
+     * End of the records recovered at start, appended before this node could track them
+     */
+    private volatile long recoveredPosition;
+    private volatile boolean running;
+    private volatile long drainDeadline;
+    private Thread replayer;
+
+    public WalMessageIngest(WriteAheadLog wal, MongoTemplate mongoTemplate, int replayBatchSize, Duration drainTimeout) {
+        this.wal = wal;
+        this.mongoTemplate = mongoTemplate;
+        this.replayBatchSize = replayBatchSize;
+        this.drainTimeout = drainTimeout;
+    }
+
+    @Override
+    public ChannelMessage ingest(ChannelMessage message) {
+        long position = append(WalMessageCodec.CHANNEL_MESSAGE, WalMessageCodec.encode(message),
+                () -> mongoTemplate.insert(message));
+        if (position > 0) {
+            lastPositionByChannel.merge(message.getChannelId(), position, Math::max);
+        }
+        return message;
+    }
+
+    @Override
+    public DmMessage ingest(DmMessage message) {
+        append(WalMessageCodec.DM_MESSAGE, WalMessageCodec.encode(message), () -> mongoTemplate.insert(message));
+        return message;
+    }
+
+    @Override
+    public boolean hasBacklog(String channelId) {
+        long checkpoint = wal.checkpoint();
+        if (checkpoint < recoveredPosition) {
+            // Recovered records are not attributed to channels
+            return true;
+        }
+        Long last = lastPositionByChannel.get(channelId);
+        return last != null && checkpoint < last;
+    }
+
+    /**
+     * @return the WAL position just past the record, or -1 if it was written directly to Mongo
+     */
+    private long append(byte type, byte[] payload, Runnable directWrite) {
+        if (!running) {
+            directWrite.run();
+            return -1;
+        }
+        try {
+            long position = wal.append(type, payload);
+            appended.release();
+            return position;
+        } catch (WalFullException e) {
+            throw new TooManyRequestsException("Message log is full, retry shortly");
+        } catch (IOException e) {
+            log.error("Message WAL append failed, writing directly to Mongo", e);
+            directWrite.run();
+            return -1;
+        }
+    }
+
+    @Override
+    public void start() {
+        recoveredPosition = wal.durablePosition();
+        running = true;
+        replayer = new Thread(this::runReplayer, "message-wal-replayer");
+        replayer.start();
+        log.info("WAL message ingest started");
+    }
+
+    @Override
+    public void stop() {
+        drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        running = false;
+        appended.release();
+        try {
+            replayer.join(drainTimeout.plusSeconds(1).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            wal.close();
+        } catch (IOException e) {
+            log.error("Failed to close message WAL", e);
+        }
+        if (!wal.isCaughtUp()) {
+            log.warn("Message WAL not fully replayed at shutdown; remaining records replay on next start");
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return BatchingMessageIngest.PHASE;
+    }
+
+    private void runReplayer() {
+        long backoffMillis = MIN_BACKOFF_MILLIS;
+        while (running || (!wal.isCaughtUp() && System.nanoTime() < drainDeadline)) {
+            try {
+                WalBatch batch = wal.read(wal.checkpoint(), replayBatchSize);
+                if (batch.entries().isEmpty()) {
+                    if (batch.nextPosition() > wal.checkpoint()) {
+                        wal.commit(batch.nextPosition());
+                    } else if (running) {
+                        appended.tryAcquire(100, TimeUnit.MILLISECONDS);
+                        appended.drainPermits();
+                    }
+                    continue;
+                }
+
+                replay(batch.entries());
+                wal.commit(batch.nextPosition());
+                long committed = wal.checkpoint();
+                lastPositionByChannel.values().removeIf(position -> position <= committed);
+                backoffMillis = MIN_BACKOFF_MILLIS;
+            } catch (DataAccessException e) {
+                log.warn("Mongo unavailable, pausing WAL replay for {} ms: {}", backoffMillis, e.getMessage());
+                sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            } catch (IOException e) {
+                log.error("Failed to read or checkpoint message WAL", e);
+                sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void replay(List<WalEntry> entries) {
+        List<ChannelMessage> channelMessages = new ArrayList<>();
+        List<DmMessage> dmMessages = new ArrayList<>();
+        for (WalEntry entry : entries) {
+            try {
+                if (entry.type() == WalMessageCodec.CHANNEL_MESSAGE) {
+                    channelMessages.add(WalMessageCodec.decodeChannelMessage(entry.payload()));
+                } else if (entry.type() == WalMessageCodec.DM_MESSAGE) {
+                    dmMessages.add(WalMessageCodec.decodeDmMessage(entry.payload()));
+                } else {
+                    log.error("Skipping WAL record of unknown type {}", entry.type());
+                }
+            } catch (UncheckedIOException e) {
+                log.error("Skipping undecodable WAL record", e);
+            }
+        }
+        insertIdempotently(channelMessages, ChannelMessage.class);
+        insertIdempotently(dmMessages, DmMessage.class);
+    }
+
+    private <T> void insertIdempotently(List<T> documents, Class<T> type) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.insert(documents, type);
+        } catch (DataAccessException e) {
+            // Typically duplicate keys from a replay after a crash; save() upserts by id
+            log.debug("Bulk replay of {} failed, retrying individually: {}", type.getSimpleName(), e.getMessage());
+            documents.forEach(mongoTemplate::save);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.slack.clone.chat.ingest.wal;
+
+import java.util.List;
+
+/**
+ * Records read from the write-ahead log and the log position just past them,
+ * to be passed to {@link WriteAheadLog#commit(long)} once the records are applied
+ */
+public record WalBatch(List<WalEntry> entries, long nextPosition) {
+}
@@ -0,0 +1,7 @@
+package com.slack.clone.chat.ingest.wal;
+
+/**
+ * A CRC-verified record read back from the write-ahead log
+ */
+public record WalEntry(byte type, byte[] payload) {
+}
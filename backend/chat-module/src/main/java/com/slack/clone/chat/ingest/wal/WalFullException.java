@@ -0,0 +1,13 @@
+package com.slack.clone.chat.ingest.wal;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an append would exceed the configured number of live segments
+ */
+public class WalFullException extends IOException {
+
+    public WalFullException(String message) {
+        super(message);
+    }
+}
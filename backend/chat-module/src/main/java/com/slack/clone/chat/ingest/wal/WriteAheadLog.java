@@ -0,0 +1,458 @@
+package com.slack.clone.chat.ingest.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segment-rotated write-ahead log backed by memory-mapped files.
+ * <p>
+ * Record layout: {@code [int payloadLength][int crc32c(type, payload)][byte type][payload]}.
+ * A zero length marks the unused tail of a segment. Positions are logical
+ * ({@code segmentIndex * segmentSize + offset}) and only ever increase.
+ * <p>
+ * Appends return once their record is durable. A single flusher thread forces the
+ * mapped segment and releases every append written before the force started, so
+ * concurrent appends share one fsync (group commit). On open, the last segment is
+ * scanned and everything after the last CRC-valid record is discarded and zeroed.
+ * A corrupt record with valid records after it is not a torn tail: readers log it
+ * and resynchronize at the next record whose length and CRC check out.
+ */
+@Slf4j
+public class WriteAheadLog implements Closeable {
+
+    static final int HEADER_BYTES = 9;
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+
+    private Segment active;
+    private long writePosition;
+    private volatile long durablePosition;
+    private volatile long checkpoint;
+    private volatile boolean closed;
+
+    public WriteAheadLog(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+
+        Files.createDirectories(directory);
+        recover();
+
+        flusher = new Thread(this::runFlusher, "message-wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Append a record and block until it is durable.
+     *
+     * @return the log position just past the record
+     * @throws WalFullException if the log has reached its segment limit
+     */
+    public long append(byte type, byte[] payload) throws IOException {
+        int recordSize = HEADER_BYTES + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of " + recordSize + " bytes exceeds segment size");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+
+        lock.lock();
+        try {
+            ensureOpen();
+            if (active.offset + recordSize > segmentSize) {
+                rotate();
+            }
+
+            MappedByteBuffer buffer = active.buffer;
+            int offset = active.offset;
+            buffer.putInt(offset, payload.length);
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            buffer.put(offset + 8, type);
+            buffer.put(offset + HEADER_BYTES, payload);
+            active.offset += recordSize;
+
+            long end = position(active.index, active.offset);
+            writePosition = end;
+            flushRequested.signal();
+
+            while (durablePosition < end) {
+                try {
+                    flushed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for WAL commit");
+                }
+            }
+            return end;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read up to {@code maxRecords} durable records starting at {@code from}.
+     * A corrupt record is logged and skipped up to the next valid record.
+     */
+    public WalBatch read(long from, int maxRecords) throws IOException {
+        long limit = durablePosition;
+        List<WalEntry> entries = new ArrayList<>();
+        long position = from;
+        long openSegment = -1;
+        FileChannel channel = null;
+        try {
+            while (entries.size() < maxRecords && position < limit) {
+                long segmentIndex = position / segmentSize;
+                int offset = (int) (position % segmentSize);
+                if (offset + HEADER_BYTES > segmentSize) {
+                    position = position(segmentIndex + 1, 0);
+                    continue;
+                }
+                if (segmentIndex != openSegment) {
+                    if (channel != null) {
+                        channel.close();
+                    }
+                    channel = FileChannel.open(segmentPath(segmentIndex), StandardOpenOption.READ);
+                    openSegment = segmentIndex;
+                }
+
+                // Durable bytes of this segment; records never straddle the limit
+                int end = segmentIndex == limit / segmentSize ? (int) (limit % segmentSize) : segmentSize;
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                readFully(channel, header, offset);
+                int length = header.getInt(0);
+
+                byte[] payload = length > 0 && length <= end - offset - HEADER_BYTES ? new byte[length] : null;
+                if (payload != null) {
+                    readFully(channel, ByteBuffer.wrap(payload), offset + HEADER_BYTES);
+                }
+                if (payload == null || header.getInt(4) != crc(header.get(8), payload)) {
+                    // A zero length is normally the unused tail, unless valid records follow it
+                    int next = nextValidRecord(channel.map(FileChannel.MapMode.READ_ONLY, 0, end), offset + 1, end);
+                    if (next >= 0) {
+                        log.error("Corrupt WAL record in segment {} at offset {}, resuming at offset {}",
+                                segmentIndex, offset, next);
+                        position = position(segmentIndex, next);
+                    } else {
+                        if (length != 0) {
+                            log.error("Corrupt WAL record in segment {} at offset {}, skipping rest of segment",
+                                    segmentIndex, offset);
+                        }
+                        position = position(segmentIndex + 1, 0);
+                    }
+                    continue;
+                }
+
+                entries.add(new WalEntry(header.get(8), payload));
+                position += HEADER_BYTES + length;
+            }
+        } finally {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        return new WalBatch(entries, Math.min(position, Math.max(limit, from)));
+    }
+
+    /**
+     * Record that everything before {@code position} has been applied, and delete
+     * segments that are no longer needed
+     */
+    public void commit(long position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = position;
+
+        long firstNeeded = position / segmentSize;
+        for (long index : listSegments()) {
+            if (index < firstNeeded) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+        }
+    }
+
+    /**
+     * Position up to which records have been applied
+     */
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Position up to which records are durable
+     */
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * Whether every durable record has been applied
+     */
+    public boolean isCaughtUp() {
+        return checkpoint >= durablePosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        active.buffer.force();
+        active.channel.close();
+    }
+
+    private void runFlusher() {
+        while (true) {
+            Segment segment;
+            long target;
+            int from;
+            int to;
+            lock.lock();
+            try {
+                while (writePosition == durablePosition && !closed) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (writePosition == durablePosition) {
+                    return;
+                }
+                segment = active;
+                target = writePosition;
+                from = segment.flushedOffset;
+                to = segment.offset;
+            } finally {
+                lock.unlock();
+            }
+
+            // Appends continue into the buffer while this force runs and join the next one
+            if (to > from) {
+                segment.buffer.force(from, to - from);
+            }
+
+            lock.lock();
+            try {
+                segment.flushedOffset = Math.max(segment.flushedOffset, to);
+                if (target > durablePosition) {
+                    durablePosition = target;
+                }
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void rotate() throws IOException {
+        long liveSegments = active.index + 2 - checkpoint / segmentSize;
+        if (liveSegments > maxSegments) {
+            throw new WalFullException("Write-ahead log has reached " + maxSegments + " segments");
+        }
+
+        // Earlier segments are always fully durable, so the flusher only ever forces the active one
+        active.buffer.force();
+        durablePosition = writePosition;
+        flushed.signalAll();
+
+        Segment next = openSegment(active.index + 1);
+        active.channel.close();
+        active = next;
+        log.debug("Rotated message WAL to segment {}", next.index);
+    }
+
+    private void recover() throws IOException {
+        checkpoint = readCheckpoint();
+        List<Long> segments = listSegments();
+
+        if (segments.isEmpty()) {
+            long index = checkpoint / segmentSize;
+            active = openSegment(index);
+            writePosition = position(index, 0);
+            checkpoint = writePosition;
+        } else {
+            long first = segments.get(0);
+            long last = segments.get(segments.size() - 1);
+            active = openSegment(last);
+            active.offset = validTail(active.buffer);
+            active.flushedOffset = active.offset;
+
+            // Zero the torn tail so stale bytes can never line up with a later record
+            for (int i = active.offset; i < segmentSize; i++) {
+                active.buffer.put(i, (byte) 0);
+            }
+            active.buffer.force();
+
+            writePosition = position(last, active.offset);
+            checkpoint = Math.min(Math.max(checkpoint, position(first, 0)), writePosition);
+        }
+        durablePosition = writePosition;
+
+        if (checkpoint < durablePosition) {
+            log.info("Recovered message WAL with {} bytes pending replay", durablePosition - checkpoint);
+        }
+    }
+
+    private int validTail(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentSize) {
+            if (isValidRecord(buffer, offset, segmentSize)) {
+                offset += HEADER_BYTES + buffer.getInt(offset);
+                continue;
+            }
+            int next = nextValidRecord(buffer, offset + 1, segmentSize);
+            if (next < 0) {
+                if (buffer.getInt(offset) != 0) {
+                    log.warn("Discarding torn WAL record at offset {} of the last segment", offset);
+                }
+                break;
+            }
+            // Left in place for readers to skip; only the tail is discarded
+            log.error("Corrupt WAL record at offset {} of the last segment, next valid record at offset {}",
+                    offset, next);
+            offset = next;
+        }
+        return offset;
+    }
+
+    /**
+     * Offset of the first CRC-valid record starting in [from, end) of a
+     * segment, or -1. Only runs after corruption or at a segment's tail.
+     */
+    private static int nextValidRecord(ByteBuffer segment, int from, int end) {
+        for (int offset = from; offset + HEADER_BYTES < end; offset++) {
+            if (isValidRecord(segment, offset, end)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isValidRecord(ByteBuffer segment, int offset, int end) {
+        if (offset + HEADER_BYTES > end) {
+            return false;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || length > end - offset - HEADER_BYTES) {
+            return false;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + 8, 1 + length));
+        return (int) crc.getValue() == segment.getInt(offset + 4);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Segment openSegment(long index) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(index, channel, buffer);
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private long position(long segmentIndex, int offset) {
+        return segmentIndex * segmentSize + offset;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Write-ahead log is closed");
+        }
+    }
+
+    private static int crc(byte type, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of WAL segment");
+            }
+        }
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int offset;
+        private int flushedOffset;
+
+        private Segment(long index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -17,7 +17,11 @@ import org.mapstruct.MappingConstants;
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface ChatMapper {
 
-    @Mapping(target = "memberCount", expression = "java(channel.getMembers().size())")
+    /**
+     * Member counts come from the repository projections; mapping them here
+     * would lazily load every membership row
+     */
+    @Mapping(target = "memberCount", ignore = true)
     ChannelDTO toDTO(Channel channel);
 
     DmConversationDTO toDTO(DmConversation dmConversation);
@@ -0,0 +1,65 @@
+package com.slack.clone.chat.metrics;
+
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Timers and counters for the messaging hot paths. Meters are registered
+ * once and tagged only by conversation type, never by channel or user, so the
+ * number of series is fixed. SLO buckets are set under
+ * {@code management.metrics.distribution.slo}.
+ */
+@Component
+public class ChatMetrics {
+
+    private final Map<ConversationType, Timer> sends = new EnumMap<>(ConversationType.class);
+    private final Map<ConversationType, Timer> reads = new EnumMap<>(ConversationType.class);
+    private final Map<ConversationType, Timer> membershipChecks = new EnumMap<>(ConversationType.class);
+    private final Map<ConversationType, Counter> sentMessages = new EnumMap<>(ConversationType.class);
+
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        for (ConversationType type : ConversationType.values()) {
+            Tags tags = Tags.of("type", type.name().toLowerCase(Locale.ROOT));
+            sends.put(type, Timer.builder("chat.messages.send")
+                    .description("Time to validate and accept a sent message")
+                    .tags(tags)
+                    .register(meterRegistry));
+            reads.put(type, Timer.builder("chat.messages.read")
+                    .description("Time to read a page of message history")
+                    .tags(tags)
+                    .register(meterRegistry));
+            membershipChecks.put(type, Timer.builder("chat.membership.check")
+                    .description("Time to check channel membership or DM participation")
+                    .tags(tags)
+                    .register(meterRegistry));
+            sentMessages.put(type, Counter.builder("chat.messages.sent")
+                    .description("Messages accepted")
+                    .tags(tags)
+                    .register(meterRegistry));
+        }
+    }
+
+    public Timer sendTimer(ConversationType type) {
+        return sends.get(type);
+    }
+
+    public Timer readTimer(ConversationType type) {
+        return reads.get(type);
+    }
+
+    public Timer membershipCheckTimer(ConversationType type) {
+        return membershipChecks.get(type);
+    }
+
+    public void messageSent(ConversationType type) {
+        sentMessages.get(type).increment();
+    }
+}
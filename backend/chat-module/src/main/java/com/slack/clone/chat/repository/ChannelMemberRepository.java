@@ -2,8 +2,12 @@ package com.slack.clone.chat.repository;
 
 import com.slack.clone.chat.entity.ChannelMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,15 +15,31 @@ import java.util.Optional;
  * Repository for ChannelMember entity
  */
 @Repository
-public interface ChannelMemberRepository extends JpaRepository<ChannelMember, String> {
+public interface ChannelMemberRepository extends JpaRepository<ChannelMember, String>, ChannelMemberRepositoryCustom {
 
     List<ChannelMember> findByChannelId(String channelId);
 
     List<ChannelMember> findByUserId(String userId);
 
+    @Query("SELECT m.channel.id FROM ChannelMember m WHERE m.userId = :userId")
+    List<String> findChannelIdsByUserId(@Param("userId") String userId);
+
     Optional<ChannelMember> findByChannelIdAndUserId(String channelId, String userId);
 
     boolean existsByChannelIdAndUserId(String channelId, String userId);
 
     void deleteByChannelIdAndUserId(String channelId, String userId);
+
+    /**
+     * Which of the given users are members of the channel, in one query
+     */
+    @Query("SELECT m.userId FROM ChannelMember m WHERE m.channel.id = :channelId AND m.userId IN :userIds")
+    List<String> findMemberUserIds(@Param("channelId") String channelId, @Param("userIds") Collection<String> userIds);
+
+    /**
+     * Remove many members of a channel in one statement
+     */
+    @Modifying
+    @Query("DELETE FROM ChannelMember m WHERE m.channel.id = :channelId AND m.userId IN :userIds")
+    int deleteMembers(@Param("channelId") String channelId, @Param("userIds") Collection<String> userIds);
 }
@@ -0,0 +1,18 @@
+package com.slack.clone.chat.repository;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Set-based membership writes that bypass per-row JPA persists
+ */
+public interface ChannelMemberRepositoryCustom {
+
+    /**
+     * Insert memberships with one statement per chunk of users, skipping users
+     * who are already members (including ones added concurrently)
+     *
+     * @return the users actually added
+     */
+    Set<String> insertMembersIgnoringExisting(String channelId, Collection<String> userIds);
+}
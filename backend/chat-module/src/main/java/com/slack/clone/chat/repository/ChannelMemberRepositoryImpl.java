@@ -0,0 +1,51 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.shared.util.IdGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC implementation of {@link ChannelMemberRepositoryCustom}
+ */
+@RequiredArgsConstructor
+public class ChannelMemberRepositoryImpl implements ChannelMemberRepositoryCustom {
+
+    static final int CHUNK_SIZE = 1000;
+
+    // One statement per chunk; RETURNING lists only the rows the conflict clause did not skip
+    private static final String INSERT_MEMBERS =
+            "INSERT INTO channel_members (id, channel_id, user_id, joined_at) " +
+            "SELECT m.id, ?, m.user_id, ? FROM unnest(?::varchar[], ?::varchar[]) AS m(id, user_id) " +
+            "ON CONFLICT (channel_id, user_id) DO NOTHING " +
+            "RETURNING user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Set<String> insertMembersIgnoringExisting(String channelId, Collection<String> userIds) {
+        List<String> users = List.copyOf(userIds);
+        Timestamp joinedAt = Timestamp.valueOf(LocalDateTime.now());
+        Set<String> inserted = new HashSet<>();
+        for (int from = 0; from < users.size(); from += CHUNK_SIZE) {
+            List<String> chunk = users.subList(from, Math.min(from + CHUNK_SIZE, users.size()));
+            String[] ids = chunk.stream().map(userId -> IdGenerator.generateId()).toArray(String[]::new);
+            inserted.addAll(jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INSERT_MEMBERS);
+                ps.setString(1, channelId);
+                ps.setTimestamp(2, joinedAt);
+                ps.setArray(3, connection.createArrayOf("varchar", ids));
+                ps.setArray(4, connection.createArrayOf("varchar", chunk.toArray()));
+                return ps;
+            }, (rs, rowNum) -> rs.getString(1)));
+        }
+        return inserted;
+    }
+}
@@ -3,9 +3,17 @@ package com.slack.clone.chat.repository;
 import com.slack.clone.chat.document.ChannelMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository for ChannelMessage documents
  */
@@ -13,4 +21,54 @@ import org.springframework.stereotype.Repository;
 public interface ChannelMessageRepository extends MongoRepository<ChannelMessage, String> {
 
     Page<ChannelMessage> findByChannelIdOrderByCreatedAtDesc(String channelId, Pageable pageable);
+
+    /**
+     * All messages oldest first, read through a cursor; close the stream after use
+     */
+    Stream<ChannelMessage> streamAllByOrderByCreatedAtAsc();
+
+    /**
+     * Messages created at or after the given time, oldest first; close the stream after use
+     */
+    Stream<ChannelMessage> streamByCreatedAtGreaterThanEqualOrderByCreatedAtAsc(LocalDateTime createdAt);
+
+    long countByChannelId(String channelId);
+
+    /**
+     * Head of the channel history; ordering comes from the pageable sort
+     */
+    Slice<ChannelMessage> findSliceByChannelId(String channelId, Pageable pageable);
+
+    /**
+     * Messages strictly older than the (createdAt, id) cursor
+     */
+    @Query("{ 'channelId': ?0, 'createdAt': { $lte: ?1 }, $or: [ { 'createdAt': { $lt: ?1 } }, { '_id': { $lt: ?2 } } ] }")
+    Slice<ChannelMessage> findSliceBefore(String channelId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Messages strictly newer than the (createdAt, id) cursor
+     */
+    @Query("{ 'channelId': ?0, 'createdAt': { $gte: ?1 }, $or: [ { 'createdAt': { $gt: ?1 } }, { '_id': { $gt: ?2 } } ] }")
+    Slice<ChannelMessage> findSliceAfter(String channelId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * IDs of messages strictly newer than the (createdAt, id) cursor, up to the pageable's size;
+     * counting them stops at the limit instead of scanning the whole tail
+     */
+    @Query(value = "{ 'channelId': ?0, 'createdAt': { $gte: ?1 }, $or: [ { 'createdAt': { $gt: ?1 } }, { '_id': { $gt: ?2 } } ] }",
+            fields = "{ '_id': 1 }")
+    List<ChannelMessage> findIdsAfter(String channelId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Latest message of each of the given conversations in one aggregation.
+     * The sort is the reverse of the compound index, so each group's first
+     * document comes straight off the index.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'channelId': { $in: ?0 } } }",
+            "{ $sort: { 'channelId': -1, 'createdAt': -1, '_id': -1 } }",
+            "{ $group: { '_id': '$channelId', 'latest': { $first: '$$ROOT' } } }",
+            "{ $replaceRoot: { 'newRoot': '$latest' } }"
+    })
+    List<ChannelMessage> findLatestByChannelIdIn(Collection<String> channelIds);
 }
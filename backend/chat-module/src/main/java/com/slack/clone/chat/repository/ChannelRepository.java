@@ -1,8 +1,12 @@
 package com.slack.clone.chat.repository;
 
+import com.slack.clone.chat.dto.ChannelDTO;
 import com.slack.clone.chat.entity.Channel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,4 +24,41 @@ public interface ChannelRepository extends JpaRepository<Channel, String> {
 
     @Query("SELECT c FROM Channel c JOIN c.members m WHERE m.userId = :userId")
     List<Channel> findByUserId(String userId);
+
+    /**
+     * Channels the user belongs to, with member counts aggregated in a single statement
+     */
+    @Query("SELECT new com.slack.clone.chat.dto.ChannelDTO(" +
+            "c.id, c.name, c.description, c.createdBy, c.createdAt, CAST(COUNT(m.id) AS Integer)) " +
+            "FROM Channel c JOIN c.members m " +
+            "WHERE c.id IN (SELECT um.channel.id FROM ChannelMember um WHERE um.userId = :userId) " +
+            "GROUP BY c.id, c.name, c.description, c.createdBy, c.createdAt " +
+            "ORDER BY c.name")
+    List<ChannelDTO> findWithMemberCountByUserId(@Param("userId") String userId);
+
+    /**
+     * Directory page ordered by (name key, name), after the given position, filtered by a LIKE
+     * pattern on the name key. Filter, order and seek all use the (name_key, name) index.
+     * The member count is a correlated subquery so the outer scan can stop at the page limit.
+     */
+    @Query("SELECT new com.slack.clone.chat.dto.ChannelDTO(" +
+            "c.id, c.name, c.description, c.createdBy, c.createdAt, " +
+            "(SELECT CAST(COUNT(m.id) AS Integer) FROM ChannelMember m WHERE m.channel = c)) " +
+            "FROM Channel c " +
+            "WHERE c.nameKey LIKE :pattern ESCAPE '!' AND (c.nameKey, c.name) > (:afterKey, :afterName) " +
+            "ORDER BY c.nameKey, c.name")
+    Slice<ChannelDTO> findDirectoryPage(@Param("pattern") String pattern,
+                                        @Param("afterKey") String afterKey,
+                                        @Param("afterName") String afterName,
+                                        Pageable pageable);
+
+    /**
+     * Single channel with its member count, without loading the members
+     */
+    @Query("SELECT new com.slack.clone.chat.dto.ChannelDTO(" +
+            "c.id, c.name, c.description, c.createdBy, c.createdAt, CAST(COUNT(m.id) AS Integer)) " +
+            "FROM Channel c LEFT JOIN c.members m " +
+            "WHERE c.id = :channelId " +
+            "GROUP BY c.id, c.name, c.description, c.createdBy, c.createdAt")
+    Optional<ChannelDTO> findWithMemberCountById(@Param("channelId") String channelId);
 }
@@ -7,19 +7,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Repository for DmConversation entity
  */
 @Repository
-public interface DmConversationRepository extends JpaRepository<DmConversation, String> {
-
-    @Query("SELECT d FROM DmConversation d WHERE " +
-            "(d.user1Id = :user1Id AND d.user2Id = :user2Id) OR " +
-            "(d.user1Id = :user2Id AND d.user2Id = :user1Id)")
-    Optional<DmConversation> findByUserPair(@Param("user1Id") String user1Id, @Param("user2Id") String user2Id);
+public interface DmConversationRepository extends JpaRepository<DmConversation, String>, DmConversationRepositoryCustom {
 
     @Query("SELECT d FROM DmConversation d WHERE d.user1Id = :userId OR d.user2Id = :userId")
     List<DmConversation> findByUserId(@Param("userId")String userId);
+
+    @Query("SELECT d.id FROM DmConversation d WHERE d.user1Id = :userId OR d.user2Id = :userId")
+    List<String> findIdsByUserId(@Param("userId") String userId);
 }
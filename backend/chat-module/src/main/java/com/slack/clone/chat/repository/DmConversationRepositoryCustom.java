@@ -0,0 +1,17 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.chat.entity.DmConversation;
+
+/**
+ * Atomic get-or-create for DM conversations
+ */
+public interface DmConversationRepositoryCustom {
+
+    /**
+     * Insert a conversation for the pair unless one exists, in one statement.
+     * The pair must be in canonical order (user1Id &lt; user2Id).
+     *
+     * @return the pair's conversation, either the new one or the existing one
+     */
+    DmConversation insertOrGetByUserPair(String id, String user1Id, String user2Id);
+}
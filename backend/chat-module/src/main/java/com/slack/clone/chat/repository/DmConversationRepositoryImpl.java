@@ -0,0 +1,54 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.chat.entity.DmConversation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link DmConversationRepositoryCustom}
+ */
+@RequiredArgsConstructor
+public class DmConversationRepositoryImpl implements DmConversationRepositoryCustom {
+
+    private static final String INSERT_OR_GET =
+            "WITH inserted AS (" +
+            "INSERT INTO dm_conversations (id, user1_id, user2_id, created_at) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (user1_id, user2_id) DO NOTHING " +
+            "RETURNING id, user1_id, user2_id, created_at) " +
+            "SELECT id, user1_id, user2_id, created_at FROM inserted " +
+            "UNION ALL " +
+            "SELECT id, user1_id, user2_id, created_at FROM dm_conversations WHERE user1_id = ? AND user2_id = ? " +
+            "LIMIT 1";
+
+    private static final String FIND_BY_PAIR =
+            "SELECT id, user1_id, user2_id, created_at FROM dm_conversations WHERE user1_id = ? AND user2_id = ?";
+
+    private static final RowMapper<DmConversation> ROW_MAPPER = (rs, rowNum) -> DmConversation.builder()
+            .id(rs.getString("id"))
+            .user1Id(rs.getString("user1_id"))
+            .user2Id(rs.getString("user2_id"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public DmConversation insertOrGetByUserPair(String id, String user1Id, String user2Id) {
+        List<DmConversation> rows = jdbcTemplate.query(INSERT_OR_GET, ROW_MAPPER,
+                id, user1Id, user2Id, Timestamp.valueOf(LocalDateTime.now()), user1Id, user2Id);
+        if (rows.isEmpty()) {
+            // A concurrent insert committed after this statement's snapshot was taken:
+            // the conflict hid it from the insert and the snapshot from the select
+            rows = jdbcTemplate.query(FIND_BY_PAIR, ROW_MAPPER, user1Id, user2Id);
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("DM conversation for " + user1Id + " and " + user2Id + " vanished");
+        }
+        return rows.get(0);
+    }
+}
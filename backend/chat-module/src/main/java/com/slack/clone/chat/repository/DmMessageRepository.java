@@ -3,9 +3,17 @@ package com.slack.clone.chat.repository;
 import com.slack.clone.chat.document.DmMessage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repository for DmMessage documents
  */
@@ -13,4 +21,52 @@ import org.springframework.stereotype.Repository;
 public interface DmMessageRepository extends MongoRepository<DmMessage, String> {
 
     Page<DmMessage> findByConversationIdOrderByCreatedAtDesc(String conversationId, Pageable pageable);
+
+    /**
+     * All messages oldest first, read through a cursor; close the stream after use
+     */
+    Stream<DmMessage> streamAllByOrderByCreatedAtAsc();
+
+    /**
+     * Messages created at or after the given time, oldest first; close the stream after use
+     */
+    Stream<DmMessage> streamByCreatedAtGreaterThanEqualOrderByCreatedAtAsc(LocalDateTime createdAt);
+
+    /**
+     * Head of the conversation history; ordering comes from the pageable sort
+     */
+    Slice<DmMessage> findSliceByConversationId(String conversationId, Pageable pageable);
+
+    /**
+     * Messages strictly older than the (createdAt, id) cursor
+     */
+    @Query("{ 'conversationId': ?0, 'createdAt': { $lte: ?1 }, $or: [ { 'createdAt': { $lt: ?1 } }, { '_id': { $lt: ?2 } } ] }")
+    Slice<DmMessage> findSliceBefore(String conversationId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Messages strictly newer than the (createdAt, id) cursor
+     */
+    @Query("{ 'conversationId': ?0, 'createdAt': { $gte: ?1 }, $or: [ { 'createdAt': { $gt: ?1 } }, { '_id': { $gt: ?2 } } ] }")
+    Slice<DmMessage> findSliceAfter(String conversationId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * IDs of messages strictly newer than the (createdAt, id) cursor, up to the pageable's size;
+     * counting them stops at the limit instead of scanning the whole tail
+     */
+    @Query(value = "{ 'conversationId': ?0, 'createdAt': { $gte: ?1 }, $or: [ { 'createdAt': { $gt: ?1 } }, { '_id': { $gt: ?2 } } ] }",
+            fields = "{ '_id': 1 }")
+    List<DmMessage> findIdsAfter(String conversationId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Latest message of each of the given conversations in one aggregation.
+     * The sort is the reverse of the compound index, so each group's first
+     * document comes straight off the index.
+     */
+    @Aggregation(pipeline = {
+            "{ $match: { 'conversationId': { $in: ?0 } } }",
+            "{ $sort: { 'conversationId': -1, 'createdAt': -1, '_id': -1 } }",
+            "{ $group: { '_id': '$conversationId', 'latest': { $first: '$$ROOT' } } }",
+            "{ $replaceRoot: { 'newRoot': '$latest' } }"
+    })
+    List<DmMessage> findLatestByConversationIdIn(Collection<String> conversationIds);
 }
@@ -0,0 +1,48 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reactive repository for ChannelMessage documents, used to stream history.
+ * The cursor batch size bounds how many documents are buffered per subscriber.
+ */
+@Repository
+public interface ReactiveChannelMessageRepository extends ReactiveMongoRepository<ChannelMessage, String> {
+
+    int STREAM_BATCH_SIZE = 100;
+
+    /**
+     * Head of the channel history; ordering and limit come from the pageable
+     */
+    @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+    Flux<ChannelMessage> findByChannelId(String channelId, Pageable pageable);
+
+    /**
+     * Messages strictly older than the (createdAt, id) cursor
+     */
+    @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+    @Query("{ 'channelId': ?0, 'createdAt': { $lte: ?1 }, $or: [ { 'createdAt': { $lt: ?1 } }, { '_id': { $lt: ?2 } } ] }")
+    Flux<ChannelMessage> findBefore(String channelId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Messages created at or after {@code since} and strictly older than the (createdAt, id) cursor
+     */
+    @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+    @Query("{ 'channelId': ?0, 'createdAt': { $gte: ?1, $lte: ?2 }, $or: [ { 'createdAt': { $lt: ?2 } }, { '_id': { $lt: ?3 } } ] }")
+    Flux<ChannelMessage> findBetween(String channelId, LocalDateTime since, LocalDateTime createdAt, String id, Pageable pageable);
+
+    /**
+     * Messages strictly newer than the (createdAt, id) cursor
+     */
+    @Meta(cursorBatchSize = STREAM_BATCH_SIZE)
+    @Query("{ 'channelId': ?0, 'createdAt': { $gte: ?1 }, $or: [ { 'createdAt': { $gt: ?1 } }, { '_id': { $gt: ?2 } } ] }")
+    Flux<ChannelMessage> findAfter(String channelId, LocalDateTime createdAt, String id, Pageable pageable);
+}
@@ -0,0 +1,159 @@
+package com.slack.clone.chat.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index of one channel or DM conversation. Messages get doc numbers
+ * in arrival order; each term maps to the {@link PostingList} of the docs
+ * containing it.
+ * <p>
+ * Not thread-safe; {@link MessageSearchIndex} guards access.
+ */
+class ConversationIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private String[] messageIds = new String[INITIAL_CAPACITY];
+    private long[] createdAts = new long[INITIAL_CAPACITY];
+    private int docCount;
+
+    void add(String messageId, long createdAt, Map<String, Integer> termFrequencies) {
+        if (docCount == messageIds.length) {
+            messageIds = Arrays.copyOf(messageIds, docCount * 2);
+            createdAts = Arrays.copyOf(createdAts, docCount * 2);
+        }
+        int doc = docCount++;
+        messageIds[doc] = messageId;
+        createdAts[doc] = createdAt;
+        termFrequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new PostingList()).add(doc, frequency));
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    void forEachDoc(DocVisitor visitor) {
+        for (int doc = 0; doc < docCount; doc++) {
+            visitor.visit(messageIds[doc], createdAts[doc]);
+        }
+    }
+
+    /**
+     * Number of docs containing the term
+     */
+    int docFrequency(String term) {
+        PostingList list = postings.get(term);
+        return list != null ? list.docCount() : 0;
+    }
+
+    long sizeInBytes() {
+        long bytes = 0;
+        for (PostingList list : postings.values()) {
+            bytes += list.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Visit every doc that contains all terms. Postings are intersected
+     * starting from the rarest term, so cost follows the rarest term's list.
+     */
+    void matchAll(List<String> terms, Scorer scorer, HitCollector collector, String scope) {
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        List<String> sortedTerms = new ArrayList<>(terms);
+        sortedTerms.sort(Comparator.comparingInt(this::docFrequency));
+        for (String term : sortedTerms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+
+        PostingList.Cursor[] cursors = new PostingList.Cursor[lists.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = lists.get(i).cursor();
+        }
+        int[] frequencies = new int[cursors.length];
+
+        PostingList.Cursor lead = cursors[0];
+        boolean hasCandidate = lead.next();
+        while (hasCandidate) {
+            int doc = lead.doc();
+            boolean matched = true;
+            for (int i = 1; i < cursors.length; i++) {
+                if (!cursors[i].advance(doc)) {
+                    return;
+                }
+                if (cursors[i].doc() != doc) {
+                    // Skip the lead forward to the other list's next doc
+                    hasCandidate = lead.advance(cursors[i].doc());
+                    matched = false;
+                    break;
+                }
+                frequencies[i] = cursors[i].termFrequency();
+            }
+            if (matched) {
+                frequencies[0] = lead.termFrequency();
+                collector.collect(new SearchHit(scope, messageIds[doc], createdAts[doc],
+                        scorer.score(sortedTerms, frequencies)));
+                hasCandidate = lead.next();
+            }
+        }
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(docCount);
+        for (int doc = 0; doc < docCount; doc++) {
+            out.writeUTF(messageIds[doc]);
+            out.writeLong(createdAts[doc]);
+        }
+        out.writeInt(postings.size());
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    static ConversationIndex readFrom(DataInput in) throws IOException {
+        ConversationIndex index = new ConversationIndex();
+        int docCount = in.readInt();
+        index.messageIds = new String[Math.max(docCount, INITIAL_CAPACITY)];
+        index.createdAts = new long[index.messageIds.length];
+        for (int doc = 0; doc < docCount; doc++) {
+            index.messageIds[doc] = in.readUTF();
+            index.createdAts[doc] = in.readLong();
+        }
+        index.docCount = docCount;
+        int termCount = in.readInt();
+        for (int i = 0; i < termCount; i++) {
+            index.postings.put(in.readUTF(), PostingList.readFrom(in));
+        }
+        return index;
+    }
+
+    /**
+     * Scores a doc from the frequencies of the query terms in it
+     */
+    interface Scorer {
+        double score(List<String> terms, int[] termFrequencies);
+    }
+
+    interface HitCollector {
+        void collect(SearchHit hit);
+    }
+
+    interface DocVisitor {
+        void visit(String messageId, long createdAt);
+    }
+}
@@ -0,0 +1,598 @@
+package com.slack.clone.chat.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Full-text index of message content, partitioned by conversation so a query
+ * only touches the postings of conversations the caller can read.
+ * <p>
+ * The index lives in memory as compressed postings and on local disk as a
+ * snapshot plus a journal. Every added message is appended to the journal;
+ * the snapshot is rewritten on start, on shutdown and after a rebuild, and
+ * each rewrite starts a new journal generation so a crash between the two
+ * never applies a record twice.
+ * <p>
+ * Postings are guarded by a read-write lock and the journal by its own lock,
+ * so an add holds the postings write lock only for the in-memory update and
+ * searches never wait on disk. Snapshots are written under the read lock. A
+ * record appended just after a snapshot that already holds it is skipped on
+ * replay like any other recent duplicate.
+ * <p>
+ * Journal records are flushed to the OS but not fsynced: a process crash loses
+ * nothing, a host crash may lose the tail, which a rebuild from Mongo restores.
+ * <p>
+ * Adding a message is idempotent within {@link #RECENT_WINDOW_MILLIS} of the
+ * newest indexed message, so a catch-up read from Mongo may overlap what was
+ * already indexed.
+ */
+@Slf4j
+public class MessageSearchIndex implements SmartLifecycle {
+
+    static final String SNAPSHOT_FILE = "index.snapshot";
+    static final String JOURNAL_FILE = "index.journal";
+
+    private static final int SNAPSHOT_MAGIC = 0x53494458;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int MAX_JOURNAL_RECORD_BYTES = 1 << 20;
+    private static final double K1 = 1.2;
+    // Messages sent this close to a rebuild's start may be both streamed and sent live
+    private static final long REBUILD_OVERLAP_MILLIS = Duration.ofMinutes(1).toMillis();
+    // IDs of messages this close to the newest indexed one are remembered to skip duplicates
+    static final long RECENT_WINDOW_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final Path directory;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Guards the journal stream and generation; taken after the postings lock, never before it
+     */
+    private final ReentrantLock journalLock = new ReentrantLock();
+
+    private Map<String, ConversationIndex> conversations = new HashMap<>();
+    private final LinkedHashMap<String, Long> recentIds = new LinkedHashMap<>();
+    private long latestCreatedAt = Long.MIN_VALUE;
+    private DataOutputStream journal;
+    private int generation;
+    private Rebuild activeRebuild;
+    private volatile boolean running;
+
+    public MessageSearchIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    public static String channelScope(String channelId) {
+        return "channel:" + channelId;
+    }
+
+    public static String dmScope(String conversationId) {
+        return "dm:" + conversationId;
+    }
+
+    /**
+     * Index a message. Messages without indexable terms, and recent messages
+     * that are already indexed, are skipped.
+     */
+    public void add(String scope, String messageId, long createdAt, String content) {
+        Map<String, Integer> termFrequencies = MessageTokenizer.termFrequencies(content);
+        if (termFrequencies.isEmpty()) {
+            return;
+        }
+        JournalEntry entry = new JournalEntry(scope, messageId, createdAt, termFrequencies);
+
+        lock.writeLock().lock();
+        try {
+            if (recentIds.containsKey(messageId)) {
+                return;
+            }
+            apply(conversations, entry);
+            remember(messageId, createdAt);
+            if (activeRebuild != null) {
+                activeRebuild.pending.add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        appendToJournal(entry);
+    }
+
+    /**
+     * Top-ranked messages in the given scopes that contain every query term,
+     * ranked after the cursor if one is given. Terms are weighted by BM25 over
+     * the searched scopes only, so rankings reflect what the caller can see.
+     */
+    public List<SearchHit> search(Collection<String> scopes, String query, int limit, SearchCursor after) {
+        List<String> terms = new ArrayList<>(MessageTokenizer.queryTerms(query));
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<String> searched = new ArrayList<>(scopes.size());
+            long docCount = 0;
+            Map<String, Long> docFrequencies = new HashMap<>();
+            for (String scope : scopes) {
+                ConversationIndex index = conversations.get(scope);
+                if (index == null) {
+                    continue;
+                }
+                searched.add(scope);
+                docCount += index.docCount();
+                for (String term : terms) {
+                    docFrequencies.merge(term, (long) index.docFrequency(term), Long::sum);
+                }
+            }
+
+            Map<String, Double> idf = new HashMap<>();
+            for (String term : terms) {
+                long df = docFrequencies.getOrDefault(term, 0L);
+                idf.put(term, Math.log(1 + (docCount - df + 0.5) / (df + 0.5)));
+            }
+            ConversationIndex.Scorer scorer = (matchedTerms, frequencies) -> {
+                double score = 0;
+                for (int i = 0; i < frequencies.length; i++) {
+                    score += idf.get(matchedTerms.get(i)) * frequencies[i] * (K1 + 1) / (frequencies[i] + K1);
+                }
+                return score;
+            };
+
+            // Min-heap on rank keeps the best {@code limit} hits seen so far
+            PriorityQueue<SearchHit> top = new PriorityQueue<>(limit + 1, SearchHit.RANKING.reversed());
+            ConversationIndex.HitCollector collector = hit -> {
+                if (after != null && !hit.isAfter(after)) {
+                    return;
+                }
+                top.offer(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            };
+            for (String scope : searched) {
+                conversations.get(scope).matchAll(terms, scorer, collector, scope);
+            }
+
+            List<SearchHit> hits = new ArrayList<>(top);
+            hits.sort(SearchHit.RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Start rebuilding the index from scratch. Messages added while the
+     * rebuild runs are kept and merged in when it commits.
+     *
+     * @throws IllegalStateException if a rebuild is already running
+     */
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            if (activeRebuild != null) {
+                throw new IllegalStateException("Search index rebuild already running");
+            }
+            activeRebuild = new Rebuild(System.currentTimeMillis() - REBUILD_OVERLAP_MILLIS);
+            return activeRebuild;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return documentCount() == 0;
+    }
+
+    /**
+     * Epoch millis from which stored messages may be missing, e.g. after
+     * this node was down: the newest indexed message less the recent window
+     */
+    public long catchUpSince() {
+        lock.readLock().lock();
+        try {
+            return latestCreatedAt == Long.MIN_VALUE ? 0L : latestCreatedAt - RECENT_WINDOW_MILLIS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long documentCount() {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            for (ConversationIndex index : conversations.values()) {
+                count += index.docCount();
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Size of the compressed postings, excluding the per-doc ID table
+     */
+    public long postingsSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (ConversationIndex index : conversations.values()) {
+                bytes += index.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            try {
+                loadSnapshot();
+            } catch (IOException e) {
+                log.error("Unreadable search index snapshot, starting empty; rebuild to restore it", e);
+                conversations = new HashMap<>();
+            }
+            rememberRecentIds();
+            replayed = replayJournal();
+            // Downgrade so searches can run while the snapshot is written; adds wait for it
+            lock.readLock().lock();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open search index in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            // Fold the journal into the snapshot so each run starts a clean journal generation
+            writeSnapshot();
+            running = true;
+            log.info("Search index started with {} documents ({} replayed from journal)", documentCount(), replayed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open search index in " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void stop() {
+        lock.readLock().lock();
+        try {
+            running = false;
+            writeSnapshot();
+            closeJournal();
+        } catch (IOException e) {
+            log.error("Failed to write search index snapshot; the journal is replayed on next start", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before the web server takes requests and stop after it has
+     * drained them, so no indexed message misses the final snapshot
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Track a newly indexed message, dropping IDs that fell out of the window.
+     * Entries are in roughly arrival order, so out-of-order ones may linger a little.
+     */
+    private void remember(String messageId, long createdAt) {
+        latestCreatedAt = Math.max(latestCreatedAt, createdAt);
+        long horizon = latestCreatedAt - RECENT_WINDOW_MILLIS;
+        if (createdAt >= horizon) {
+            recentIds.put(messageId, createdAt);
+        }
+        var eldest = recentIds.entrySet().iterator();
+        while (eldest.hasNext() && eldest.next().getValue() < horizon) {
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Recompute the recent window after the whole index was replaced
+     */
+    private void rememberRecentIds() {
+        recentIds.clear();
+        latestCreatedAt = Long.MIN_VALUE;
+        for (ConversationIndex index : conversations.values()) {
+            index.forEachDoc((messageId, createdAt) -> latestCreatedAt = Math.max(latestCreatedAt, createdAt));
+        }
+        long horizon = latestCreatedAt - RECENT_WINDOW_MILLIS;
+        for (ConversationIndex index : conversations.values()) {
+            index.forEachDoc((messageId, createdAt) -> {
+                if (createdAt >= horizon) {
+                    recentIds.put(messageId, createdAt);
+                }
+            });
+        }
+    }
+
+    private static void apply(Map<String, ConversationIndex> target, JournalEntry entry) {
+        target.computeIfAbsent(entry.scope(), scope -> new ConversationIndex())
+                .add(entry.messageId(), entry.createdAt(), entry.termFrequencies());
+    }
+
+    private void loadSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a search index snapshot: " + snapshot);
+            }
+            int snapshotGeneration = in.readInt();
+            int scopeCount = in.readInt();
+            Map<String, ConversationIndex> loaded = new HashMap<>(scopeCount * 2);
+            for (int i = 0; i < scopeCount; i++) {
+                loaded.put(in.readUTF(), ConversationIndex.readFrom(in));
+            }
+            conversations = loaded;
+            generation = snapshotGeneration;
+        }
+    }
+
+    /**
+     * Apply journal records of the current generation, stopping at the first
+     * torn or corrupt record. Records of recent messages the snapshot already
+     * holds are skipped.
+     */
+    private int replayJournal() throws IOException {
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        int replayed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            if (in.readInt() != generation) {
+                // Already folded into the snapshot before a crash
+                return 0;
+            }
+            CRC32C crc = new CRC32C();
+            while (true) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_JOURNAL_RECORD_BYTES) {
+                    log.warn("Corrupt search index journal record after {} records, discarding the rest", replayed);
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Corrupt search index journal record after {} records, discarding the rest", replayed);
+                    break;
+                }
+                JournalEntry entry = JournalEntry.decode(payload);
+                if (recentIds.containsKey(entry.messageId())) {
+                    continue;
+                }
+                apply(conversations, entry);
+                remember(entry.messageId(), entry.createdAt());
+                replayed++;
+            }
+        } catch (NoSuchFileException | EOFException e) {
+            // No journal yet, or end of journal (possibly a torn final record)
+        }
+        return replayed;
+    }
+
+    /**
+     * Write the postings and start a new journal generation. Callers hold the
+     * postings read or write lock, so no add lands between the two.
+     */
+    private void writeSnapshot() throws IOException {
+        journalLock.lock();
+        try {
+            rewriteSnapshot();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void rewriteSnapshot() throws IOException {
+        int nextGeneration = generation + 1;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(nextGeneration);
+            out.writeInt(conversations.size());
+            for (Map.Entry<String, ConversationIndex> entry : conversations.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        generation = nextGeneration;
+        if (journal != null) {
+            journal.close();
+        }
+        journal = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+        journal.writeInt(generation);
+        journal.flush();
+    }
+
+    private void closeJournal() throws IOException {
+        journalLock.lock();
+        try {
+            journal.close();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void appendToJournal(JournalEntry entry) {
+        byte[] payload;
+        try {
+            payload = entry.encode();
+        } catch (IOException e) {
+            log.warn("Failed to journal indexed message {}", entry.messageId(), e);
+            return;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        journalLock.lock();
+        try {
+            if (journal == null) {
+                return;
+            }
+            journal.writeInt(payload.length);
+            journal.writeInt((int) crc.getValue());
+            journal.write(payload);
+            journal.flush();
+        } catch (IOException e) {
+            // The in-memory index is still current; only a restart before the next snapshot loses this message
+            log.warn("Failed to journal indexed message {}", entry.messageId(), e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    /**
+     * A rebuild in progress. Add every stored message, then {@link #commit()}
+     * to swap the rebuilt index in, or {@link #abort()} to discard it.
+     * Not thread-safe: feed it from one thread.
+     */
+    public class Rebuild {
+
+        private final Map<String, ConversationIndex> rebuilt = new HashMap<>();
+        private final List<JournalEntry> pending = new ArrayList<>();
+        private final Set<String> recentIds = new HashSet<>();
+        private final long recentSince;
+        private long count;
+
+        private Rebuild(long recentSince) {
+            this.recentSince = recentSince;
+        }
+
+        public void add(String scope, String messageId, long createdAt, String content) {
+            Map<String, Integer> termFrequencies = MessageTokenizer.termFrequencies(content);
+            if (createdAt >= recentSince) {
+                recentIds.add(messageId);
+            }
+            if (!termFrequencies.isEmpty()) {
+                apply(rebuilt, new JournalEntry(scope, messageId, createdAt, termFrequencies));
+                count++;
+            }
+        }
+
+        /**
+         * Swap the rebuilt index in, including messages sent meanwhile, and
+         * snapshot it
+         *
+         * @return number of messages indexed
+         */
+        public long commit() {
+            lock.writeLock().lock();
+            try {
+                for (JournalEntry entry : pending) {
+                    if (!recentIds.contains(entry.messageId())) {
+                        apply(rebuilt, entry);
+                        count++;
+                    }
+                }
+                conversations = rebuilt;
+                rememberRecentIds();
+                activeRebuild = null;
+                // Downgrade so searches can run while the snapshot is written; adds wait for it
+                lock.readLock().lock();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            try {
+                if (running) {
+                    writeSnapshot();
+                }
+            } catch (IOException e) {
+                log.error("Failed to snapshot rebuilt search index", e);
+            } finally {
+                lock.readLock().unlock();
+            }
+            return count;
+        }
+
+        public void abort() {
+            lock.writeLock().lock();
+            try {
+                if (activeRebuild == this) {
+                    activeRebuild = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private record JournalEntry(String scope, String messageId, long createdAt, Map<String, Integer> termFrequencies) {
+
+        byte[] encode() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + termFrequencies.size() * 12);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(scope);
+            out.writeUTF(messageId);
+            out.writeLong(createdAt);
+            out.writeInt(termFrequencies.size());
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+            return bytes.toByteArray();
+        }
+
+        static JournalEntry decode(byte[] payload) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            String scope = in.readUTF();
+            String messageId = in.readUTF();
+            long createdAt = in.readLong();
+            int termCount = in.readInt();
+            Map<String, Integer> termFrequencies = new LinkedHashMap<>(termCount * 2);
+            for (int i = 0; i < termCount; i++) {
+                termFrequencies.put(in.readUTF(), in.readInt());
+            }
+            return new JournalEntry(scope, messageId, createdAt, termFrequencies);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.slack.clone.chat.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits message text into index terms: NFKC-normalized, lower-cased runs
+ * of letters and digits. Single characters and very long runs (URLs, pasted
+ * hashes) are not indexed.
+ */
+public final class MessageTokenizer {
+
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_TERM_LENGTH = 40;
+
+    private MessageTokenizer() {
+    }
+
+    /**
+     * Terms of a message with their number of occurrences, in first-seen order
+     */
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        forEachTerm(text, term -> frequencies.merge(term, 1, Integer::sum));
+        return frequencies;
+    }
+
+    /**
+     * Distinct terms of a query, in order
+     */
+    public static Set<String> queryTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        forEachTerm(query, terms::add);
+        return terms;
+    }
+
+    private static void forEachTerm(String text, Consumer<String> action) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean termChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TERM_LENGTH && length <= MAX_TERM_LENGTH) {
+                    action.accept(normalized.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.slack.clone.chat.search;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed postings of one term in one conversation: ascending doc numbers
+ * stored as varint gaps, each followed by the varint term frequency. Messages
+ * are numbered in arrival order, so gaps are small and most entries take two
+ * bytes.
+ * <p>
+ * Not thread-safe; {@link MessageSearchIndex} guards access.
+ */
+class PostingList {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private byte[] bytes;
+    private int length;
+    private int docCount;
+    private int lastDoc = -1;
+
+    PostingList() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    private PostingList(byte[] bytes, int docCount, int lastDoc) {
+        this.bytes = bytes;
+        this.length = bytes.length;
+        this.docCount = docCount;
+        this.lastDoc = lastDoc;
+    }
+
+    /**
+     * Append a posting; doc numbers must be strictly increasing
+     */
+    void add(int doc, int termFrequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Doc " + doc + " not after " + lastDoc);
+        }
+        writeVarInt(doc - lastDoc);
+        writeVarInt(termFrequency);
+        lastDoc = doc;
+        docCount++;
+    }
+
+    int docCount() {
+        return docCount;
+    }
+
+    int sizeInBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(docCount);
+        out.writeInt(lastDoc);
+        out.writeInt(length);
+        out.write(bytes, 0, length);
+    }
+
+    static PostingList readFrom(DataInput in) throws IOException {
+        int docCount = in.readInt();
+        int lastDoc = in.readInt();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new PostingList(bytes, docCount, lastDoc);
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only iterator over the postings
+     */
+    class Cursor {
+
+        private int position;
+        private int doc = -1;
+        private int termFrequency;
+
+        /**
+         * Move to the next posting
+         *
+         * @return false when the postings are exhausted
+         */
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            doc += readVarInt();
+            termFrequency = readVarInt();
+            return true;
+        }
+
+        /**
+         * Move to the first posting at or after {@code target}
+         *
+         * @return false when no such posting exists
+         */
+        boolean advance(int target) {
+            while (doc < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int termFrequency() {
+            return termFrequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
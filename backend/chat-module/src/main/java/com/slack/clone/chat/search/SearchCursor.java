@@ -0,0 +1,47 @@
+package com.slack.clone.chat.search;
+
+import com.slack.clone.shared.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked result list: the score, creation time and ID of the
+ * last hit returned. The score is encoded bit-exact so the next page resumes
+ * precisely after it.
+ */
+public record SearchCursor(double score, long createdAt, String messageId) {
+
+    private static final char SEPARATOR = '|';
+
+    public static SearchCursor of(SearchHit hit) {
+        return new SearchCursor(hit.score(), hit.createdAt(), hit.messageId());
+    }
+
+    /**
+     * Encode cursor as an opaque URL-safe token
+     */
+    public String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(score)) + SEPARATOR + createdAt + SEPARATOR + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque token produced by {@link #encode()}
+     */
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            if (first <= 0 || second <= first + 1 || second == raw.length() - 1) {
+                throw new ValidationException("Invalid search cursor");
+            }
+            double score = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, first), 16));
+            long createdAt = Long.parseLong(raw.substring(first + 1, second));
+            return new SearchCursor(score, createdAt, raw.substring(second + 1));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid search cursor", e);
+        }
+    }
+}
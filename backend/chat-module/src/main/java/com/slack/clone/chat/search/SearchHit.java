@@ -0,0 +1,25 @@
+package com.slack.clone.chat.search;
+
+import java.util.Comparator;
+
+/**
+ * A matching message: the conversation scope it belongs to, its ID and
+ * creation time (epoch millis, UTC) and its relevance score
+ */
+public record SearchHit(String scope, String messageId, long createdAt, double score) {
+
+    /**
+     * Ranking order: higher score first, then newer, then by ID for a total order
+     */
+    public static final Comparator<SearchHit> RANKING = Comparator
+            .comparingDouble(SearchHit::score).reversed()
+            .thenComparing(Comparator.comparingLong(SearchHit::createdAt).reversed())
+            .thenComparing(Comparator.comparing(SearchHit::messageId).reversed());
+
+    /**
+     * Whether this hit ranks strictly after the given cursor
+     */
+    public boolean isAfter(SearchCursor cursor) {
+        return RANKING.compare(this, new SearchHit(scope, cursor.messageId(), cursor.createdAt(), cursor.score())) > 0;
+    }
+}
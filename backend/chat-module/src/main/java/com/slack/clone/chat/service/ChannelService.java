@@ -1,22 +1,42 @@
 package com.slack.clone.chat.service;
 
+import com.slack.clone.chat.cache.ChatEntityCache;
+import com.slack.clone.chat.cache.MembershipCache;
+import com.slack.clone.chat.dto.BulkMembershipResultDTO;
 import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.dto.ChannelPageDTO;
 import com.slack.clone.chat.dto.CreateChannelRequest;
+import com.slack.clone.chat.dto.MembershipChangeStatus;
 import com.slack.clone.chat.entity.Channel;
 import com.slack.clone.chat.entity.ChannelMember;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
 import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.metrics.ChatMetrics;
 import com.slack.clone.chat.repository.ChannelMemberRepository;
 import com.slack.clone.chat.repository.ChannelRepository;
+import com.slack.clone.chat.unread.ReadMarker;
+import com.slack.clone.chat.unread.ReadStateStore;
 import com.slack.clone.shared.exception.ResourceNotFoundException;
+import com.slack.clone.shared.exception.UnauthorizedException;
 import com.slack.clone.shared.exception.ValidationException;
 import com.slack.clone.shared.util.IdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for channel management
@@ -26,9 +46,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ChannelService {
 
+    private static final int MAX_DIRECTORY_SIZE = 100;
+
     private final ChannelRepository channelRepository;
     private final ChannelMemberRepository channelMemberRepository;
     private final ChatMapper chatMapper;
+    private final MembershipCache membershipCache;
+    private final ChatEntityCache entityCache;
+    private final ReadStateStore readStateStore;
+    private final ChatMetrics chatMetrics;
 
     /**
      * Create a new channel
@@ -54,26 +80,54 @@ public class ChannelService {
         addMemberToChannel(savedChannel.getId(), createdBy);
 
         log.info("Channel created: {}", savedChannel.getId());
-        return chatMapper.toDTO(savedChannel);
+        ChannelDTO channelDTO = chatMapper.toDTO(savedChannel);
+        channelDTO.setMemberCount(1);
+        return channelDTO;
     }
 
     /**
-     * Get all channels
+     * Get a page of the channel directory ordered by name, optionally filtered by a
+     * case-insensitive name prefix. The cursor is the opaque name of the last channel returned.
      */
     @Transactional(readOnly = true)
-    public List<ChannelDTO> getAllChannels() {
-        return channelRepository.findAll().stream()
-                .map(chatMapper::toDTO)
-                .collect(Collectors.toList());
+    public ChannelPageDTO getChannelDirectory(String prefix, String after, int size) {
+        if (size < 1 || size > MAX_DIRECTORY_SIZE) {
+            throw new ValidationException("Size must be between 1 and " + MAX_DIRECTORY_SIZE);
+        }
+
+        String pattern = prefix == null || prefix.isBlank()
+                ? "%"
+                : escapeLike(prefix.trim().toLowerCase(Locale.ROOT)) + "%";
+        String afterName = after == null ? "" : decodeDirectoryCursor(after);
+
+        Slice<ChannelDTO> slice = channelRepository.findDirectoryPage(
+                pattern, Channel.nameKey(afterName), afterName, PageRequest.of(0, size));
+
+        String nextCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            String lastName = slice.getContent().get(slice.getNumberOfElements() - 1).getName();
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(lastName.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return ChannelPageDTO.builder()
+                .channels(slice.getContent())
+                .nextCursor(nextCursor)
+                .hasNext(slice.hasNext())
+                .build();
     }
 
     /**
-     * Get channel by ID
+     * Get channel by ID. Not transactional so a cache hit never checks out a connection.
      */
-    @Transactional(readOnly = true)
     public ChannelDTO getChannelById(String channelId) {
-        Channel channel = findChannelOrThrow(channelId);
-        return chatMapper.toDTO(channel);
+        return entityCache.getChannel(channelId)
+                .orElseGet(() -> {
+                    ChannelDTO channel = channelRepository.findWithMemberCountById(channelId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Channel", channelId));
+                    entityCache.putChannel(channel);
+                    return channel;
+                });
     }
 
     /**
@@ -81,9 +135,7 @@ public class ChannelService {
      */
     @Transactional(readOnly = true)
     public List<ChannelDTO> getChannelsForUser(String userId) {
-        return channelRepository.findByUserId(userId).stream()
-                .map(chatMapper::toDTO)
-                .collect(Collectors.toList());
+        return channelRepository.findWithMemberCountByUserId(userId);
     }
 
     /**
@@ -106,9 +158,50 @@ public class ChannelService {
                 .build();
 
         channelMemberRepository.save(member);
+        membershipCache.evictChannelMembership(channelId, userId);
+        entityCache.evictChannel(channelId);
+        // Existing history does not count as unread for a new member
+        initReadMarkers(channelId, List.of(userId));
         log.info("User {} added to channel {}", userId, channelId);
     }
 
+    /**
+     * Add many users to a channel on behalf of a member: one query finds the
+     * existing members, the rest are inserted in JDBC batches, and caches and
+     * read markers are updated once for all added users
+     */
+    @Transactional
+    public BulkMembershipResultDTO addMembersToChannel(String channelId, List<String> userIds, String requesterId) {
+        findChannelOrThrow(channelId);
+        if (!isMember(channelId, requesterId)) {
+            throw new UnauthorizedException("User is not a member of this channel");
+        }
+
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        Set<String> existing = new HashSet<>(channelMemberRepository.findMemberUserIds(channelId, requested));
+        List<String> candidates = requested.stream()
+                .filter(userId -> !existing.contains(userId))
+                .toList();
+        Set<String> added = candidates.isEmpty()
+                ? Set.of()
+                : channelMemberRepository.insertMembersIgnoringExisting(channelId, candidates);
+
+        if (!added.isEmpty()) {
+            membershipCache.evictChannelMemberships(channelId, added);
+            entityCache.evictChannel(channelId);
+            initReadMarkers(channelId, added);
+        }
+        log.info("Added {} of {} users to channel {}", added.size(), requested.size(), channelId);
+
+        Map<String, MembershipChangeStatus> results = new LinkedHashMap<>();
+        requested.forEach(userId -> results.put(userId,
+                added.contains(userId) ? MembershipChangeStatus.ADDED : MembershipChangeStatus.ALREADY_MEMBER));
+        return BulkMembershipResultDTO.builder()
+                .results(results)
+                .changed(added.size())
+                .build();
+    }
+
     /**
      * Remove member from channel
      */
@@ -123,15 +216,99 @@ public class ChannelService {
         }
 
         channelMemberRepository.deleteByChannelIdAndUserId(channelId, userId);
+        membershipCache.evictChannelMembership(channelId, userId);
+        entityCache.evictChannel(channelId);
+        clearReadMarkers(channelId, List.of(userId));
         log.info("User {} removed from channel {}", userId, channelId);
     }
 
     /**
-     * Check if user is member of channel
+     * Remove many users from a channel; only its creator may do this
+     */
+    @Transactional
+    public BulkMembershipResultDTO removeMembersFromChannel(String channelId, List<String> userIds, String requesterId) {
+        Channel channel = findChannelOrThrow(channelId);
+        if (!channel.getCreatedBy().equals(requesterId)) {
+            throw new UnauthorizedException("Only the channel creator can remove other members");
+        }
+
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        Set<String> removed = new HashSet<>(channelMemberRepository.findMemberUserIds(channelId, requested));
+        if (!removed.isEmpty()) {
+            channelMemberRepository.deleteMembers(channelId, removed);
+            membershipCache.evictChannelMemberships(channelId, removed);
+            entityCache.evictChannel(channelId);
+            clearReadMarkers(channelId, removed);
+        }
+        log.info("Removed {} of {} users from channel {}", removed.size(), requested.size(), channelId);
+
+        Map<String, MembershipChangeStatus> results = new LinkedHashMap<>();
+        requested.forEach(userId -> results.put(userId,
+                removed.contains(userId) ? MembershipChangeStatus.REMOVED : MembershipChangeStatus.NOT_MEMBER));
+        return BulkMembershipResultDTO.builder()
+                .results(results)
+                .changed(removed.size())
+                .build();
+    }
+
+    /**
+     * Check if user is member of channel. Served from the membership cache;
+     * not transactional so a cache hit never checks out a connection.
      */
-    @Transactional(readOnly = true)
     public boolean isMember(String channelId, String userId) {
-        return channelMemberRepository.existsByChannelIdAndUserId(channelId, userId);
+        return chatMetrics.membershipCheckTimer(ConversationType.CHANNEL).record(() ->
+                membershipCache.getChannelMembership(channelId, userId)
+                        .orElseGet(() -> {
+                            boolean member = channelMemberRepository.existsByChannelIdAndUserId(channelId, userId);
+                            membershipCache.putChannelMembership(channelId, userId, member);
+                            return member;
+                        }));
+    }
+
+    private static String decodeDirectoryCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor", e);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+    }
+
+    /**
+     * Start new members at the channel's current sequence, so existing history
+     * does not count as unread. Membership is already committed to change, so a
+     * read store failure only affects badges, as on the send path.
+     */
+    private void initReadMarkers(String channelId, Collection<String> userIds) {
+        try {
+            readStateStore.putMarkers(userIds, ReadStateStore.channelKey(channelId), currentReadMarker(channelId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to set read markers of {} new members of channel {}", userIds.size(), channelId, e);
+        }
+    }
+
+    /**
+     * Drop the read markers of removed members, tolerating read store failures like {@link #initReadMarkers}
+     */
+    private void clearReadMarkers(String channelId, Collection<String> userIds) {
+        try {
+            readStateStore.removeMarkers(userIds, ReadStateStore.channelKey(channelId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to remove read markers of {} former members of channel {}", userIds.size(), channelId, e);
+        }
+    }
+
+    /**
+     * Marker at the channel's current sequence, so earlier messages read as seen
+     */
+    private ReadMarker currentReadMarker(String channelId) {
+        String readKey = ReadStateStore.channelKey(channelId);
+        return new ReadMarker(readStateStore.getSequences(List.of(readKey)).getOrDefault(readKey, 0L), null);
     }
 
     private Channel findChannelOrThrow(String channelId) {
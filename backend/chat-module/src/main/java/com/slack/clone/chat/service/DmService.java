@@ -1,9 +1,14 @@
 package com.slack.clone.chat.service;
 
+import com.slack.clone.chat.cache.ChatEntityCache;
+import com.slack.clone.chat.cache.DmParticipants;
+import com.slack.clone.chat.cache.MembershipCache;
 import com.slack.clone.chat.dto.CreateDmRequest;
 import com.slack.clone.chat.dto.DmConversationDTO;
 import com.slack.clone.chat.entity.DmConversation;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
 import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.metrics.ChatMetrics;
 import com.slack.clone.chat.repository.DmConversationRepository;
 import com.slack.clone.shared.exception.ResourceNotFoundException;
 import com.slack.clone.shared.util.IdGenerator;
@@ -25,11 +30,16 @@ public class DmService {
 
     private final DmConversationRepository dmConversationRepository;
     private final ChatMapper chatMapper;
+    private final MembershipCache membershipCache;
+    private final ChatEntityCache entityCache;
+    private final ChatMetrics chatMetrics;
 
     /**
-     * Create or get existing DM conversation
+     * Create or get existing DM conversation. Known pairs are served from the
+     * cache; otherwise a single upsert creates or returns the conversation, so
+     * concurrent first messages between a pair agree on one conversation.
+     * Not transactional so a cache hit never checks out a connection.
      */
-    @Transactional
     public DmConversationDTO createOrGetDmConversation(CreateDmRequest request, String currentUserId) {
         log.info("Creating/getting DM between {} and {}", currentUserId, request.getPeerUserId());
 
@@ -41,19 +51,20 @@ public class DmService {
                 ? request.getPeerUserId()
                 : currentUserId;
 
-        // Check if conversation already exists
-        return dmConversationRepository.findByUserPair(user1Id, user2Id)
-                .map(chatMapper::toDTO)
+        return entityCache.getDmConversationId(user1Id, user2Id)
+                .map(this::getDmConversationById)
                 .orElseGet(() -> {
-                    DmConversation conversation = DmConversation.builder()
-                            .id(IdGenerator.generateId())
-                            .user1Id(user1Id)
-                            .user2Id(user2Id)
-                            .build();
+                    String id = IdGenerator.generateId();
+                    DmConversation conversation = dmConversationRepository.insertOrGetByUserPair(id, user1Id, user2Id);
+                    if (conversation.getId().equals(id)) {
+                        log.info("DM conversation created: {}", id);
+                    }
 
-                    DmConversation saved = dmConversationRepository.save(conversation);
-                    log.info("DM conversation created: {}", saved.getId());
-                    return chatMapper.toDTO(saved);
+                    DmConversationDTO conversationDTO = chatMapper.toDTO(conversation);
+                    entityCache.putDmConversationId(user1Id, user2Id, conversationDTO.getId());
+                    entityCache.putDmConversation(conversationDTO);
+                    membershipCache.putDmParticipants(conversationDTO.getId(), new DmParticipants(user1Id, user2Id));
+                    return conversationDTO;
                 });
     }
 
@@ -70,19 +81,35 @@ public class DmService {
     /**
      * Get DM conversation by ID
      */
-    @Transactional(readOnly = true)
     public DmConversationDTO getDmConversationById(String conversationId) {
-        DmConversation conversation = findConversationOrThrow(conversationId);
-        return chatMapper.toDTO(conversation);
+        return entityCache.getDmConversation(conversationId)
+                .orElseGet(() -> {
+                    DmConversationDTO conversation = chatMapper.toDTO(findConversationOrThrow(conversationId));
+                    entityCache.putDmConversation(conversation);
+                    return conversation;
+                });
     }
 
     /**
      * Check if user is participant in conversation
      */
-    @Transactional(readOnly = true)
     public boolean isParticipant(String conversationId, String userId) {
-        DmConversation conversation = findConversationOrThrow(conversationId);
-        return conversation.getUser1Id().equals(userId) || conversation.getUser2Id().equals(userId);
+        return chatMetrics.membershipCheckTimer(ConversationType.DM)
+                .record(() -> getParticipants(conversationId).includes(userId));
+    }
+
+    /**
+     * Get the participants of a conversation. Participants never change, so
+     * the pair is cached per conversation.
+     */
+    public DmParticipants getParticipants(String conversationId) {
+        return membershipCache.getDmParticipants(conversationId)
+                .orElseGet(() -> {
+                    DmConversation conversation = findConversationOrThrow(conversationId);
+                    DmParticipants loaded = new DmParticipants(conversation.getUser1Id(), conversation.getUser2Id());
+                    membershipCache.putDmParticipants(conversationId, loaded);
+                    return loaded;
+                });
     }
 
     private DmConversation findConversationOrThrow(String conversationId) {
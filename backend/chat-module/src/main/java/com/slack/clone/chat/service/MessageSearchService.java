@@ -0,0 +1,266 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.delivery.MessageInsertListener;
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSearchHitDTO;
+import com.slack.clone.chat.dto.MessageSearchResultDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ChannelMemberRepository;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmConversationRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import com.slack.clone.chat.search.MessageSearchIndex;
+import com.slack.clone.chat.search.SearchCursor;
+import com.slack.clone.chat.search.SearchHit;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import com.slack.clone.shared.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text message search. Every node indexes every stored message from the
+ * message change stream; without it a node only sees its own sends, so search
+ * is then limited to a single node. Queries only reach the conversations the
+ * caller belongs to.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageSearchService implements MessageInsertListener {
+
+    static final int MAX_PAGE_SIZE = 50;
+
+    private final MessageSearchIndex searchIndex;
+    private final ChannelService channelService;
+    private final DmService dmService;
+    private final ChannelMemberRepository channelMemberRepository;
+    private final DmConversationRepository dmConversationRepository;
+    private final ChannelMessageRepository channelMessageRepository;
+    private final DmMessageRepository dmMessageRepository;
+    private final ChatMapper chatMapper;
+
+    @Value("${chat.search.rebuild-if-empty:true}")
+    private boolean rebuildIfEmpty;
+
+    @Value("${chat.live-tail.enabled:true}")
+    private boolean changeStreamEnabled;
+
+    /**
+     * Index a message sent through this node, unless the change stream
+     * delivers it
+     */
+    @EventListener
+    public void onMessageSent(MessageSentEvent event) {
+        if (!changeStreamEnabled) {
+            index(event.type(), event.targetId(), event.message());
+        }
+    }
+
+    /**
+     * Index a message stored through any node
+     */
+    @Override
+    public void onInsert(ConversationType type, String targetId, MessageDTO message) {
+        index(type, targetId, message);
+    }
+
+    private void index(ConversationType type, String targetId, MessageDTO message) {
+        String scope = type == ConversationType.CHANNEL
+                ? MessageSearchIndex.channelScope(targetId)
+                : MessageSearchIndex.dmScope(targetId);
+        try {
+            searchIndex.add(scope, message.getId(), epochMillis(message.getCreatedAt()), message.getContent());
+        } catch (RuntimeException e) {
+            // The message is already accepted; a rebuild picks it up
+            log.warn("Failed to index message {} in {}", message.getId(), scope, e);
+        }
+    }
+
+    /**
+     * Search the user's messages, best matches first. Restricted to one
+     * channel or DM conversation when its ID is given, otherwise spans every
+     * conversation the user belongs to.
+     */
+    public MessageSearchResultDTO search(String userId, String query, String channelId, String conversationId,
+                                         String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Query must not be empty");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (channelId != null && conversationId != null) {
+            throw new ValidationException("Only one of 'channelId' or 'conversationId' may be specified");
+        }
+        SearchCursor after = cursor != null ? SearchCursor.decode(cursor) : null;
+
+        List<SearchHit> hits = searchIndex.search(scopesFor(userId, channelId, conversationId), query, size + 1, after);
+        boolean hasMore = hits.size() > size;
+        List<SearchHit> page = hasMore ? hits.subList(0, size) : hits;
+
+        return MessageSearchResultDTO.builder()
+                .hits(toHitDTOs(page))
+                .nextCursor(hasMore ? SearchCursor.of(page.get(page.size() - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Rebuild the index from every stored message. Messages sent meanwhile
+     * are kept.
+     *
+     * @return number of messages indexed
+     */
+    public long rebuildIndex() {
+        log.info("Rebuilding message search index");
+        MessageSearchIndex.Rebuild rebuild = searchIndex.startRebuild();
+        try (Stream<ChannelMessage> channelMessages = channelMessageRepository.streamAllByOrderByCreatedAtAsc();
+             Stream<DmMessage> dmMessages = dmMessageRepository.streamAllByOrderByCreatedAtAsc()) {
+            channelMessages.forEach(message -> rebuild.add(MessageSearchIndex.channelScope(message.getChannelId()),
+                    message.getId(), epochMillis(message.getCreatedAt()), message.getContent()));
+            dmMessages.forEach(message -> rebuild.add(MessageSearchIndex.dmScope(message.getConversationId()),
+                    message.getId(), epochMillis(message.getCreatedAt()), message.getContent()));
+            long indexed = rebuild.commit();
+            log.info("Message search index rebuilt with {} messages", indexed);
+            return indexed;
+        } catch (RuntimeException e) {
+            rebuild.abort();
+            throw e;
+        }
+    }
+
+    /**
+     * Index messages stored since shortly before the newest indexed one,
+     * e.g. sent through other nodes while this one was down. The change
+     * stream is already running, and messages indexed twice are skipped.
+     */
+    public void catchUpIndex() {
+        LocalDateTime since = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(searchIndex.catchUpSince()), ZoneId.systemDefault());
+        log.info("Catching up message search index with messages since {}", since);
+        try (Stream<ChannelMessage> channelMessages =
+                     channelMessageRepository.streamByCreatedAtGreaterThanEqualOrderByCreatedAtAsc(since);
+             Stream<DmMessage> dmMessages =
+                     dmMessageRepository.streamByCreatedAtGreaterThanEqualOrderByCreatedAtAsc(since)) {
+            channelMessages.forEach(message -> searchIndex.add(MessageSearchIndex.channelScope(message.getChannelId()),
+                    message.getId(), epochMillis(message.getCreatedAt()), message.getContent()));
+            dmMessages.forEach(message -> searchIndex.add(MessageSearchIndex.dmScope(message.getConversationId()),
+                    message.getId(), epochMillis(message.getCreatedAt()), message.getContent()));
+        }
+    }
+
+    /**
+     * Build the index on first start, e.g. after deploying search or losing
+     * the index volume, and otherwise catch up with messages missed while down
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexIfEmpty() {
+        try {
+            if (searchIndex.isEmpty()) {
+                if (rebuildIfEmpty) {
+                    rebuildIndex();
+                }
+            } else {
+                catchUpIndex();
+            }
+        } catch (RuntimeException e) {
+            log.error("Initial message search index build failed", e);
+        }
+    }
+
+    private List<String> scopesFor(String userId, String channelId, String conversationId) {
+        if (channelId != null) {
+            // Validate membership
+            if (!channelService.isMember(channelId, userId)) {
+                throw new UnauthorizedException("User is not a member of this channel");
+            }
+            return List.of(MessageSearchIndex.channelScope(channelId));
+        }
+        if (conversationId != null) {
+            // Validate participation
+            if (!dmService.isParticipant(conversationId, userId)) {
+                throw new UnauthorizedException("User is not a participant in this conversation");
+            }
+            return List.of(MessageSearchIndex.dmScope(conversationId));
+        }
+
+        List<String> scopes = new ArrayList<>();
+        channelMemberRepository.findChannelIdsByUserId(userId)
+                .forEach(id -> scopes.add(MessageSearchIndex.channelScope(id)));
+        dmConversationRepository.findIdsByUserId(userId)
+                .forEach(id -> scopes.add(MessageSearchIndex.dmScope(id)));
+        return scopes;
+    }
+
+    /**
+     * Load the matched messages, keeping rank order. Hits whose message is not
+     * (yet) readable from Mongo are left out of the page.
+     */
+    private List<MessageSearchHitDTO> toHitDTOs(List<SearchHit> hits) {
+        List<String> channelMessageIds = new ArrayList<>();
+        List<String> dmMessageIds = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            (isChannelScope(hit.scope()) ? channelMessageIds : dmMessageIds).add(hit.messageId());
+        }
+
+        Map<String, ChannelMessage> channelMessages = channelMessageIds.isEmpty() ? Map.of()
+                : channelMessageRepository.findAllById(channelMessageIds).stream()
+                        .collect(Collectors.toMap(ChannelMessage::getId, Function.identity()));
+        Map<String, DmMessage> dmMessages = dmMessageIds.isEmpty() ? Map.of()
+                : dmMessageRepository.findAllById(dmMessageIds).stream()
+                        .collect(Collectors.toMap(DmMessage::getId, Function.identity()));
+
+        List<MessageSearchHitDTO> results = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            if (isChannelScope(hit.scope())) {
+                ChannelMessage message = channelMessages.get(hit.messageId());
+                if (message != null) {
+                    results.add(MessageSearchHitDTO.builder()
+                            .channelId(message.getChannelId())
+                            .message(chatMapper.toDTO(message))
+                            .score(hit.score())
+                            .build());
+                }
+            } else {
+                DmMessage message = dmMessages.get(hit.messageId());
+                if (message != null) {
+                    results.add(MessageSearchHitDTO.builder()
+                            .conversationId(message.getConversationId())
+                            .message(chatMapper.toDTO(message))
+                            .score(hit.score())
+                            .build());
+                }
+            }
+        }
+        return results;
+    }
+
+    private static boolean isChannelScope(String scope) {
+        return scope.startsWith(MessageSearchIndex.channelScope(""));
+    }
+
+    private static long epochMillis(LocalDateTime createdAt) {
+        // Timestamps are written with LocalDateTime.now(), i.e. in the system zone
+        return createdAt != null ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+}
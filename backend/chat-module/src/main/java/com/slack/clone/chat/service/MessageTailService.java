@@ -0,0 +1,142 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.delivery.LiveTail;
+import com.slack.clone.chat.delivery.MessageChangeStream;
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ReactiveChannelMessageRepository;
+import com.slack.clone.chat.repository.ReactiveDmMessageRepository;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Live tail of new messages in a channel or DM conversation.
+ * A client resuming from a message cursor first gets the messages it missed,
+ * then live ones. The live registration is made before the backlog query, so
+ * nothing inserted in between is lost; duplicates of the backlog are dropped.
+ * <p>
+ * With batched or WAL ingest a message can be stored after newer ones, so it
+ * sorts before a cursor the client already holds. Resuming therefore also
+ * replays the messages created within the resume window before the cursor,
+ * up to {@link #MAX_BACKLOG} of those closest to it; the client may already
+ * have some of them and should dedupe by message id.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageTailService {
+
+    static final int MAX_BACKLOG = 500;
+
+    private final MessageChangeStream messageChangeStream;
+    private final ReactiveChannelMessageRepository channelMessageRepository;
+    private final ReactiveDmMessageRepository dmMessageRepository;
+    private final ChannelService channelService;
+    private final DmService dmService;
+    private final ChatMapper chatMapper;
+
+    @Value("${chat.live-tail.resume-window:1m}")
+    private Duration resumeWindow;
+
+    /**
+     * Tail a channel, optionally resuming after {@code lastEventId}
+     */
+    public Flux<MessageDTO> tailChannel(String channelId, String userId, String lastEventId) {
+        // Validate membership
+        if (!channelService.isMember(channelId, userId)) {
+            throw new UnauthorizedException("User is not a member of this channel");
+        }
+
+        MessageCursor resumeFrom = lastEventId != null ? MessageCursor.decode(lastEventId) : null;
+        return tail(ConversationType.CHANNEL, channelId, resumeFrom,
+                (since, cursor) -> channelMessageRepository.findBetween(
+                                channelId, since, cursor.createdAt(), cursor.id(), windowPage())
+                        .map(chatMapper::toDTO),
+                cursor -> channelMessageRepository.findAfter(channelId, cursor.createdAt(), cursor.id(), backlogPage())
+                        .map(chatMapper::toDTO));
+    }
+
+    /**
+     * Tail a DM conversation, optionally resuming after {@code lastEventId}
+     */
+    public Flux<MessageDTO> tailDm(String conversationId, String userId, String lastEventId) {
+        // Validate participation
+        if (!dmService.isParticipant(conversationId, userId)) {
+            throw new UnauthorizedException("User is not a participant in this conversation");
+        }
+
+        MessageCursor resumeFrom = lastEventId != null ? MessageCursor.decode(lastEventId) : null;
+        return tail(ConversationType.DM, conversationId, resumeFrom,
+                (since, cursor) -> dmMessageRepository.findBetween(
+                                conversationId, since, cursor.createdAt(), cursor.id(), windowPage())
+                        .map(chatMapper::toDTO),
+                cursor -> dmMessageRepository.findAfter(conversationId, cursor.createdAt(), cursor.id(), backlogPage())
+                        .map(chatMapper::toDTO));
+    }
+
+    private Flux<MessageDTO> tail(ConversationType type, String targetId, MessageCursor resumeFrom,
+                                  BiFunction<LocalDateTime, MessageCursor, Flux<MessageDTO>> windowQuery,
+                                  Function<MessageCursor, Flux<MessageDTO>> backlogQuery) {
+        return Flux.defer(() -> {
+            LiveTail live = messageChangeStream.register(type, targetId);
+            if (resumeFrom == null) {
+                return live.messages();
+            }
+
+            Set<String> replayed = new HashSet<>();
+            AtomicInteger backlogSize = new AtomicInteger();
+            // Messages stored late behind the cursor; they do not count towards the backlog limit.
+            // Read newest first so a full window keeps the messages closest to the cursor.
+            Flux<MessageDTO> window = windowQuery.apply(resumeFrom.createdAt().minus(resumeWindow), resumeFrom)
+                    .collectList()
+                    .flatMapIterable(newestFirst -> {
+                        List<MessageDTO> oldestFirst = new ArrayList<>(newestFirst);
+                        Collections.reverse(oldestFirst);
+                        return oldestFirst;
+                    })
+                    .doOnNext(message -> replayed.add(message.getId()));
+            Flux<MessageDTO> backlog = backlogQuery.apply(resumeFrom)
+                    .doOnNext(message -> {
+                        replayed.add(message.getId());
+                        backlogSize.incrementAndGet();
+                    });
+
+            return Flux.concat(window, backlog, Flux.defer(() -> {
+                if (backlogSize.get() >= MAX_BACKLOG) {
+                    // Possibly more missed messages: end here so the client resumes from the last one
+                    live.close();
+                    return Flux.empty();
+                }
+                return live.messages().filter(message -> !replayed.contains(message.getId()));
+            })).doFinally(signal -> live.close());
+        });
+    }
+
+    private Pageable backlogPage() {
+        return PageRequest.of(0, MAX_BACKLOG, Sort.by(Sort.Direction.ASC, "createdAt", "id"));
+    }
+
+    private Pageable windowPage() {
+        return PageRequest.of(0, MAX_BACKLOG, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    }
+}
@@ -1,21 +1,40 @@
 package com.slack.clone.chat.service;
 
+import com.slack.clone.chat.cache.DmParticipants;
+import com.slack.clone.chat.cache.HistoryPageCache;
+import com.slack.clone.chat.cache.RecentMessages;
+import com.slack.clone.chat.cache.RecentMessagesCache;
 import com.slack.clone.chat.document.ChannelMessage;
 import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.dto.MessageCursor;
 import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSliceDTO;
 import com.slack.clone.chat.dto.SendMessageRequest;
+import com.slack.clone.chat.event.MessageSentEvent;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.ingest.MessageIngest;
 import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.metrics.ChatMetrics;
 import com.slack.clone.chat.repository.ChannelMessageRepository;
 import com.slack.clone.chat.repository.DmMessageRepository;
 import com.slack.clone.shared.exception.UnauthorizedException;
+import com.slack.clone.shared.exception.ValidationException;
 import com.slack.clone.shared.util.IdGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Service for messaging
@@ -25,85 +44,266 @@ import java.time.LocalDateTime;
 @Slf4j
 public class MessagingService {
 
+    private static final int MAX_HISTORY_SIZE = 100;
+
     private final ChannelMessageRepository channelMessageRepository;
     private final DmMessageRepository dmMessageRepository;
     private final ChannelService channelService;
     private final DmService dmService;
     private final ChatMapper chatMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageIngest messageIngest;
+    private final RecentMessagesCache recentMessagesCache;
+    private final HistoryPageCache historyPageCache;
+    private final ChatMetrics chatMetrics;
+
+    @Value("${chat.cache.history-pages.settle-time:5m}")
+    private Duration historySettleTime;
 
     /**
-     * Send message to channel
+     * Send message to channel. Depending on the ingest mode the message may be
+     * persisted after this returns.
      */
     public MessageDTO sendChannelMessage(String channelId, SendMessageRequest request, String senderId) {
-        log.info("Sending message to channel {} by user {}", channelId, senderId);
+        return chatMetrics.sendTimer(ConversationType.CHANNEL).record(() -> {
+            log.info("Sending message to channel {} by user {}", channelId, senderId);
 
-        // Validate membership
-        if (!channelService.isMember(channelId, senderId)) {
-            throw new UnauthorizedException("User is not a member of this channel");
-        }
+            // Validate membership
+            if (!channelService.isMember(channelId, senderId)) {
+                throw new UnauthorizedException("User is not a member of this channel");
+            }
 
-        ChannelMessage message = ChannelMessage.builder()
-                .id(IdGenerator.generateId())
-                .channelId(channelId)
-                .senderId(senderId)
-                .content(request.getContent())
-                .createdAt(LocalDateTime.now())
-                .build();
+            ChannelMessage message = ChannelMessage.builder()
+                    .id(IdGenerator.generateId())
+                    .channelId(channelId)
+                    .senderId(senderId)
+                    .content(request.getContent())
+                    .createdAt(LocalDateTime.now())
+                    .build();
 
-        ChannelMessage saved = channelMessageRepository.save(message);
-        log.info("Channel message sent: {}", saved.getId());
+            ChannelMessage saved = messageIngest.ingest(message);
+            log.info("Channel message sent: {}", saved.getId());
+            chatMetrics.messageSent(ConversationType.CHANNEL);
 
-        return chatMapper.toDTO(saved);
+            MessageDTO dto = chatMapper.toDTO(saved);
+            recentMessagesCache.append(channelId, dto);
+            eventPublisher.publishEvent(MessageSentEvent.channel(channelId, dto));
+            return dto;
+        });
     }
 
     /**
-     * Get channel message history
+     * Get channel message history. The first page and its total are served
+     * from the recent messages cache, which counts a long history at most
+     * once per cached ring.
      */
     public Page<MessageDTO> getChannelMessages(String channelId, String userId, Pageable pageable) {
-        // Validate membership
-        if (!channelService.isMember(channelId, userId)) {
-            throw new UnauthorizedException("User is not a member of this channel");
+        return chatMetrics.readTimer(ConversationType.CHANNEL).record(() -> {
+            // Validate membership
+            if (!channelService.isMember(channelId, userId)) {
+                throw new UnauthorizedException("User is not a member of this channel");
+            }
+
+            if (isCacheableFirstPage(pageable)) {
+                RecentMessages recent = recentMessages(channelId);
+                List<MessageDTO> content = recent.firstPage(pageable.getPageSize()).getContent();
+                return PageableExecutionUtils.getPage(content, pageable, () -> recent.hasTotal()
+                        ? recent.total()
+                        : recentMessagesCache.countTotal(channelId,
+                                () -> channelMessageRepository.countByChannelId(channelId)));
+            }
+
+            return channelMessageRepository.findByChannelIdOrderByCreatedAtDesc(channelId, pageable)
+                    .map(chatMapper::toDTO);
+        });
+    }
+
+    /**
+     * Get channel message history using a (createdAt, id) keyset cursor.
+     * Without a cursor the newest messages are returned; {@code before} pages
+     * towards older messages (newest first) and {@code after} towards newer
+     * messages (oldest first). No count query is issued.
+     */
+    public MessageSliceDTO getChannelHistory(String channelId, String userId, String before, String after, int size) {
+        return chatMetrics.readTimer(ConversationType.CHANNEL).record(() -> {
+            // Validate membership
+            if (!channelService.isMember(channelId, userId)) {
+                throw new UnauthorizedException("User is not a member of this channel");
+            }
+
+            return loadChannelHistory(channelId, before, after, size);
+        });
+    }
+
+    /**
+     * Same page as {@link #getChannelHistory}, encoded as JSON. Pages behind a
+     * settled {@code before} cursor no longer change, so their encoding is
+     * cached and shared by all readers.
+     */
+    public byte[] getChannelHistoryJson(String channelId, String userId, String before, String after, int size) {
+        return chatMetrics.readTimer(ConversationType.CHANNEL).record(() -> {
+            // Validate membership
+            if (!channelService.isMember(channelId, userId)) {
+                throw new UnauthorizedException("User is not a member of this channel");
+            }
+
+            validateCursorParams(before, after);
+            if (before != null && isSettled(channelId, MessageCursor.decode(before))) {
+                return historyPageCache.getOrLoad(channelId, before, size,
+                        () -> loadChannelHistory(channelId, before, null, size));
+            }
+            return historyPageCache.encode(loadChannelHistory(channelId, before, after, size));
+        });
+    }
+
+    private MessageSliceDTO loadChannelHistory(String channelId, String before, String after, int size) {
+        validateCursorParams(before, after);
+        Slice<ChannelMessage> slice;
+        if (before != null) {
+            MessageCursor cursor = MessageCursor.decode(before);
+            slice = channelMessageRepository.findSliceBefore(
+                    channelId, cursor.createdAt(), cursor.id(), historyPage(size, Sort.Direction.DESC));
+        } else if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            slice = channelMessageRepository.findSliceAfter(
+                    channelId, cursor.createdAt(), cursor.id(), historyPage(size, Sort.Direction.ASC));
+        } else if (size >= 1 && size <= recentMessagesCache.capacity()) {
+            return toSliceDTO(recentMessages(channelId).firstPage(size));
+        } else {
+            slice = channelMessageRepository.findSliceByChannelId(channelId, historyPage(size, Sort.Direction.DESC));
         }
 
-        return channelMessageRepository.findByChannelIdOrderByCreatedAtDesc(channelId, pageable)
-                .map(chatMapper::toDTO);
+        return toSliceDTO(slice.map(chatMapper::toDTO));
+    }
+
+    /**
+     * Whether messages before the cursor can no longer be added to. Acknowledged
+     * sends still queued or in the WAL can land arbitrarily far behind the cursor,
+     * so nothing is settled until this node's ingest has no backlog for the channel;
+     * the settle time only covers sends stamped but not yet acknowledged.
+     */
+    private boolean isSettled(String channelId, MessageCursor cursor) {
+        return !messageIngest.hasBacklog(channelId)
+                && cursor.createdAt().isBefore(LocalDateTime.now().minus(historySettleTime));
     }
 
     /**
      * Send DM message
      */
     public MessageDTO sendDmMessage(String conversationId, SendMessageRequest request, String senderId) {
-        log.info("Sending DM to conversation {} by user {}", conversationId, senderId);
+        return chatMetrics.sendTimer(ConversationType.DM).record(() -> {
+            log.info("Sending DM to conversation {} by user {}", conversationId, senderId);
 
-        // Validate participation
-        if (!dmService.isParticipant(conversationId, senderId)) {
-            throw new UnauthorizedException("User is not a participant in this conversation");
-        }
+            // Validate participation
+            DmParticipants participants = dmService.getParticipants(conversationId);
+            if (!participants.includes(senderId)) {
+                throw new UnauthorizedException("User is not a participant in this conversation");
+            }
 
-        DmMessage message = DmMessage.builder()
-                .id(IdGenerator.generateId())
-                .conversationId(conversationId)
-                .senderId(senderId)
-                .content(request.getContent())
-                .createdAt(LocalDateTime.now())
-                .build();
+            DmMessage message = DmMessage.builder()
+                    .id(IdGenerator.generateId())
+                    .conversationId(conversationId)
+                    .senderId(senderId)
+                    .content(request.getContent())
+                    .createdAt(LocalDateTime.now())
+                    .build();
 
-        DmMessage saved = dmMessageRepository.save(message);
-        log.info("DM message sent: {}", saved.getId());
+            DmMessage saved = messageIngest.ingest(message);
+            log.info("DM message sent: {}", saved.getId());
+            chatMetrics.messageSent(ConversationType.DM);
 
-        return chatMapper.toDTO(saved);
+            MessageDTO dto = chatMapper.toDTO(saved);
+            eventPublisher.publishEvent(MessageSentEvent.dm(
+                    conversationId, List.of(participants.user1Id(), participants.user2Id()), dto));
+            return dto;
+        });
     }
 
     /**
      * Get DM message history
      */
     public Page<MessageDTO> getDmMessages(String conversationId, String userId, Pageable pageable) {
-        // Validate participation
-        if (!dmService.isParticipant(conversationId, userId)) {
-            throw new UnauthorizedException("User is not a participant in this conversation");
+        return chatMetrics.readTimer(ConversationType.DM).record(() -> {
+            // Validate participation
+            if (!dmService.isParticipant(conversationId, userId)) {
+                throw new UnauthorizedException("User is not a participant in this conversation");
+            }
+
+            return dmMessageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, pageable)
+                    .map(chatMapper::toDTO);
+        });
+    }
+
+    /**
+     * Get DM message history using a (createdAt, id) keyset cursor.
+     * Cursor semantics match {@link #getChannelHistory}.
+     */
+    public MessageSliceDTO getDmHistory(String conversationId, String userId, String before, String after, int size) {
+        return chatMetrics.readTimer(ConversationType.DM).record(() -> {
+            // Validate participation
+            if (!dmService.isParticipant(conversationId, userId)) {
+                throw new UnauthorizedException("User is not a participant in this conversation");
+            }
+
+            validateCursorParams(before, after);
+            Slice<DmMessage> slice;
+            if (before != null) {
+                MessageCursor cursor = MessageCursor.decode(before);
+                slice = dmMessageRepository.findSliceBefore(
+                        conversationId, cursor.createdAt(), cursor.id(), historyPage(size, Sort.Direction.DESC));
+            } else if (after != null) {
+                MessageCursor cursor = MessageCursor.decode(after);
+                slice = dmMessageRepository.findSliceAfter(
+                        conversationId, cursor.createdAt(), cursor.id(), historyPage(size, Sort.Direction.ASC));
+            } else {
+                slice = dmMessageRepository.findSliceByConversationId(
+                        conversationId, historyPage(size, Sort.Direction.DESC));
+            }
+
+            return toSliceDTO(slice.map(chatMapper::toDTO));
+        });
+    }
+
+    private RecentMessages recentMessages(String channelId) {
+        Pageable newest = PageRequest.of(0, recentMessagesCache.capacity(),
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        // Acknowledged messages still queued for Mongo would be missing from a freshly loaded ring
+        return recentMessagesCache.getOrLoad(channelId, () -> channelMessageRepository
+                .findSliceByChannelId(channelId, newest)
+                .map(chatMapper::toDTO), !messageIngest.hasBacklog(channelId));
+    }
+
+    private boolean isCacheableFirstPage(Pageable pageable) {
+        return pageable.isPaged()
+                && pageable.getPageNumber() == 0
+                && pageable.getSort().isUnsorted()
+                && pageable.getPageSize() <= recentMessagesCache.capacity();
+    }
+
+    private void validateCursorParams(String before, String after) {
+        if (before != null && after != null) {
+            throw new ValidationException("Only one of 'before' or 'after' may be specified");
         }
+    }
 
-        return dmMessageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, pageable)
-                .map(chatMapper::toDTO);
+    private Pageable historyPage(int size, Sort.Direction direction) {
+        if (size < 1 || size > MAX_HISTORY_SIZE) {
+            throw new ValidationException("Size must be between 1 and " + MAX_HISTORY_SIZE);
+        }
+        return PageRequest.of(0, size, Sort.by(direction, "createdAt", "id"));
+    }
+
+    private MessageSliceDTO toSliceDTO(Slice<MessageDTO> slice) {
+        String nextCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            MessageDTO last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = MessageCursor.of(last).encode();
+        }
+
+        return MessageSliceDTO.builder()
+                .messages(slice.getContent())
+                .nextCursor(nextCursor)
+                .hasNext(slice.hasNext())
+                .build();
     }
 }
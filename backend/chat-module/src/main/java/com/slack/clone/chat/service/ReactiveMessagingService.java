@@ -0,0 +1,130 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.SendMessageRequest;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ReactiveChannelMessageRepository;
+import com.slack.clone.chat.repository.ReactiveDmMessageRepository;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import com.slack.clone.shared.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking variant of the message history and send operations.
+ * History is streamed from the reactive Mongo driver with backpressure, so a
+ * long scroll holds neither a thread nor the whole result in memory.
+ * Membership is checked before the stream is returned, so access errors are
+ * reported as normal error responses rather than as a broken stream.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveMessagingService {
+
+    private static final int MAX_STREAM_SIZE = 10_000;
+
+    private final ReactiveChannelMessageRepository channelMessageRepository;
+    private final ReactiveDmMessageRepository dmMessageRepository;
+    private final ChannelService channelService;
+    private final DmService dmService;
+    private final MessagingService messagingService;
+    private final ChatMapper chatMapper;
+
+    /**
+     * Stream channel history. Cursor semantics match
+     * {@link MessagingService#getChannelHistory}, but up to
+     * {@value #MAX_STREAM_SIZE} messages are streamed in one response.
+     */
+    public Flux<MessageDTO> streamChannelHistory(String channelId, String userId,
+                                                 String before, String after, int limit) {
+        // Validate membership
+        if (!channelService.isMember(channelId, userId)) {
+            throw new UnauthorizedException("User is not a member of this channel");
+        }
+
+        validateCursorParams(before, after);
+        Flux<ChannelMessage> messages;
+        if (before != null) {
+            MessageCursor cursor = MessageCursor.decode(before);
+            messages = channelMessageRepository.findBefore(
+                    channelId, cursor.createdAt(), cursor.id(), streamPage(limit, Sort.Direction.DESC));
+        } else if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            messages = channelMessageRepository.findAfter(
+                    channelId, cursor.createdAt(), cursor.id(), streamPage(limit, Sort.Direction.ASC));
+        } else {
+            messages = channelMessageRepository.findByChannelId(channelId, streamPage(limit, Sort.Direction.DESC));
+        }
+
+        return messages.map(chatMapper::toDTO);
+    }
+
+    /**
+     * Stream DM history. Cursor semantics match {@link #streamChannelHistory}.
+     */
+    public Flux<MessageDTO> streamDmHistory(String conversationId, String userId,
+                                            String before, String after, int limit) {
+        // Validate participation
+        if (!dmService.isParticipant(conversationId, userId)) {
+            throw new UnauthorizedException("User is not a participant in this conversation");
+        }
+
+        validateCursorParams(before, after);
+        Flux<DmMessage> messages;
+        if (before != null) {
+            MessageCursor cursor = MessageCursor.decode(before);
+            messages = dmMessageRepository.findBefore(
+                    conversationId, cursor.createdAt(), cursor.id(), streamPage(limit, Sort.Direction.DESC));
+        } else if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            messages = dmMessageRepository.findAfter(
+                    conversationId, cursor.createdAt(), cursor.id(), streamPage(limit, Sort.Direction.ASC));
+        } else {
+            messages = dmMessageRepository.findByConversationId(
+                    conversationId, streamPage(limit, Sort.Direction.DESC));
+        }
+
+        return messages.map(chatMapper::toDTO);
+    }
+
+    /**
+     * Send message to channel. The send goes through the configured ingest
+     * mode, so it runs on the bounded elastic scheduler rather than the caller.
+     */
+    public Mono<MessageDTO> sendChannelMessage(String channelId, SendMessageRequest request, String senderId) {
+        return Mono.fromCallable(() -> messagingService.sendChannelMessage(channelId, request, senderId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Send DM message. Runs like {@link #sendChannelMessage}.
+     */
+    public Mono<MessageDTO> sendDmMessage(String conversationId, SendMessageRequest request, String senderId) {
+        return Mono.fromCallable(() -> messagingService.sendDmMessage(conversationId, request, senderId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private void validateCursorParams(String before, String after) {
+        if (before != null && after != null) {
+            throw new ValidationException("Only one of 'before' or 'after' may be specified");
+        }
+    }
+
+    private Pageable streamPage(int limit, Sort.Direction direction) {
+        if (limit < 1 || limit > MAX_STREAM_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_STREAM_SIZE);
+        }
+        return PageRequest.of(0, limit, Sort.by(direction, "createdAt", "id"));
+    }
+}
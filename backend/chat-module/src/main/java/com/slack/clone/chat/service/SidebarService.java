@@ -0,0 +1,115 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.dto.DmConversationDTO;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.SidebarDTO;
+import com.slack.clone.chat.dto.UnreadSummaryDTO;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the sidebar in one call. Channels and DM conversations load in
+ * parallel; then the latest messages of all of them (one aggregation per
+ * message collection) and the unread counts load in parallel.
+ */
+@Service
+@Slf4j
+public class SidebarService {
+
+    private final ChannelService channelService;
+    private final DmService dmService;
+    private final UnreadService unreadService;
+    private final ChannelMessageRepository channelMessageRepository;
+    private final DmMessageRepository dmMessageRepository;
+    private final ChatMapper chatMapper;
+    private final Executor sidebarExecutor;
+
+    public SidebarService(ChannelService channelService,
+                          DmService dmService,
+                          UnreadService unreadService,
+                          ChannelMessageRepository channelMessageRepository,
+                          DmMessageRepository dmMessageRepository,
+                          ChatMapper chatMapper,
+                          @Qualifier("sidebarExecutor") Executor sidebarExecutor) {
+        this.channelService = channelService;
+        this.dmService = dmService;
+        this.unreadService = unreadService;
+        this.channelMessageRepository = channelMessageRepository;
+        this.dmMessageRepository = dmMessageRepository;
+        this.chatMapper = chatMapper;
+        this.sidebarExecutor = sidebarExecutor;
+    }
+
+    /**
+     * Get the user's channels, DM conversations, latest messages and unread counts
+     */
+    public SidebarDTO getSidebar(String userId) {
+        CompletableFuture<List<ChannelDTO>> channelsFuture = submit(() -> channelService.getChannelsForUser(userId));
+        CompletableFuture<List<DmConversationDTO>> dmsFuture = submit(() -> dmService.getDmConversationsForUser(userId));
+        List<ChannelDTO> channels = await(channelsFuture);
+        List<DmConversationDTO> dms = await(dmsFuture);
+
+        List<String> channelIds = channels.stream().map(ChannelDTO::getId).toList();
+        List<String> conversationIds = dms.stream().map(DmConversationDTO::getId).toList();
+
+        CompletableFuture<Map<String, MessageDTO>> latestChannelFuture = submit(() -> latestChannelMessages(channelIds));
+        CompletableFuture<Map<String, MessageDTO>> latestDmFuture = submit(() -> latestDmMessages(conversationIds));
+        CompletableFuture<UnreadSummaryDTO> unreadFuture =
+                submit(() -> unreadService.getUnreadCounts(userId, channelIds, conversationIds));
+
+        return SidebarDTO.builder()
+                .channels(channels)
+                .dms(dms)
+                .latestChannelMessages(await(latestChannelFuture))
+                .latestDmMessages(await(latestDmFuture))
+                .unread(await(unreadFuture))
+                .build();
+    }
+
+    private Map<String, MessageDTO> latestChannelMessages(List<String> channelIds) {
+        if (channelIds.isEmpty()) {
+            return Map.of();
+        }
+        return channelMessageRepository.findLatestByChannelIdIn(channelIds).stream()
+                .collect(Collectors.toMap(ChannelMessage::getChannelId, chatMapper::toDTO));
+    }
+
+    private Map<String, MessageDTO> latestDmMessages(List<String> conversationIds) {
+        if (conversationIds.isEmpty()) {
+            return Map.of();
+        }
+        return dmMessageRepository.findLatestByConversationIdIn(conversationIds).stream()
+                .collect(Collectors.toMap(DmMessage::getConversationId, chatMapper::toDTO));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, sidebarExecutor);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Surface the original exception so the global handler maps it as usual
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
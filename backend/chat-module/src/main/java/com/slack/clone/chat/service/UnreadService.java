@@ -0,0 +1,157 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.UnreadCountDTO;
+import com.slack.clone.chat.dto.UnreadSummaryDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import com.slack.clone.chat.repository.ChannelMemberRepository;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmConversationRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import com.slack.clone.chat.unread.ReadMarker;
+import com.slack.clone.chat.unread.ReadStateStore;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Unread counts and read positions. Each send bumps its conversation's
+ * sequence once; a user's unread count is that sequence minus the one in
+ * their read marker, so neither sends nor badge refreshes count messages.
+ * Counts above {@link #MAX_UNREAD} may be lower bounds and are shown as "99+".
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadService {
+
+    /**
+     * Largest unread count marking read behind the latest message counts exactly
+     */
+    public static final int MAX_UNREAD = 99;
+
+    private final ReadStateStore readStateStore;
+    private final ChannelService channelService;
+    private final DmService dmService;
+    private final ChannelMemberRepository channelMemberRepository;
+    private final DmConversationRepository dmConversationRepository;
+    private final ChannelMessageRepository channelMessageRepository;
+    private final DmMessageRepository dmMessageRepository;
+
+    /**
+     * Count a sent message off the request thread. The sender has read their
+     * own message, so their marker moves to it.
+     */
+    @Async("messageDeliveryExecutor")
+    @EventListener
+    public void onMessageSent(MessageSentEvent event) {
+        String key = event.type() == MessageSentEvent.ConversationType.CHANNEL
+                ? ReadStateStore.channelKey(event.targetId())
+                : ReadStateStore.dmKey(event.targetId());
+        try {
+            long sequence = readStateStore.increment(key);
+            String cursor = MessageCursor.of(event.message()).encode();
+            readStateStore.putMarker(event.message().getSenderId(), key, new ReadMarker(sequence, cursor));
+        } catch (RuntimeException e) {
+            // The message is already accepted; a missed count only affects badges
+            log.warn("Failed to count message {} in {}", event.message().getId(), key, e);
+        }
+    }
+
+    /**
+     * Mark a channel read up to the message at {@code lastReadCursor}, or up to
+     * its latest message without a cursor
+     */
+    public void markChannelRead(String channelId, String userId, String lastReadCursor) {
+        // Validate membership
+        if (!channelService.isMember(channelId, userId)) {
+            throw new UnauthorizedException("User is not a member of this channel");
+        }
+        markRead(userId, ReadStateStore.channelKey(channelId), lastReadCursor,
+                cursor -> channelMessageRepository.findIdsAfter(channelId, cursor.createdAt(), cursor.id(), unreadLimit()).size());
+    }
+
+    /**
+     * Mark a DM conversation read up to the message at {@code lastReadCursor},
+     * or up to its latest message without a cursor
+     */
+    public void markDmRead(String conversationId, String userId, String lastReadCursor) {
+        // Validate participation
+        if (!dmService.isParticipant(conversationId, userId)) {
+            throw new UnauthorizedException("User is not a participant in this conversation");
+        }
+        markRead(userId, ReadStateStore.dmKey(conversationId), lastReadCursor,
+                cursor -> dmMessageRepository.findIdsAfter(conversationId, cursor.createdAt(), cursor.id(), unreadLimit()).size());
+    }
+
+    /**
+     * Unread counts of all the user's channels and DM conversations, from
+     * two ID queries and two store reads
+     */
+    public UnreadSummaryDTO getUnreadCounts(String userId) {
+        return getUnreadCounts(userId,
+                channelMemberRepository.findChannelIdsByUserId(userId),
+                dmConversationRepository.findIdsByUserId(userId));
+    }
+
+    /**
+     * Unread counts of the given conversations, for callers that already
+     * loaded the user's channel and DM conversation IDs
+     */
+    public UnreadSummaryDTO getUnreadCounts(String userId, List<String> channelIds, List<String> conversationIds) {
+        List<String> keys = new ArrayList<>(channelIds.size() + conversationIds.size());
+        channelIds.forEach(id -> keys.add(ReadStateStore.channelKey(id)));
+        conversationIds.forEach(id -> keys.add(ReadStateStore.dmKey(id)));
+        Map<String, Long> sequences = readStateStore.getSequences(keys);
+        Map<String, ReadMarker> markers = readStateStore.getMarkers(userId);
+
+        Map<String, UnreadCountDTO> channels = new LinkedHashMap<>();
+        channelIds.forEach(id -> channels.put(id, unreadCount(ReadStateStore.channelKey(id), sequences, markers)));
+        Map<String, UnreadCountDTO> dms = new LinkedHashMap<>();
+        conversationIds.forEach(id -> dms.put(id, unreadCount(ReadStateStore.dmKey(id), sequences, markers)));
+
+        return UnreadSummaryDTO.builder()
+                .channels(channels)
+                .dms(dms)
+                .build();
+    }
+
+    /**
+     * Each send bumps the sequence once, so the sequence at a cursor is the
+     * current one less the messages stored after it. Counting stops past
+     * {@link #MAX_UNREAD}, which still leaves the badge at "99+".
+     */
+    private void markRead(String userId, String key, String lastReadCursor,
+                          ToLongFunction<MessageCursor> countNewer) {
+        long sequence = readStateStore.getSequences(List.of(key)).getOrDefault(key, 0L);
+        if (lastReadCursor != null) {
+            sequence = Math.max(0, sequence - countNewer.applyAsLong(MessageCursor.decode(lastReadCursor)));
+        }
+        readStateStore.putMarker(userId, key, new ReadMarker(sequence, lastReadCursor));
+    }
+
+    private static Pageable unreadLimit() {
+        return PageRequest.of(0, MAX_UNREAD + 1);
+    }
+
+    private UnreadCountDTO unreadCount(String key, Map<String, Long> sequences, Map<String, ReadMarker> markers) {
+        long sequence = sequences.getOrDefault(key, 0L);
+        ReadMarker marker = markers.get(key);
+        long readSequence = marker != null ? marker.sequence() : 0L;
+        return UnreadCountDTO.builder()
+                .unreadCount(Math.max(0, sequence - readSequence))
+                .lastReadCursor(marker != null ? marker.cursor() : null)
+                .build();
+    }
+}
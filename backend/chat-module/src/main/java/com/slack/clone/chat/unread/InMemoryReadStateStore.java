@@ -0,0 +1,59 @@
+package com.slack.clone.chat.unread;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-node read state kept in memory. Counts restart from zero on restart.
+ */
+public class InMemoryReadStateStore implements ReadStateStore {
+
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, ReadMarker>> markers = new ConcurrentHashMap<>();
+
+    @Override
+    public long increment(String conversationKey) {
+        return sequences.computeIfAbsent(conversationKey, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public Map<String, Long> getSequences(Collection<String> conversationKeys) {
+        Map<String, Long> result = new HashMap<>();
+        for (String key : conversationKeys) {
+            AtomicLong sequence = sequences.get(key);
+            result.put(key, sequence != null ? sequence.get() : 0L);
+        }
+        return result;
+    }
+
+    @Override
+    public void putMarker(String userId, String conversationKey, ReadMarker marker) {
+        markers.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).put(conversationKey, marker);
+    }
+
+    @Override
+    public Map<String, ReadMarker> getMarkers(String userId) {
+        return Map.copyOf(markers.getOrDefault(userId, Map.of()));
+    }
+
+    @Override
+    public void putMarkers(Collection<String> userIds, String conversationKey, ReadMarker marker) {
+        userIds.forEach(userId -> putMarker(userId, conversationKey, marker));
+    }
+
+    @Override
+    public void removeMarkers(Collection<String> userIds, String conversationKey) {
+        userIds.forEach(userId -> removeMarker(userId, conversationKey));
+    }
+
+    @Override
+    public void removeMarker(String userId, String conversationKey) {
+        markers.computeIfPresent(userId, (id, userMarkers) -> {
+            userMarkers.remove(conversationKey);
+            return userMarkers.isEmpty() ? null : userMarkers;
+        });
+    }
+}
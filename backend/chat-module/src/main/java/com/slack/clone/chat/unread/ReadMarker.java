@@ -0,0 +1,24 @@
+package com.slack.clone.chat.unread;
+
+/**
+ * A user's read position in a conversation: the conversation's message
+ * sequence when it was marked read, and the cursor of the last message seen
+ * if the client supplied one
+ */
+public record ReadMarker(long sequence, String cursor) {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Encode as {@code sequence:cursor}; cursors are base64url and never contain the separator
+     */
+    public String encode() {
+        return Long.toString(sequence) + SEPARATOR + (cursor != null ? cursor : "");
+    }
+
+    public static ReadMarker decode(String value) {
+        int separatorIndex = value.indexOf(SEPARATOR);
+        String cursor = value.substring(separatorIndex + 1);
+        return new ReadMarker(Long.parseLong(value.substring(0, separatorIndex)), cursor.isEmpty() ? null : cursor);
+    }
+}
@@ -0,0 +1,53 @@
+package com.slack.clone.chat.unread;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Per-conversation message sequences and per-user read markers. A user's
+ * unread count is the conversation sequence minus the sequence recorded in
+ * their marker, so a send is one increment however many members there are.
+ * Conversations are identified by {@link #channelKey} and {@link #dmKey}.
+ */
+public interface ReadStateStore {
+
+    /**
+     * Count a new message in the conversation and return its sequence
+     */
+    long increment(String conversationKey);
+
+    /**
+     * Current sequences of the given conversations; missing ones are 0
+     */
+    Map<String, Long> getSequences(Collection<String> conversationKeys);
+
+    /**
+     * Record the user's read marker for the conversation
+     */
+    void putMarker(String userId, String conversationKey, ReadMarker marker);
+
+    /**
+     * All read markers of a user, keyed by conversation
+     */
+    Map<String, ReadMarker> getMarkers(String userId);
+
+    void removeMarker(String userId, String conversationKey);
+
+    /**
+     * Record the same read marker for many users in one round trip
+     */
+    void putMarkers(Collection<String> userIds, String conversationKey, ReadMarker marker);
+
+    /**
+     * Remove the conversation's marker of many users in one round trip
+     */
+    void removeMarkers(Collection<String> userIds, String conversationKey);
+
+    static String channelKey(String channelId) {
+        return "channel:" + channelId;
+    }
+
+    static String dmKey(String conversationId) {
+        return "dm:" + conversationId;
+    }
+}
@@ -0,0 +1,95 @@
+package com.slack.clone.chat.unread;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read state shared by all nodes: one counter key per conversation and one
+ * hash of markers per user, so a badge refresh is an MGET and an HGETALL
+ */
+public class RedisReadStateStore implements ReadStateStore {
+
+    private static final String SEQUENCE_PREFIX = "chat:unread:seq:";
+    private static final String MARKERS_PREFIX = "chat:unread:read:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisReadStateStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long increment(String conversationKey) {
+        Long sequence = redisTemplate.opsForValue().increment(SEQUENCE_PREFIX + conversationKey);
+        return sequence != null ? sequence : 0L;
+    }
+
+    @Override
+    public Map<String, Long> getSequences(Collection<String> conversationKeys) {
+        List<String> keys = conversationKeys.stream().toList();
+        Map<String, Long> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(keys.stream().map(key -> SEQUENCE_PREFIX + key).toList());
+        for (int i = 0; i < keys.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            result.put(keys.get(i), value != null ? Long.parseLong(value) : 0L);
+        }
+        return result;
+    }
+
+    @Override
+    public void putMarker(String userId, String conversationKey, ReadMarker marker) {
+        redisTemplate.opsForHash().put(MARKERS_PREFIX + userId, conversationKey, marker.encode());
+    }
+
+    @Override
+    public Map<String, ReadMarker> getMarkers(String userId) {
+        Map<String, ReadMarker> result = new HashMap<>();
+        redisTemplate.<String, String>opsForHash().entries(MARKERS_PREFIX + userId)
+                .forEach((key, value) -> result.put(key, ReadMarker.decode(value)));
+        return result;
+    }
+
+    @Override
+    public void removeMarker(String userId, String conversationKey) {
+        redisTemplate.opsForHash().delete(MARKERS_PREFIX + userId, conversationKey);
+    }
+
+    @Override
+    public void putMarkers(Collection<String> userIds, String conversationKey, ReadMarker marker) {
+        byte[] field = bytes(conversationKey);
+        byte[] value = bytes(marker.encode());
+        pipelined(connection -> userIds.forEach(userId ->
+                connection.hashCommands().hSet(bytes(MARKERS_PREFIX + userId), field, value)));
+    }
+
+    @Override
+    public void removeMarkers(Collection<String> userIds, String conversationKey) {
+        byte[] field = bytes(conversationKey);
+        pipelined(connection -> userIds.forEach(userId ->
+                connection.hashCommands().hDel(bytes(MARKERS_PREFIX + userId), field)));
+    }
+
+    private void pipelined(Consumer<RedisConnection> commands) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            commands.accept(connection);
+            return null;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,19 @@
+package com.slack.clone.chat;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Minimal boot configuration for JPA slice tests in the chat module.
+ * Deliberately avoids component scanning so chat configuration classes stay out of the slice.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EnableJpaAuditing
+@EntityScan("com.slack.clone.chat.entity")
+@EnableJpaRepositories("com.slack.clone.chat.repository")
+public class ChatJpaTestConfiguration {
+}
@@ -0,0 +1,62 @@
+package com.slack.clone.chat.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheRegion
+ */
+@ExtendWith(MockitoExtension.class)
+class CacheRegionTest {
+
+    private static final String REMOTE_KEY = "chat:counts:key-1";
+
+    @Mock
+    private RemoteCacheTier remote;
+
+    private CacheRegion<Integer> region;
+
+    @BeforeEach
+    void setUp() {
+        region = new CacheRegion<>("counts", Caffeine.newBuilder().<String, Integer>build(), remote,
+                Duration.ofMinutes(5), String::valueOf, Integer::valueOf);
+    }
+
+    @Test
+    void get_RemoteHit_DecodesAndKeepsNearCopy() {
+        // Given
+        when(remote.get(REMOTE_KEY)).thenReturn(Optional.of("42"));
+
+        // When
+        Optional<Integer> first = region.get("key-1");
+        Optional<Integer> second = region.get("key-1");
+
+        // Then
+        assertThat(first).contains(42);
+        assertThat(second).contains(42);
+        verify(remote, times(1)).get(REMOTE_KEY);
+    }
+
+    @Test
+    void get_UndecodableRemoteValue_DeletesItAndMisses() {
+        // Given
+        when(remote.get(REMOTE_KEY)).thenReturn(Optional.of("{\"legacy\":true}"));
+
+        // When
+        Optional<Integer> value = region.get("key-1");
+
+        // Then
+        assertThat(value).isEmpty();
+        verify(remote).delete(REMOTE_KEY);
+    }
+}
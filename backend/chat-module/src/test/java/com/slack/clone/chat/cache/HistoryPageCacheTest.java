@@ -0,0 +1,124 @@
+package com.slack.clone.chat.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSliceDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for HistoryPageCache
+ */
+class HistoryPageCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HistoryPageCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new HistoryPageCache(objectMapper, meterRegistry, DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getOrLoad_RepeatedPage_ReturnsSameBytesWithoutLoading() {
+        // Given
+        byte[] first = cache.getOrLoad("channel-1", "cursor-1", 20, this::load);
+
+        // When
+        byte[] second = cache.getOrLoad("channel-1", "cursor-1", 20, this::load);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(new String(first, StandardCharsets.UTF_8))
+                .contains("\"id\":\"msg-1\"")
+                .contains("\"createdAt\":\"2024-01-01T12:00:00\"")
+                .contains("\"nextCursor\":\"cursor-2\"");
+        assertThat(meterRegistry.get("chat.history-pages.resident.bytes").gauge().value())
+                .isEqualTo(first.length);
+    }
+
+    @Test
+    void getOrLoad_DifferentSizeOrCursor_IsCachedSeparately() {
+        // When
+        cache.getOrLoad("channel-1", "cursor-1", 20, this::load);
+        cache.getOrLoad("channel-1", "cursor-1", 50, this::load);
+        cache.getOrLoad("channel-1", "cursor-2", 20, this::load);
+        cache.getOrLoad("channel-2", "cursor-1", 20, this::load);
+
+        // Then
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    void getOrLoad_ConcurrentMisses_LoadOnce() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When: the second reader arrives while the first is still loading
+            Future<byte[]> first = executor.submit(() -> cache.getOrLoad("channel-1", "cursor-1", 20, () -> {
+                loading.countDown();
+                await(release);
+                return load();
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<byte[]> second = executor.submit(() -> cache.getOrLoad("channel-1", "cursor-1", 20, this::load));
+            release.countDown();
+
+            // Then
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private MessageSliceDTO load() {
+        loads.incrementAndGet();
+        MessageDTO message = MessageDTO.builder()
+                .id("msg-1")
+                .senderId("user-1")
+                .content("Hello")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+        return MessageSliceDTO.builder()
+                .messages(List.of(message))
+                .nextCursor("cursor-2")
+                .hasNext(true)
+                .build();
+    }
+}
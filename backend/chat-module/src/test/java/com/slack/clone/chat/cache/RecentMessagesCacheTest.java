@@ -0,0 +1,198 @@
+package com.slack.clone.chat.cache;
+
+import com.slack.clone.chat.dto.MessageDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RecentMessagesCache
+ */
+class RecentMessagesCacheTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecentMessagesCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecentMessagesCache(meterRegistry, 3, DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getOrLoad_SecondRead_IsServedFromMemory() {
+        // Given
+        cache.getOrLoad("channel-1", () -> load(message(2), message(1)));
+
+        // When
+        RecentMessages recent = cache.getOrLoad("channel-1", () -> load(message(9)));
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(recent.messages()).extracting(MessageDTO::getId).containsExactly("msg-2", "msg-1");
+        assertThat(meterRegistry.get("chat.recent-messages.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("chat.recent-messages.resident.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    void countTotal_CountsOnceAndAppendsKeepItCurrent() {
+        // Given
+        AtomicInteger counts = new AtomicInteger();
+        cache.getOrLoad("channel-1", () -> new SliceImpl<>(List.of(message(3), message(2), message(1)),
+                PageRequest.of(0, 3), true));
+
+        // When
+        long counted = cache.countTotal("channel-1", () -> {
+            counts.incrementAndGet();
+            return 10;
+        });
+        cache.append("channel-1", message(4));
+        RecentMessages recent = cache.getOrLoad("channel-1", () -> load(message(9)));
+
+        // Then
+        assertThat(counted).isEqualTo(10);
+        assertThat(counts).hasValue(1);
+        assertThat(recent.hasTotal()).isTrue();
+        assertThat(recent.total()).isEqualTo(11);
+    }
+
+    @Test
+    void append_ResidentChannel_KeepsNewestWithinCapacity() {
+        // Given
+        cache.getOrLoad("channel-1", () -> load(message(3), message(2), message(1)));
+
+        // When
+        cache.append("channel-1", message(5));
+        cache.append("channel-1", message(4));
+
+        // Then
+        RecentMessages recent = cache.getOrLoad("channel-1", () -> load());
+        assertThat(recent.messages()).extracting(MessageDTO::getId).containsExactly("msg-5", "msg-4", "msg-3");
+        assertThat(recent.firstPage(3).hasNext()).isTrue();
+    }
+
+    @Test
+    void append_ChannelNotResident_DoesNotCachePartialRing() {
+        // When
+        cache.append("channel-1", message(1));
+
+        // Then
+        cache.getOrLoad("channel-1", () -> load(message(1)));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getOrLoad_SendDuringLoad_ResultIsNotCached() {
+        // Given
+        RecentMessages stale = cache.getOrLoad("channel-1", () -> {
+            cache.append("channel-1", message(2));
+            return load(message(1));
+        });
+
+        // When
+        cache.getOrLoad("channel-1", () -> load(message(2), message(1)));
+
+        // Then
+        assertThat(stale.messages()).extracting(MessageDTO::getId).containsExactly("msg-1");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void getOrLoad_ConcurrentSendDuringLoad_IsAppliedToCachedRing() throws Exception {
+        // Given
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            // When
+            Future<RecentMessages> loaded = executor.submit(() -> cache.getOrLoad("channel-1", () -> {
+                loading.countDown();
+                await(release);
+                return load(message(1));
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<?> send = executor.submit(() -> cache.append("channel-1", message(2)));
+            Thread.sleep(50);
+            release.countDown();
+            loaded.get(5, TimeUnit.SECONDS);
+            send.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        // The send waited for the load and was appended to the ring it cached
+        RecentMessages recent = cache.getOrLoad("channel-1", () -> load(message(9)));
+        assertThat(recent.messages()).extracting(MessageDTO::getId).containsExactly("msg-2", "msg-1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getOrLoad_CacheOnMissDisabled_DoesNotCacheLoadedRing() {
+        // Given
+        cache.getOrLoad("channel-1", () -> load(message(1)), false);
+
+        // When
+        RecentMessages recent = cache.getOrLoad("channel-1", () -> load(message(2), message(1)));
+
+        // Then
+        assertThat(loads).hasValue(2);
+        assertThat(recent.messages()).extracting(MessageDTO::getId).containsExactly("msg-2", "msg-1");
+    }
+
+    @Test
+    void firstPage_ShortHistory_HasNoNextPage() {
+        // Given
+        RecentMessages recent = cache.getOrLoad("channel-1", () -> load(message(2), message(1)));
+
+        // When
+        Slice<MessageDTO> page = recent.firstPage(2);
+
+        // Then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Slice<MessageDTO> load(MessageDTO... newestFirst) {
+        loads.incrementAndGet();
+        return new SliceImpl<>(List.of(newestFirst), PageRequest.of(0, 3), false);
+    }
+
+    private MessageDTO message(int sequence) {
+        return MessageDTO.builder()
+                .id("msg-" + sequence)
+                .senderId("user-1")
+                .content("message " + sequence)
+                .createdAt(BASE_TIME.plusSeconds(sequence))
+                .build();
+    }
+}
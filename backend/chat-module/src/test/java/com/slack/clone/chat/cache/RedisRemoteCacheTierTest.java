@@ -0,0 +1,133 @@
+package com.slack.clone.chat.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Two-node tests for the Redis cache tier against an embedded Redis server
+ */
+class RedisRemoteCacheTierTest {
+
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    private final List<Node> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(Node::stop);
+    }
+
+    @Test
+    void shouldServeMembershipCachedByAnotherNode() {
+        // Given
+        Node nodeA = startNode();
+        Node nodeB = startNode();
+
+        // When
+        nodeA.membershipCache().putChannelMembership("channel-1", "user-1", true);
+
+        // Then
+        assertThat(nodeB.membershipCache().getChannelMembership("channel-1", "user-1")).contains(true);
+    }
+
+    @Test
+    void shouldInvalidateNearCacheOnOtherNodes() {
+        // Given
+        Node nodeA = startNode();
+        Node nodeB = startNode();
+        nodeA.membershipCache().putChannelMembership("channel-2", "user-1", false);
+        assertThat(nodeB.membershipCache().getChannelMembership("channel-2", "user-1")).contains(false);
+
+        // When
+        nodeA.membershipCache().evictChannelMembership("channel-2", "user-1");
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                assertThat(nodeB.membershipCache().getChannelMembership("channel-2", "user-1")).isEmpty());
+    }
+
+    @Test
+    void shouldInvalidateManyMembershipsOnOtherNodesInOnePass() {
+        // Given
+        Node nodeA = startNode();
+        Node nodeB = startNode();
+        List<String> userIds = IntStream.range(0, 1200).mapToObj(i -> "user-" + i).toList();
+        userIds.forEach(userId -> nodeA.membershipCache().putChannelMembership("channel-3", userId, false));
+        userIds.forEach(userId ->
+                assertThat(nodeB.membershipCache().getChannelMembership("channel-3", userId)).contains(false));
+
+        // When
+        nodeA.membershipCache().evictChannelMemberships("channel-3", userIds);
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> assertThat(userIds)
+                .allSatisfy(userId ->
+                        assertThat(nodeB.membershipCache().getChannelMembership("channel-3", userId)).isEmpty()));
+    }
+
+    private Node startNode() {
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redisPort));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+
+        RedisRemoteCacheTier remoteTier = new RedisRemoteCacheTier(new StringRedisTemplate(connectionFactory), container);
+        CacheRegions cacheRegions = new CacheRegions(Optional.of(remoteTier), new SimpleMeterRegistry(), Duration.ofSeconds(30));
+        await().atMost(5, TimeUnit.SECONDS).until(container::isListening);
+
+        Node node = new Node(connectionFactory, container,
+                new MembershipCache(cacheRegions, 1_000, Duration.ofMinutes(5)));
+        nodes.add(node);
+        return node;
+    }
+
+    private record Node(LettuceConnectionFactory connectionFactory,
+                        RedisMessageListenerContainer container,
+                        MembershipCache membershipCache) {
+
+        void stop() {
+            container.stop();
+            connectionFactory.destroy();
+        }
+    }
+}
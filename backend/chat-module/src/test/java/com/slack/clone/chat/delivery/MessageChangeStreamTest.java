@@ -0,0 +1,85 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.mapper.ChatMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the live-tail multiplexing in MessageChangeStream
+ */
+class MessageChangeStreamTest {
+
+    private static final int BUFFER_SIZE = 8;
+
+    private MessageChangeStream changeStream;
+
+    @BeforeEach
+    void setUp() {
+        changeStream = new MessageChangeStream(mock(ReactiveMongoTemplate.class), mock(ChatMapper.class), List.of(), false, BUFFER_SIZE);
+    }
+
+    @Test
+    void publish_DeliversToEveryTailOfTheConversationOnly() {
+        // Given
+        LiveTail first = changeStream.register(ConversationType.CHANNEL, "channel-1");
+        LiveTail second = changeStream.register(ConversationType.CHANNEL, "channel-1");
+        LiveTail other = changeStream.register(ConversationType.CHANNEL, "channel-2");
+        LiveTail dm = changeStream.register(ConversationType.DM, "channel-1");
+
+        // When
+        changeStream.publish(ConversationType.CHANNEL, "channel-1", message("msg-1"));
+
+        // Then
+        StepVerifier.create(first.messages().take(1)).expectNext(message("msg-1")).verifyComplete();
+        StepVerifier.create(second.messages().take(1)).expectNext(message("msg-1")).verifyComplete();
+        other.close();
+        dm.close();
+        StepVerifier.create(other.messages()).verifyComplete();
+        StepVerifier.create(dm.messages()).verifyComplete();
+    }
+
+    @Test
+    void close_LastTail_ReleasesConversation() {
+        // Given
+        LiveTail first = changeStream.register(ConversationType.CHANNEL, "channel-1");
+        LiveTail second = changeStream.register(ConversationType.CHANNEL, "channel-1");
+        assertThat(changeStream.activeConversations()).isEqualTo(1);
+
+        // When
+        first.close();
+        second.close();
+
+        // Then
+        assertThat(changeStream.activeConversations()).isZero();
+    }
+
+    @Test
+    void publish_SubscriberOverBuffer_IsCompleted() {
+        // Given
+        LiveTail tail = changeStream.register(ConversationType.CHANNEL, "channel-1");
+
+        // When
+        for (int i = 0; i <= BUFFER_SIZE; i++) {
+            changeStream.publish(ConversationType.CHANNEL, "channel-1", message("msg-" + i));
+        }
+
+        // Then
+        StepVerifier.create(tail.messages())
+                .expectNextCount(BUFFER_SIZE)
+                .verifyComplete();
+        assertThat(changeStream.activeConversations()).isZero();
+    }
+
+    private MessageDTO message(String id) {
+        return MessageDTO.builder().id(id).senderId("user-1").content(id).build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.slack.clone.chat.delivery;
+
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageEventDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for MessageDeliveryService
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageDeliveryServiceTest {
+
+    @Mock
+    private MessageFanout messageFanout;
+
+    @InjectMocks
+    private MessageDeliveryService messageDeliveryService;
+
+    private final MessageDTO message = MessageDTO.builder().id("msg-1").senderId("user-1").content("hi").build();
+
+    @Test
+    void shouldFanOutChannelMessageToChannel() {
+        // When
+        messageDeliveryService.onMessageSent(MessageSentEvent.channel("channel-1", message));
+
+        // Then
+        verify(messageFanout).toChannel(eq("channel-1"), any(MessageEventDTO.class));
+        verify(messageFanout, never()).toUser(anyString(), any());
+    }
+
+    @Test
+    void shouldFanOutDmToBothParticipants() {
+        // When
+        messageDeliveryService.onMessageSent(MessageSentEvent.dm("dm-1", List.of("user-1", "user-2"), message));
+
+        // Then
+        verify(messageFanout).toUser(eq("user-1"), any(MessageEventDTO.class));
+        verify(messageFanout).toUser(eq("user-2"), any(MessageEventDTO.class));
+    }
+}
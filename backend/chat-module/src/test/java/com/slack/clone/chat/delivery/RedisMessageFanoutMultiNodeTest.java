@@ -0,0 +1,198 @@
+package com.slack.clone.chat.delivery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.clone.chat.config.MessageFanoutConfig;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageEventDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Multi-node test for the Redis fan-out bridge: two application contexts
+ * sharing an embedded Redis server
+ */
+class RedisMessageFanoutMultiNodeTest {
+
+    private static RedisServer redisServer;
+    private static int redisPort;
+
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    private final MessageDTO message = MessageDTO.builder().id("msg-1").senderId("user-1").content("hi").build();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            redisPort = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void shouldDeliverChannelMessageToSubscriberOnAnotherNode() {
+        // Given
+        subscribe(nodeB, "session-1", "/topic/channels/channel-1", "user-2");
+
+        // When & Then: retry until node B's Redis subscription is live
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            nodeA.getBean(MessageDeliveryService.class).onMessageSent(MessageSentEvent.channel("channel-1", message));
+            verify(localBroker(nodeB), timeout(500).atLeastOnce())
+                    .convertAndSend(eq("/topic/channels/channel-1"), any(MessageEventDTO.class));
+        });
+        verify(localBroker(nodeA), never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void shouldDeliverDmToRecipientOnAnotherNode() {
+        // Given
+        subscribe(nodeB, "session-2", "/user/queue/dm", "user-2");
+
+        // When & Then
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+            nodeA.getBean(MessageDeliveryService.class)
+                    .onMessageSent(MessageSentEvent.dm("dm-1", List.of("user-1", "user-2"), message));
+            verify(localBroker(nodeB), timeout(500).atLeastOnce())
+                    .convertAndSendToUser(eq("user-2"), eq("/queue/dm"), any(MessageEventDTO.class));
+        });
+        verify(localBroker(nodeB), never()).convertAndSendToUser(eq("user-1"), anyString(), any());
+    }
+
+    @Test
+    void shouldReleaseRedisSubscriptionWhenLastLocalSessionDisconnects() {
+        // Given
+        subscribe(nodeB, "session-3", "/topic/channels/channel-3", "user-2");
+        subscribe(nodeB, "session-4", "/topic/channels/channel-3", "user-3");
+        RedisMessageFanout fanout = (RedisMessageFanout) nodeB.getBean(MessageFanout.class);
+        assertThat(fanout.localSubscriberCount("ws:channel:channel-3")).isEqualTo(2);
+
+        // When
+        disconnect(nodeB, "session-3");
+        disconnect(nodeB, "session-4");
+
+        // Then
+        assertThat(fanout.localSubscriberCount("ws:channel:channel-3")).isZero();
+    }
+
+    private AnnotationConfigApplicationContext startNode() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("test", Map.of("chat.websocket.broker", "redis")));
+        context.register(NodeConfig.class, MessageFanoutConfig.class, MessageDeliveryService.class);
+        context.refresh();
+        return context;
+    }
+
+    private void subscribe(AnnotationConfigApplicationContext node, String sessionId, String destination, String userId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-" + sessionId);
+        accessor.setDestination(destination);
+        Message<byte[]> frame = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        node.publishEvent(new SessionSubscribeEvent(this, frame, principal(userId)));
+    }
+
+    private void disconnect(AnnotationConfigApplicationContext node, String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> frame = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        node.publishEvent(new SessionDisconnectEvent(this, frame, sessionId, CloseStatus.NORMAL));
+    }
+
+    private static Principal principal(String userId) {
+        return () -> userId;
+    }
+
+    private static SimpMessageSendingOperations localBroker(AnnotationConfigApplicationContext node) {
+        return node.getBean(SimpMessageSendingOperations.class);
+    }
+
+    @Configuration
+    static class NodeConfig {
+
+        @Bean
+        LettuceConnectionFactory redisConnectionFactory() {
+            return new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redisPort));
+        }
+
+        @Bean
+        StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+            return new StringRedisTemplate(connectionFactory);
+        }
+
+        @Bean
+        RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        SimpMessageSendingOperations localBroker() {
+            return mock(SimpMessageSendingOperations.class);
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+}
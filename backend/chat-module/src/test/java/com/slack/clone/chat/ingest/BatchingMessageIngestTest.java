@@ -0,0 +1,260 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.shared.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for BatchingMessageIngest
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchingMessageIngestTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private BatchingMessageIngest ingest;
+
+    @AfterEach
+    void tearDown() {
+        if (ingest != null && ingest.isRunning()) {
+            ingest.stop();
+        }
+    }
+
+    @Test
+    void stop_FlushesEveryAcceptedMessageInPerChannelOrder() throws Exception {
+        // Given
+        List<ChannelMessage> persisted = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            Collection<ChannelMessage> batch = invocation.getArgument(0);
+            Thread.sleep(2); // simulate a Mongo round trip so the queues back up
+            persisted.addAll(batch);
+            return batch;
+        }).when(mongoTemplate).insert(anyCollection(), eq(ChannelMessage.class));
+
+        ingest = new BatchingMessageIngest(mongoTemplate, 4, 50_000, 200, Duration.ofMillis(5), Duration.ofSeconds(30));
+        ingest.start();
+
+        int producers = 8;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    // Each producer owns its channels, so per-channel send order is well defined
+                    ingest.ingest(message("channel-" + producer + "-" + (i % 10), producer, i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        ingest.stop();
+
+        // Then
+        assertThat(ingest.pendingCount()).isZero();
+        assertThat(persisted).hasSize(producers * perProducer);
+        assertThat(persisted).extracting(ChannelMessage::getId).doesNotHaveDuplicates();
+
+        Map<String, List<Integer>> sequenceByChannel = persisted.stream()
+                .collect(Collectors.groupingBy(ChannelMessage::getChannelId,
+                        Collectors.mapping(m -> Integer.parseInt(m.getContent()), Collectors.toList())));
+        sequenceByChannel.values().forEach(sequence -> assertThat(sequence).isSorted());
+    }
+
+    @Test
+    void ingest_FullShard_RejectsWithTooManyRequests() throws Exception {
+        // Given
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        }).when(mongoTemplate).insert(anyCollection(), eq(ChannelMessage.class));
+
+        ingest = new BatchingMessageIngest(mongoTemplate, 1, 2, 1, Duration.ofMillis(1), Duration.ofSeconds(5));
+        ingest.start();
+        ingest.ingest(message("channel-1", 0, 0));
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        ingest.ingest(message("channel-1", 0, 1));
+        ingest.ingest(message("channel-1", 0, 2));
+
+        // Then
+        assertThatThrownBy(() -> ingest.ingest(message("channel-1", 0, 3)))
+                .isInstanceOf(TooManyRequestsException.class);
+        release.countDown();
+    }
+
+    @Test
+    void flush_MongoDownLongerThanRetryBudget_KeepsRetryingAndAppliesBackpressure() throws Exception {
+        // Given
+        int failures = 50;
+        AtomicInteger saveAttempts = new AtomicInteger();
+        List<ChannelMessage> persisted = Collections.synchronizedList(new ArrayList<>());
+        doThrow(new DataAccessResourceFailureException("mongo down"))
+                .when(mongoTemplate).insert(anyCollection(), eq(ChannelMessage.class));
+        doAnswer(invocation -> {
+            if (saveAttempts.incrementAndGet() <= failures) {
+                throw new DataAccessResourceFailureException("mongo down");
+            }
+            persisted.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        }).when(mongoTemplate).save(any(ChannelMessage.class));
+
+        ingest = new BatchingMessageIngest(mongoTemplate, 1, 2, 1, Duration.ofMillis(1), Duration.ofSeconds(5),
+                Duration.ofMillis(1), Duration.ofMillis(2));
+        ingest.start();
+
+        // When
+        ingest.ingest(message("channel-1", 0, 0));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (saveAttempts.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        ingest.ingest(message("channel-1", 0, 1));
+        ingest.ingest(message("channel-1", 0, 2));
+
+        // Then
+        // The writer holds the first message while the shard fills, so new sends are refused
+        assertThatThrownBy(() -> ingest.ingest(message("channel-1", 0, 3)))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (ingest.pendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(saveAttempts.get()).isGreaterThan(failures);
+        assertThat(persisted).extracting(ChannelMessage::getContent).containsExactly("0", "1", "2");
+        assertThat(ingest.pendingCount()).isZero();
+    }
+
+    @Test
+    void flush_MessageAlwaysRejected_SkipsItAndStoresTheRest() throws Exception {
+        // Given
+        List<ChannelMessage> persisted = Collections.synchronizedList(new ArrayList<>());
+        doThrow(new DataIntegrityViolationException("document failed validation"))
+                .when(mongoTemplate).insert(anyCollection(), eq(ChannelMessage.class));
+        doAnswer(invocation -> {
+            ChannelMessage message = invocation.getArgument(0);
+            if (message.getContent().equals("1")) {
+                throw new DataIntegrityViolationException("document failed validation");
+            }
+            persisted.add(message);
+            return message;
+        }).when(mongoTemplate).save(any(ChannelMessage.class));
+
+        ingest = new BatchingMessageIngest(mongoTemplate, 1, 10, 10, Duration.ofMillis(5), Duration.ofSeconds(5),
+                Duration.ofMillis(1), Duration.ofMillis(2));
+        ingest.start();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            ingest.ingest(message("channel-1", 0, i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ingest.hasBacklog("channel-1") && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Then
+        assertThat(ingest.hasBacklog("channel-1")).isFalse();
+        assertThat(ingest.pendingCount()).isZero();
+        assertThat(persisted).extracting(ChannelMessage::getContent).containsExactly("0", "2");
+        verify(mongoTemplate, times(1)).save(argThat((ChannelMessage message) -> message.getContent().equals("1")));
+    }
+
+    @Test
+    void hasBacklog_TracksChannelsUntilTheirMessagesAreStored() throws Exception {
+        // Given
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writerBlocked.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        }).when(mongoTemplate).insert(anyCollection(), eq(ChannelMessage.class));
+
+        ingest = new BatchingMessageIngest(mongoTemplate, 1, 10, 10, Duration.ofMillis(1), Duration.ofSeconds(5));
+        ingest.start();
+
+        // When
+        ingest.ingest(message("channel-1", 0, 0));
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        assertThat(ingest.hasBacklog("channel-1")).isTrue();
+        assertThat(ingest.hasBacklog("channel-2")).isFalse();
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ingest.hasBacklog("channel-1") && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(ingest.hasBacklog("channel-1")).isFalse();
+    }
+
+    @Test
+    void ingest_BeforeStart_WritesSynchronously() {
+        // Given
+        ingest = new BatchingMessageIngest(mongoTemplate, 1, 10, 10, Duration.ofMillis(5), Duration.ofSeconds(5));
+        ChannelMessage message = message("channel-1", 0, 0);
+
+        // When
+        ingest.ingest(message);
+
+        // Then
+        verify(mongoTemplate).insert(message);
+    }
+
+    private static ChannelMessage message(String channelId, int producer, int sequence) {
+        return ChannelMessage.builder()
+                .id(producer + "-" + sequence)
+                .channelId(channelId)
+                .senderId("user-" + producer)
+                .content(Integer.toString(sequence))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
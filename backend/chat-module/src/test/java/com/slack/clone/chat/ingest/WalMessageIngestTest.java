@@ -0,0 +1,147 @@
+package com.slack.clone.chat.ingest;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.ingest.wal.WriteAheadLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+
+/**
+ * Unit tests for WalMessageIngest
+ */
+@ExtendWith(MockitoExtension.class)
+class WalMessageIngestTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void ingest_AcceptsWritesWhileMongoIsDownAndReplaysWhenItRecovers() throws Exception {
+        // Given
+        AtomicBoolean mongoUp = new AtomicBoolean(false);
+        List<Object> persisted = Collections.synchronizedList(new ArrayList<>());
+        stubBulkInsert(mongoUp, persisted);
+
+        WalMessageIngest ingest = new WalMessageIngest(
+                new WriteAheadLog(directory, SEGMENT_SIZE, 100), mongoTemplate, 100, Duration.ofSeconds(5));
+        ingest.start();
+
+        // When
+        for (int i = 0; i < 300; i++) {
+            ingest.ingest(channelMessage(i));
+        }
+        ingest.ingest(dmMessage());
+        assertThat(persisted).isEmpty();
+        mongoUp.set(true);
+
+        // Then
+        await().atMost(Duration.ofSeconds(15)).untilAsserted(() -> assertThat(persisted).hasSize(301));
+        ingest.stop();
+    }
+
+    @Test
+    void start_ReplaysRecordsLeftOverFromPreviousRun() throws Exception {
+        // Given
+        AtomicBoolean mongoUp = new AtomicBoolean(false);
+        List<Object> persisted = Collections.synchronizedList(new ArrayList<>());
+        stubBulkInsert(mongoUp, persisted);
+
+        WalMessageIngest first = new WalMessageIngest(
+                new WriteAheadLog(directory, SEGMENT_SIZE, 100), mongoTemplate, 100, Duration.ofMillis(200));
+        first.start();
+        for (int i = 0; i < 50; i++) {
+            first.ingest(channelMessage(i));
+        }
+        first.stop();
+        assertThat(persisted).isEmpty();
+
+        // When
+        mongoUp.set(true);
+        WalMessageIngest second = new WalMessageIngest(
+                new WriteAheadLog(directory, SEGMENT_SIZE, 100), mongoTemplate, 100, Duration.ofSeconds(5));
+        second.start();
+
+        // Then
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(persisted).hasSize(50));
+        assertThat(persisted).extracting(message -> ((ChannelMessage) message).getId())
+                .containsExactlyElementsOf(ids(50));
+        second.stop();
+    }
+
+    private void stubBulkInsert(AtomicBoolean mongoUp, List<Object> persisted) {
+        doAnswer(invocation -> {
+            if (!mongoUp.get()) {
+                throw new DataAccessResourceFailureException("Mongo unavailable");
+            }
+            Collection<?> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        }).when(mongoTemplate).insert(anyCollection(), eq(ChannelMessage.class));
+        lenient().doAnswer(invocation -> {
+            if (!mongoUp.get()) {
+                throw new DataAccessResourceFailureException("Mongo unavailable");
+            }
+            Collection<?> batch = invocation.getArgument(0);
+            persisted.addAll(batch);
+            return batch;
+        }).when(mongoTemplate).insert(anyCollection(), eq(DmMessage.class));
+        lenient().doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("Mongo unavailable");
+        }).when(mongoTemplate).save(any());
+    }
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add("msg-" + i);
+        }
+        return ids;
+    }
+
+    private static ChannelMessage channelMessage(int sequence) {
+        return ChannelMessage.builder()
+                .id("msg-" + sequence)
+                .channelId("channel-1")
+                .senderId("user-1")
+                .content("message " + sequence)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static DmMessage dmMessage() {
+        return DmMessage.builder()
+                .id("dm-1")
+                .conversationId("conversation-1")
+                .senderId("user-1")
+                .content("hello")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,190 @@
+package com.slack.clone.chat.ingest.wal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for WriteAheadLog
+ */
+class WriteAheadLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void append_RecordsReadBackAcrossSegmentRotation() throws IOException {
+        // Given
+        List<String> written = new ArrayList<>();
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            // When
+            for (int i = 0; i < 500; i++) {
+                String value = "record-" + i;
+                wal.append((byte) 1, value.getBytes(StandardCharsets.UTF_8));
+                written.add(value);
+            }
+
+            // Then
+            assertThat(segmentCount()).isGreaterThan(1);
+            assertThat(readAll(wal)).containsExactlyElementsOf(written);
+        }
+    }
+
+    @Test
+    void append_ConcurrentAppendsAreAllDurable() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, 64 * 1024, 100)) {
+            // When
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        wal.append((byte) 1, (thread + ":" + i).getBytes(StandardCharsets.UTF_8));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // Then
+            assertThat(readAll(wal)).hasSize(threads * perThread).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void open_RecoversValidRecordsAndDiscardsTornTail() throws IOException {
+        // Given
+        long tail;
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            wal.append((byte) 1, "first".getBytes(StandardCharsets.UTF_8));
+            tail = wal.append((byte) 1, "second".getBytes(StandardCharsets.UTF_8));
+        }
+        // Simulate a crash mid-append: a header claiming a payload whose CRC does not match
+        try (FileChannel channel = FileChannel.open(lastSegment(), StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(WriteAheadLog.HEADER_BYTES + 4)
+                    .putInt(4).putInt(0xBAD).put((byte) 1).put("torn".getBytes(StandardCharsets.UTF_8));
+            channel.write(torn.flip(), tail % SEGMENT_SIZE);
+        }
+
+        // When
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            long next = wal.append((byte) 1, "third".getBytes(StandardCharsets.UTF_8));
+
+            // Then
+            assertThat(next).isGreaterThan(tail);
+            assertThat(readAll(wal)).containsExactly("first", "second", "third");
+        }
+    }
+
+    @Test
+    void read_CorruptRecordMidSegment_ResumesAtNextValidRecord() throws IOException {
+        // Given
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            long first = wal.append((byte) 1, "first".getBytes(StandardCharsets.UTF_8));
+            wal.append((byte) 1, "second".getBytes(StandardCharsets.UTF_8));
+            wal.append((byte) 1, "third".getBytes(StandardCharsets.UTF_8));
+            // Flip the checksum of the second record, as bit rot would
+            try (FileChannel channel = FileChannel.open(lastSegment(), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4).putInt(0, 0xBAD), first % SEGMENT_SIZE + 4);
+            }
+
+            // When / Then
+            assertThat(readAll(wal)).containsExactly("first", "third");
+        }
+
+        // The valid records after it are not mistaken for a torn tail on open
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            reopened.append((byte) 1, "fourth".getBytes(StandardCharsets.UTF_8));
+            assertThat(readAll(reopened)).containsExactly("first", "third", "fourth");
+        }
+    }
+
+    @Test
+    void commit_PersistsCheckpointAndDeletesReplayedSegments() throws IOException {
+        // Given
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            for (int i = 0; i < 500; i++) {
+                wal.append((byte) 1, ("record-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            long segmentsBefore = segmentCount();
+            WalBatch batch = wal.read(wal.checkpoint(), 400);
+
+            // When
+            wal.commit(batch.nextPosition());
+
+            // Then
+            assertThat(segmentCount()).isLessThan(segmentsBefore);
+        }
+
+        try (WriteAheadLog reopened = new WriteAheadLog(directory, SEGMENT_SIZE, 100)) {
+            assertThat(readAll(reopened)).hasSize(100).first().isEqualTo("record-400");
+        }
+    }
+
+    @Test
+    void append_BeyondSegmentLimit_ThrowsWalFullException() throws IOException {
+        // Given
+        try (WriteAheadLog wal = new WriteAheadLog(directory, SEGMENT_SIZE, 2)) {
+            byte[] payload = new byte[1000];
+
+            // When & Then
+            assertThatThrownBy(() -> {
+                for (int i = 0; i < 20; i++) {
+                    wal.append((byte) 1, payload);
+                }
+            }).isInstanceOf(WalFullException.class);
+        }
+    }
+
+    private List<String> readAll(WriteAheadLog wal) throws IOException {
+        List<String> values = new ArrayList<>();
+        long position = wal.checkpoint();
+        while (true) {
+            WalBatch batch = wal.read(position, 128);
+            if (batch.entries().isEmpty()) {
+                return values;
+            }
+            batch.entries().forEach(entry -> values.add(new String(entry.payload(), StandardCharsets.UTF_8)));
+            position = batch.nextPosition();
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).count();
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).sorted().reduce((a, b) -> b).orElseThrow();
+        }
+    }
+}
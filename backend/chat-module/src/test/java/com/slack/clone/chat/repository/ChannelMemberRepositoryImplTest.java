@@ -0,0 +1,81 @@
+package com.slack.clone.chat.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the bulk membership insert against an embedded PostgreSQL
+ */
+class ChannelMemberRepositoryImplTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private ChannelMemberRepositoryImpl repository;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("create table channel_members (" +
+                "id varchar(36) primary key, " +
+                "channel_id varchar(36) not null, " +
+                "user_id varchar(36) not null, " +
+                "joined_at timestamp not null, " +
+                "constraint idx_channel_user unique (channel_id, user_id))");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("truncate channel_members");
+        repository = new ChannelMemberRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void shouldReturnOnlyUsersActuallyInserted() {
+        // Given
+        // Members who joined concurrently, after the caller looked up existing members
+        repository.insertMembersIgnoringExisting("channel-1", List.of("user-2", "user-4"));
+
+        // When
+        Set<String> inserted = repository.insertMembersIgnoringExisting("channel-1",
+                List.of("user-1", "user-2", "user-3", "user-4"));
+
+        // Then
+        assertThat(inserted).containsExactlyInAnyOrder("user-1", "user-3");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from channel_members where channel_id = 'channel-1'", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldInsertAcrossChunks() {
+        // Given
+        List<String> users = IntStream.range(0, ChannelMemberRepositoryImpl.CHUNK_SIZE * 2 + 1)
+                .mapToObj(i -> "user-" + i)
+                .toList();
+
+        // When
+        Set<String> inserted = repository.insertMembersIgnoringExisting("channel-1", users);
+
+        // Then
+        assertThat(inserted).hasSize(users.size());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from channel_members", Integer.class))
+                .isEqualTo(users.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.entity.Channel;
+import com.slack.clone.chat.entity.ChannelMember;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-count tests for the channel listing projections
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ChannelRepositoryTest {
+
+    private static final int CHANNEL_COUNT = 20;
+    private static final int MEMBERS_PER_CHANNEL = 15;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < CHANNEL_COUNT; c++) {
+            Channel channel = entityManager.persist(Channel.builder()
+                    .id("channel-" + c)
+                    .name(String.format("channel-%02d", c))
+                    .createdBy("user-0")
+                    .build());
+            // Channel c has c % MEMBERS_PER_CHANNEL members, so some channels are empty
+            for (int m = 0; m < c % MEMBERS_PER_CHANNEL; m++) {
+                entityManager.persist(ChannelMember.builder()
+                        .id("member-" + c + "-" + m)
+                        .channel(channel)
+                        .userId("user-" + m)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findDirectoryPage_UsesSingleStatement() {
+        // When
+        List<ChannelDTO> channels = channelRepository.findDirectoryPage("%", "", "", PageRequest.of(0, 50)).getContent();
+
+        // Then
+        assertThat(channels).hasSize(CHANNEL_COUNT);
+        assertThat(channels.get(0).getName()).isEqualTo("channel-00");
+        assertThat(channels.get(0).getMemberCount()).isZero();
+        assertThat(channels.get(7).getMemberCount()).isEqualTo(7);
+        assertThat(channels.get(16).getMemberCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findWithMemberCountByUserId_UsesSingleStatement() {
+        // When
+        List<ChannelDTO> channels = channelRepository.findWithMemberCountByUserId("user-3");
+
+        // Then
+        // user-3 belongs to every channel with more than three members
+        assertThat(channels).extracting(ChannelDTO::getId)
+                .doesNotContain("channel-0", "channel-3", "channel-15", "channel-18")
+                .contains("channel-4", "channel-14", "channel-19");
+        assertThat(channels).filteredOn(dto -> dto.getId().equals("channel-14"))
+                .singleElement()
+                .extracting(ChannelDTO::getMemberCount)
+                .isEqualTo(14);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findWithMemberCountById_ReturnsCountWithoutLoadingMembers() {
+        // When
+        ChannelDTO channel = channelRepository.findWithMemberCountById("channel-9").orElseThrow();
+
+        // Then
+        assertThat(channel.getMemberCount()).isEqualTo(9);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findDirectoryPage_PagesByNameAfterCursor() {
+        // When
+        Slice<ChannelDTO> first = channelRepository.findDirectoryPage("%", "", "", PageRequest.of(0, 8));
+        String lastName = first.getContent().get(first.getNumberOfElements() - 1).getName();
+        Slice<ChannelDTO> second = channelRepository.findDirectoryPage(
+                "%", Channel.nameKey(lastName), lastName, PageRequest.of(0, 8));
+
+        // Then
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).extracting(ChannelDTO::getName)
+                .startsWith("channel-00")
+                .endsWith("channel-07");
+        assertThat(second.getContent()).extracting(ChannelDTO::getName)
+                .startsWith("channel-08");
+        assertThat(second.getContent().get(1).getMemberCount()).isEqualTo(9);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void findDirectoryPage_FiltersByCaseInsensitivePrefix() {
+        // When
+        Slice<ChannelDTO> page = channelRepository.findDirectoryPage("channel-1%", "", "", PageRequest.of(0, 50));
+
+        // Then
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.getContent()).hasSize(10)
+                .allMatch(dto -> dto.getName().startsWith("channel-1"));
+    }
+
+    @Test
+    void findDirectoryPage_MixedCaseNames_PagesCaseInsensitivelyWithoutSkipping() {
+        // Given
+        for (String name : List.of("Alpha", "alpha-1", "ALPHA-2", "beta")) {
+            entityManager.persist(Channel.builder()
+                    .id("mixed-" + name)
+                    .name(name)
+                    .createdBy("user-0")
+                    .build());
+        }
+        entityManager.flush();
+
+        // When
+        Slice<ChannelDTO> first = channelRepository.findDirectoryPage("alpha%", "", "", PageRequest.of(0, 1));
+        String lastName = first.getContent().get(0).getName();
+        Slice<ChannelDTO> rest = channelRepository.findDirectoryPage(
+                "alpha%", Channel.nameKey(lastName), lastName, PageRequest.of(0, 10));
+
+        // Then
+        // Case-sensitive order would put ALPHA-2 first
+        assertThat(first.hasNext()).isTrue();
+        assertThat(first.getContent()).extracting(ChannelDTO::getName).containsExactly("Alpha");
+        assertThat(rest.getContent()).extracting(ChannelDTO::getName).containsExactly("alpha-1", "ALPHA-2");
+    }
+}
@@ -0,0 +1,113 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.chat.entity.DmConversation;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the DM conversation upsert against an embedded PostgreSQL
+ */
+class DmConversationRepositoryImplTest {
+
+    private static final int CONCURRENT_CREATES = 32;
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private DmConversationRepositoryImpl repository;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("create table dm_conversations (" +
+                "id varchar(36) primary key, " +
+                "user1_id varchar(36) not null, " +
+                "user2_id varchar(36) not null, " +
+                "created_at timestamp not null, " +
+                "constraint idx_user_pair unique (user1_id, user2_id))");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("truncate dm_conversations");
+        repository = new DmConversationRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void shouldCreateConversationForNewPair() {
+        // When
+        DmConversation conversation = repository.insertOrGetByUserPair("dm-1", "user-a", "user-b");
+
+        // Then
+        assertThat(conversation.getId()).isEqualTo("dm-1");
+        assertThat(conversation.getUser1Id()).isEqualTo("user-a");
+        assertThat(conversation.getUser2Id()).isEqualTo("user-b");
+        assertThat(conversation.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void shouldReturnExistingConversationForKnownPair() {
+        // Given
+        repository.insertOrGetByUserPair("dm-1", "user-a", "user-b");
+
+        // When
+        DmConversation conversation = repository.insertOrGetByUserPair("dm-2", "user-a", "user-b");
+
+        // Then
+        assertThat(conversation.getId()).isEqualTo("dm-1");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from dm_conversations", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAgreeOnOneConversationUnderConcurrentCreates() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_CREATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<DmConversation>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_CREATES; i++) {
+                String id = "dm-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return repository.insertOrGetByUserPair(id, "user-a", "user-b");
+                }));
+            }
+
+            // When
+            start.countDown();
+            Set<String> ids = new HashSet<>();
+            for (Future<DmConversation> future : futures) {
+                ids.add(future.get().getId());
+            }
+
+            // Then
+            assertThat(ids).hasSize(1);
+            assertThat(jdbcTemplate.queryForList("select id from dm_conversations", String.class))
+                    .containsExactlyElementsOf(ids);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
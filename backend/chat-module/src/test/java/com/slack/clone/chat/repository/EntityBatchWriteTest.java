@@ -0,0 +1,212 @@
+package com.slack.clone.chat.repository;
+
+import com.slack.clone.chat.entity.Channel;
+import com.slack.clone.chat.entity.ChannelMember;
+import com.slack.clone.chat.entity.DmConversation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that entity writes reach JDBC as batches, counted at the driver boundary
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=" + EntityBatchWriteTest.BATCH_SIZE,
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+class EntityBatchWriteTest {
+
+    static final int BATCH_SIZE = 50;
+
+    private static final int CHANNEL_COUNT = 10;
+    private static final int MEMBERS_PER_CHANNEL = 12;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ChannelMemberRepository channelMemberRepository;
+
+    @Autowired
+    private DmConversationRepository dmConversationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcCallCounter jdbcCalls;
+
+    @BeforeEach
+    void setUp() {
+        jdbcCalls.reset();
+    }
+
+    @Test
+    void save_BatchesInterleavedChannelAndMemberInserts() {
+        // Given
+        // Channels and members alternate, as when provisioning channel by channel
+        for (int c = 0; c < CHANNEL_COUNT; c++) {
+            Channel channel = channelRepository.save(Channel.builder()
+                    .id("channel-" + c)
+                    .name("channel-" + c)
+                    .createdBy("user-0")
+                    .build());
+            List<ChannelMember> members = new ArrayList<>();
+            for (int m = 0; m < MEMBERS_PER_CHANNEL; m++) {
+                members.add(ChannelMember.builder()
+                        .id("member-" + c + "-" + m)
+                        .channel(channel)
+                        .userId("user-" + m)
+                        .build());
+            }
+            channelMemberRepository.saveAll(members);
+        }
+
+        // When
+        entityManager.flush();
+
+        // Then
+        // One batch for the channels, then 120 members in batches of 50
+        assertThat(jdbcCalls.batches()).isEqualTo(1 + 3);
+        assertThat(jdbcCalls.batchedRows()).isEqualTo(CHANNEL_COUNT + CHANNEL_COUNT * MEMBERS_PER_CHANNEL);
+        assertThat(jdbcCalls.singleUpdates()).isZero();
+        // Assigned IDs must not make save() select before inserting
+        assertThat(jdbcCalls.queries()).isZero();
+    }
+
+    @Test
+    void saveAll_BatchesDmConversationInserts() {
+        // Given
+        List<DmConversation> conversations = new ArrayList<>();
+        for (int i = 0; i < 75; i++) {
+            conversations.add(DmConversation.builder()
+                    .id("dm-" + i)
+                    .user1Id("user-a" + i)
+                    .user2Id("user-b" + i)
+                    .build());
+        }
+        dmConversationRepository.saveAll(conversations);
+
+        // When
+        entityManager.flush();
+
+        // Then
+        assertThat(jdbcCalls.batches()).isEqualTo(2);
+        assertThat(jdbcCalls.batchedRows()).isEqualTo(75);
+        assertThat(jdbcCalls.queries()).isZero();
+    }
+
+    @Test
+    void flush_BatchesUpdatesOfLoadedChannels() {
+        // Given
+        for (int c = 0; c < CHANNEL_COUNT; c++) {
+            entityManager.persist(Channel.builder()
+                    .id("channel-" + c)
+                    .name("channel-" + c)
+                    .createdBy("user-0")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcCalls.reset();
+
+        // When
+        List<Channel> channels = channelRepository.findAll();
+        channels.forEach(channel -> channel.setDescription("renamed"));
+        entityManager.flush();
+
+        // Then
+        assertThat(jdbcCalls.queries()).isEqualTo(1);
+        assertThat(jdbcCalls.batches()).isEqualTo(1);
+        assertThat(jdbcCalls.batchedRows()).isEqualTo(CHANNEL_COUNT);
+        assertThat(jdbcCalls.singleUpdates()).isZero();
+    }
+
+    @TestConfiguration
+    static class JdbcCallCounterConfiguration {
+
+        @Bean
+        static JdbcCallCounter jdbcCallCounter() {
+            return new JdbcCallCounter();
+        }
+    }
+
+    /**
+     * Wraps the data source so every connection and statement it hands out
+     * counts batch executions, batched rows, single updates and queries
+     */
+    static class JdbcCallCounter implements BeanPostProcessor {
+
+        private final AtomicInteger batches = new AtomicInteger();
+        private final AtomicInteger batchedRows = new AtomicInteger();
+        private final AtomicInteger singleUpdates = new AtomicInteger();
+        private final AtomicInteger queries = new AtomicInteger();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource ? counting(bean) : bean;
+        }
+
+        int batches() {
+            return batches.get();
+        }
+
+        int batchedRows() {
+            return batchedRows.get();
+        }
+
+        int singleUpdates() {
+            return singleUpdates.get();
+        }
+
+        int queries() {
+            return queries.get();
+        }
+
+        void reset() {
+            batches.set(0);
+            batchedRows.set(0);
+            singleUpdates.set(0);
+            queries.set(0);
+        }
+
+        private Object counting(Object target) {
+            return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "addBatch" -> batchedRows.incrementAndGet();
+                            case "executeBatch", "executeLargeBatch" -> batches.incrementAndGet();
+                            case "executeUpdate", "executeLargeUpdate" -> singleUpdates.incrementAndGet();
+                            case "executeQuery" -> queries.incrementAndGet();
+                            default -> {
+                            }
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                        return result instanceof Connection || result instanceof Statement ? counting(result) : result;
+                    });
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.slack.clone.chat.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for MessageSearchIndex
+ */
+class MessageSearchIndexTest {
+
+    private static final String GENERAL = MessageSearchIndex.channelScope("general");
+    private static final String RANDOM = MessageSearchIndex.channelScope("random");
+    private static final String DM = MessageSearchIndex.dmScope("dm-1");
+
+    @TempDir
+    Path directory;
+
+    private MessageSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MessageSearchIndex(directory);
+        index.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (index.isRunning()) {
+            index.stop();
+        }
+    }
+
+    @Test
+    void shouldMatchAllQueryTermsOnlyInSearchedScopes() {
+        // Given
+        index.add(GENERAL, "m1", 1000, "Deploy finished for the billing service");
+        index.add(GENERAL, "m2", 2000, "billing dashboard is down");
+        index.add(RANDOM, "m3", 3000, "Billing service deploy on Friday");
+        index.add(DM, "m4", 4000, "deploy the billing service now");
+
+        // When
+        List<SearchHit> hits = index.search(List.of(GENERAL, DM), "billing DEPLOY", 10, null);
+
+        // Then
+        assertThat(hits).extracting(SearchHit::messageId).containsExactlyInAnyOrder("m1", "m4");
+    }
+
+    @Test
+    void shouldRankByRelevanceThenRecency() {
+        // Given
+        index.add(GENERAL, "old", 1000, "outage");
+        index.add(GENERAL, "repeated", 2000, "outage outage outage");
+        index.add(GENERAL, "new", 3000, "outage");
+        index.add(GENERAL, "other", 4000, "lunch plans");
+
+        // When
+        List<SearchHit> hits = index.search(List.of(GENERAL), "outage", 10, null);
+
+        // Then
+        assertThat(hits).extracting(SearchHit::messageId).containsExactly("repeated", "new", "old");
+    }
+
+    @Test
+    void shouldPageThroughHitsWithCursor() {
+        // Given
+        for (int i = 0; i < 25; i++) {
+            index.add(i % 2 == 0 ? GENERAL : DM, "m" + i, 1000 + i, "standup notes " + i);
+        }
+
+        // When
+        List<SearchHit> first = index.search(List.of(GENERAL, DM), "standup", 10, null);
+        List<SearchHit> second = index.search(List.of(GENERAL, DM), "standup", 10,
+                SearchCursor.decode(SearchCursor.of(first.get(9)).encode()));
+        List<SearchHit> third = index.search(List.of(GENERAL, DM), "standup", 10, SearchCursor.of(second.get(9)));
+
+        // Then
+        assertThat(first).extracting(SearchHit::messageId).startsWith("m24", "m23");
+        assertThat(second).hasSize(10);
+        assertThat(third).extracting(SearchHit::messageId).endsWith("m0").hasSize(5);
+        assertThat(first).doesNotContainAnyElementsOf(second);
+        assertThat(second).doesNotContainAnyElementsOf(third);
+    }
+
+    @Test
+    void shouldRestoreIndexFromSnapshotAfterRestart() {
+        // Given
+        index.add(GENERAL, "m1", 1000, "release checklist");
+        index.stop();
+
+        // When
+        MessageSearchIndex restarted = new MessageSearchIndex(directory);
+        restarted.start();
+        restarted.add(GENERAL, "m2", 2000, "release notes");
+
+        // Then
+        assertThat(restarted.search(List.of(GENERAL), "release", 10, null))
+                .extracting(SearchHit::messageId).containsExactly("m2", "m1");
+        restarted.stop();
+    }
+
+    @Test
+    void shouldReplayJournalAfterCrash() {
+        // Given: no stop(), so only the journal holds the messages
+        index.add(GENERAL, "m1", 1000, "incident review");
+        index.add(DM, "m2", 2000, "incident follow up");
+
+        // When
+        MessageSearchIndex recovered = new MessageSearchIndex(directory);
+        recovered.start();
+
+        // Then
+        assertThat(recovered.documentCount()).isEqualTo(2);
+        assertThat(recovered.search(List.of(GENERAL, DM), "incident", 10, null)).hasSize(2);
+        recovered.stop();
+    }
+
+    @Test
+    void shouldJournalConcurrentAddsWithoutTearingRecords() throws Exception {
+        // Given
+        int writers = 8;
+        int perWriter = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    index.add(writer % 2 == 0 ? GENERAL : DM, "m-" + writer + "-" + i, 1000L * i, "deploy window " + i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // When: no stop(), so only the journal holds the messages
+        MessageSearchIndex recovered = new MessageSearchIndex(directory);
+        recovered.start();
+
+        // Then
+        assertThat(recovered.documentCount()).isEqualTo(writers * perWriter);
+        recovered.stop();
+    }
+
+    @Test
+    void shouldSkipRecentMessagesAlreadyIndexedBeforeRestart() {
+        // Given
+        index.add(GENERAL, "m1", 100_000, "handoff notes");
+        index.stop();
+        MessageSearchIndex restarted = new MessageSearchIndex(directory);
+        restarted.start();
+
+        // When: a catch-up read overlaps the indexed message
+        long since = restarted.catchUpSince();
+        restarted.add(GENERAL, "m1", 100_000, "handoff notes");
+        restarted.add(GENERAL, "m2", 130_000, "handoff done");
+
+        // Then
+        assertThat(since).isEqualTo(100_000 - MessageSearchIndex.RECENT_WINDOW_MILLIS);
+        assertThat(restarted.documentCount()).isEqualTo(2);
+        assertThat(restarted.search(List.of(GENERAL), "handoff", 10, null))
+                .extracting(SearchHit::messageId).containsExactly("m2", "m1");
+        restarted.stop();
+    }
+
+    @Test
+    void shouldKeepMessagesSentDuringRebuildWithoutDuplicates() {
+        // Given
+        long now = System.currentTimeMillis();
+        index.add(GENERAL, "stale", now - 60_000_000, "obsolete roadmap");
+        MessageSearchIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(GENERAL, "m1", now - 10_000_000, "roadmap draft");
+        index.add(GENERAL, "live", now, "roadmap final");
+        // The live message was persisted before the rebuild's stream reached it
+        rebuild.add(GENERAL, "live", now, "roadmap final");
+
+        // When
+        long indexed = rebuild.commit();
+
+        // Then
+        assertThat(indexed).isEqualTo(2);
+        assertThat(index.search(List.of(GENERAL), "roadmap", 10, null))
+                .extracting(SearchHit::messageId).containsExactly("live", "m1");
+    }
+
+    @Test
+    void shouldRejectConcurrentRebuilds() {
+        // Given
+        index.startRebuild();
+
+        // When / Then
+        assertThatThrownBy(() -> index.startRebuild()).isInstanceOf(IllegalStateException.class);
+    }
+}
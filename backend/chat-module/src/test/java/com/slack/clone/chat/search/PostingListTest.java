@@ -0,0 +1,83 @@
+package com.slack.clone.chat.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for PostingList
+ */
+class PostingListTest {
+
+    @Test
+    void shouldRoundTripPostingsWithSmallAndLargeGaps() throws Exception {
+        // Given
+        PostingList postings = new PostingList();
+        int[] docs = {0, 1, 2, 130, 20_000, 3_000_000};
+        for (int doc : docs) {
+            postings.add(doc, doc % 7 + 1);
+        }
+
+        // When
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        postings.writeTo(new DataOutputStream(bytes));
+        PostingList restored = PostingList.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Then
+        PostingList.Cursor cursor = restored.cursor();
+        for (int doc : docs) {
+            assertThat(cursor.next()).isTrue();
+            assertThat(cursor.doc()).isEqualTo(doc);
+            assertThat(cursor.termFrequency()).isEqualTo(doc % 7 + 1);
+        }
+        assertThat(cursor.next()).isFalse();
+        assertThat(restored.docCount()).isEqualTo(docs.length);
+    }
+
+    @Test
+    void shouldStoreDenseGapsInTwoBytesPerPosting() {
+        // Given
+        PostingList postings = new PostingList();
+
+        // When
+        for (int doc = 0; doc < 1000; doc++) {
+            postings.add(doc, 1);
+        }
+
+        // Then
+        assertThat(postings.sizeInBytes()).isEqualTo(2000);
+    }
+
+    @Test
+    void shouldAdvanceToFirstPostingAtOrAfterTarget() {
+        // Given
+        PostingList postings = new PostingList();
+        postings.add(3, 1);
+        postings.add(8, 1);
+        postings.add(15, 1);
+        PostingList.Cursor cursor = postings.cursor();
+
+        // When / Then
+        assertThat(cursor.advance(5)).isTrue();
+        assertThat(cursor.doc()).isEqualTo(8);
+        assertThat(cursor.advance(8)).isTrue();
+        assertThat(cursor.doc()).isEqualTo(8);
+        assertThat(cursor.advance(16)).isFalse();
+    }
+
+    @Test
+    void shouldRejectOutOfOrderDocs() {
+        // Given
+        PostingList postings = new PostingList();
+        postings.add(5, 1);
+
+        // When / Then
+        assertThatThrownBy(() -> postings.add(5, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.cache.ChatEntityCache;
+import com.slack.clone.chat.cache.DmParticipants;
+import com.slack.clone.chat.cache.MembershipCache;
+import com.slack.clone.chat.dto.CreateDmRequest;
+import com.slack.clone.chat.dto.DmConversationDTO;
+import com.slack.clone.chat.entity.DmConversation;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.metrics.ChatMetrics;
+import com.slack.clone.chat.repository.DmConversationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DmService
+ */
+@ExtendWith(MockitoExtension.class)
+class DmServiceTest {
+
+    @Mock
+    private DmConversationRepository dmConversationRepository;
+
+    @Mock
+    private MembershipCache membershipCache;
+
+    @Mock
+    private ChatEntityCache entityCache;
+
+    private DmService dmService;
+
+    @BeforeEach
+    void setUp() {
+        dmService = new DmService(dmConversationRepository, Mappers.getMapper(ChatMapper.class),
+                membershipCache, entityCache, new ChatMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void shouldUpsertCanonicalPairAndCacheIt() {
+        // Given
+        when(entityCache.getDmConversationId("user-a", "user-b")).thenReturn(Optional.empty());
+        when(dmConversationRepository.insertOrGetByUserPair(anyString(), eq("user-a"), eq("user-b")))
+                .thenReturn(DmConversation.builder().id("dm-1").user1Id("user-a").user2Id("user-b").build());
+
+        // When
+        DmConversationDTO conversation = dmService.createOrGetDmConversation(request("user-a"), "user-b");
+
+        // Then
+        assertThat(conversation.getId()).isEqualTo("dm-1");
+        verify(entityCache).putDmConversationId("user-a", "user-b", "dm-1");
+        verify(entityCache).putDmConversation(conversation);
+        verify(membershipCache).putDmParticipants("dm-1", new DmParticipants("user-a", "user-b"));
+    }
+
+    @Test
+    void shouldServeKnownPairWithoutTouchingPostgres() {
+        // Given
+        DmConversationDTO cached = DmConversationDTO.builder().id("dm-1").build();
+        when(entityCache.getDmConversationId("user-a", "user-b")).thenReturn(Optional.of("dm-1"));
+        when(entityCache.getDmConversation("dm-1")).thenReturn(Optional.of(cached));
+
+        // When
+        DmConversationDTO conversation = dmService.createOrGetDmConversation(request("user-b"), "user-a");
+
+        // Then
+        assertThat(conversation).isSameAs(cached);
+        verifyNoInteractions(dmConversationRepository);
+        verify(entityCache, never()).putDmConversationId(any(), any(), any());
+    }
+
+    private static CreateDmRequest request(String peerUserId) {
+        CreateDmRequest request = new CreateDmRequest();
+        request.setPeerUserId(peerUserId);
+        return request;
+    }
+}
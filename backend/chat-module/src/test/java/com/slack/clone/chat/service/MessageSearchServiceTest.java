@@ -0,0 +1,229 @@
+package com.slack.clone.chat.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.document.DmMessage;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSearchHitDTO;
+import com.slack.clone.chat.dto.MessageSearchResultDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ChannelMemberRepository;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmConversationRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import com.slack.clone.chat.search.MessageSearchIndex;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for MessageSearchService against an embedded MongoDB
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageSearchServiceTest {
+
+    private static final String USER_ID = "user-123";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private DmService dmService;
+
+    @Mock
+    private ChannelMemberRepository channelMemberRepository;
+
+    @Mock
+    private DmConversationRepository dmConversationRepository;
+
+    private MongoTemplate mongoTemplate;
+    private MessageSearchIndex searchIndex;
+    private MessageSearchService searchService;
+    private ChatMapper chatMapper;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        mongoClient = MongoClients.create("mongodb://" + mongod.current().getServerAddress());
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        mongoClient.close();
+        mongod.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = new MongoTemplate(mongoClient, "search_test");
+        mongoTemplate.getDb().drop();
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        chatMapper = Mappers.getMapper(ChatMapper.class);
+
+        searchIndex = new MessageSearchIndex(directory);
+        searchIndex.start();
+        searchService = new MessageSearchService(searchIndex, channelService, dmService,
+                channelMemberRepository, dmConversationRepository,
+                repositoryFactory.getRepository(ChannelMessageRepository.class),
+                repositoryFactory.getRepository(DmMessageRepository.class),
+                chatMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchIndex.stop();
+    }
+
+    @Test
+    void shouldRebuildFromMongoAndSearchOnlyUsersConversations() {
+        // Given
+        mongoTemplate.insert(channelMessage("c1", "general", "Quarterly planning kickoff", 1));
+        mongoTemplate.insert(channelMessage("c2", "private", "Quarterly planning budget", 2));
+        mongoTemplate.insert(dmMessage("d1", "dm-1", "notes from quarterly planning", 3));
+        mongoTemplate.insert(channelMessage("c3", "general", "lunch?", 4));
+        when(channelMemberRepository.findChannelIdsByUserId(USER_ID)).thenReturn(List.of("general"));
+        when(dmConversationRepository.findIdsByUserId(USER_ID)).thenReturn(List.of("dm-1"));
+
+        // When
+        long indexed = searchService.rebuildIndex();
+        MessageSearchResultDTO results = searchService.search(USER_ID, "quarterly planning", null, null, null, 10);
+
+        // Then
+        assertThat(indexed).isEqualTo(4);
+        assertThat(results.getHits()).extracting(hit -> hit.getMessage().getId()).containsExactlyInAnyOrder("c1", "d1");
+        assertThat(results.getHits()).filteredOn(hit -> hit.getMessage().getId().equals("d1"))
+                .extracting(MessageSearchHitDTO::getConversationId).containsExactly("dm-1");
+        assertThat(results.isHasMore()).isFalse();
+    }
+
+    @Test
+    void shouldIndexSentMessagesAndPageWithCursor() {
+        // Given
+        when(channelService.isMember("general", USER_ID)).thenReturn(true);
+        for (int i = 0; i < 5; i++) {
+            ChannelMessage message = channelMessage("c" + i, "general", "retro action items " + i, i);
+            mongoTemplate.insert(message);
+            searchService.onMessageSent(MessageSentEvent.channel("general", chatMapper.toDTO(message)));
+        }
+
+        // When
+        MessageSearchResultDTO first = searchService.search(USER_ID, "retro", "general", null, null, 3);
+        MessageSearchResultDTO second = searchService.search(USER_ID, "retro", "general", null, first.getNextCursor(), 3);
+
+        // Then
+        assertThat(first.getHits()).extracting(hit -> hit.getMessage().getId()).containsExactly("c4", "c3", "c2");
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getHits()).extracting(hit -> hit.getMessage().getId()).containsExactly("c1", "c0");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldIndexMessagesInsertedThroughOtherNodes() {
+        // Given
+        when(channelService.isMember("general", USER_ID)).thenReturn(true);
+        ChannelMessage message = channelMessage("c1", "general", "standup moved to ten", 1);
+        mongoTemplate.insert(message);
+
+        // When
+        searchService.onInsert(ConversationType.CHANNEL, "general", chatMapper.toDTO(message));
+        MessageSearchResultDTO results = searchService.search(USER_ID, "standup", "general", null, null, 10);
+
+        // Then
+        assertThat(results.getHits()).extracting(hit -> hit.getMessage().getId()).containsExactly("c1");
+    }
+
+    @Test
+    void shouldCatchUpWithMessagesStoredWhileDownWithoutDuplicates() {
+        // Given
+        when(channelService.isMember("general", USER_ID)).thenReturn(true);
+        ChannelMessage indexed = channelMessage("c1", "general", "migration plan", 1);
+        mongoTemplate.insert(indexed);
+        searchService.onInsert(ConversationType.CHANNEL, "general", chatMapper.toDTO(indexed));
+        mongoTemplate.insert(channelMessage("c2", "general", "migration done", 5));
+
+        // When
+        searchService.catchUpIndex();
+        MessageSearchResultDTO results = searchService.search(USER_ID, "migration", "general", null, null, 10);
+
+        // Then
+        assertThat(searchIndex.documentCount()).isEqualTo(2);
+        assertThat(results.getHits()).extracting(hit -> hit.getMessage().getId()).containsExactly("c2", "c1");
+    }
+
+    @Test
+    void shouldRejectSearchInChannelUserIsNotMemberOf() {
+        // Given
+        when(channelService.isMember("private", USER_ID)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> searchService.search(USER_ID, "budget", "private", null, null, 10))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void shouldSkipHitsWhoseMessageIsNotStored() {
+        // Given
+        when(dmService.isParticipant("dm-1", USER_ID)).thenReturn(true);
+        MessageDTO unpersisted = MessageDTO.builder()
+                .id("d9").senderId("user-456").content("pending upload").createdAt(START).build();
+        searchService.onMessageSent(MessageSentEvent.dm("dm-1", List.of(USER_ID, "user-456"), unpersisted));
+
+        // When
+        MessageSearchResultDTO results = searchService.search(USER_ID, "upload", null, "dm-1", null, 10);
+
+        // Then
+        assertThat(results.getHits()).isEmpty();
+    }
+
+    private static ChannelMessage channelMessage(String id, String channelId, String content, int minute) {
+        return ChannelMessage.builder()
+                .id(id)
+                .channelId(channelId)
+                .senderId("user-456")
+                .content(content)
+                .createdAt(START.plusMinutes(minute))
+                .build();
+    }
+
+    private static DmMessage dmMessage(String id, String conversationId, String content, int minute) {
+        return DmMessage.builder()
+                .id(id)
+                .conversationId(conversationId)
+                .senderId("user-456")
+                .content(content)
+                .createdAt(START.plusMinutes(minute))
+                .build();
+    }
+}
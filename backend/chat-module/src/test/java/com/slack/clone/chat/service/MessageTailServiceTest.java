@@ -0,0 +1,220 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.delivery.MessageChangeStream;
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.event.MessageSentEvent.ConversationType;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ReactiveChannelMessageRepository;
+import com.slack.clone.chat.repository.ReactiveDmMessageRepository;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MessageTailService
+ */
+@ExtendWith(MockitoExtension.class)
+class MessageTailServiceTest {
+
+    private static final LocalDateTime LAST_SEEN_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final Duration RESUME_WINDOW = Duration.ofMinutes(1);
+
+    @Mock
+    private ReactiveChannelMessageRepository channelMessageRepository;
+
+    @Mock
+    private ReactiveDmMessageRepository dmMessageRepository;
+
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private DmService dmService;
+
+    @Mock
+    private ChatMapper chatMapper;
+
+    private MessageChangeStream changeStream;
+    private MessageTailService messageTailService;
+
+    @BeforeEach
+    void setUp() {
+        changeStream = new MessageChangeStream(mock(ReactiveMongoTemplate.class), chatMapper, List.of(), false, 16);
+        messageTailService = new MessageTailService(changeStream, channelMessageRepository, dmMessageRepository,
+                channelService, dmService, chatMapper);
+        ReflectionTestUtils.setField(messageTailService, "resumeWindow", RESUME_WINDOW);
+    }
+
+    @Test
+    void tailChannel_WithoutLastEventId_StreamsLiveMessages() {
+        // Given
+        when(channelService.isMember("channel-1", "user-1")).thenReturn(true);
+
+        // When / Then
+        StepVerifier.create(messageTailService.tailChannel("channel-1", "user-1", null).take(1))
+                .then(() -> changeStream.publish(ConversationType.CHANNEL, "channel-1", dto("msg-1")))
+                .expectNext(dto("msg-1"))
+                .verifyComplete();
+        assertThat(changeStream.activeConversations()).isZero();
+        verifyNoInteractions(channelMessageRepository);
+    }
+
+    @Test
+    void tailChannel_WithLastEventId_ReplaysMissedThenDropsDuplicateLiveMessages() {
+        // Given
+        when(channelService.isMember("channel-1", "user-1")).thenReturn(true);
+        when(chatMapper.toDTO(any(ChannelMessage.class))).thenAnswer(invocation -> dto(invocation.<ChannelMessage>getArgument(0).getId()));
+        givenNoLateMessages("msg-1");
+        // msg-2 is inserted after the tail registered but before the backlog query ran
+        when(channelMessageRepository.findAfter(eq("channel-1"), eq(LAST_SEEN_AT), eq("msg-1"), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    changeStream.publish(ConversationType.CHANNEL, "channel-1", dto("msg-2"));
+                    return Flux.just(document("msg-2"));
+                });
+        String lastEventId = new MessageCursor(LAST_SEEN_AT, "msg-1").encode();
+
+        // When / Then
+        StepVerifier.create(messageTailService.tailChannel("channel-1", "user-1", lastEventId).take(2))
+                .expectNext(dto("msg-2"))
+                .then(() -> changeStream.publish(ConversationType.CHANNEL, "channel-1", dto("msg-3")))
+                .expectNext(dto("msg-3"))
+                .verifyComplete();
+    }
+
+    @Test
+    void tailChannel_FullBacklog_EndsSoClientResumesFromLastMessage() {
+        // Given
+        when(channelService.isMember("channel-1", "user-1")).thenReturn(true);
+        when(chatMapper.toDTO(any(ChannelMessage.class))).thenAnswer(invocation -> dto(invocation.<ChannelMessage>getArgument(0).getId()));
+        givenNoLateMessages("msg-0");
+        when(channelMessageRepository.findAfter(eq("channel-1"), eq(LAST_SEEN_AT), eq("msg-0"), any(Pageable.class)))
+                .thenReturn(Flux.fromStream(IntStream.range(0, MessageTailService.MAX_BACKLOG)
+                        .mapToObj(i -> document("backlog-" + i))));
+        String lastEventId = new MessageCursor(LAST_SEEN_AT, "msg-0").encode();
+
+        // When / Then
+        StepVerifier.create(messageTailService.tailChannel("channel-1", "user-1", lastEventId))
+                .expectNextCount(MessageTailService.MAX_BACKLOG)
+                .verifyComplete();
+        assertThat(changeStream.activeConversations()).isZero();
+    }
+
+    @Test
+    void tailChannel_WithLastEventId_ReplaysMessagesStoredLateBehindTheCursor() {
+        // Given
+        when(channelService.isMember("channel-1", "user-1")).thenReturn(true);
+        when(chatMapper.toDTO(any(ChannelMessage.class))).thenAnswer(invocation -> dto(invocation.<ChannelMessage>getArgument(0).getId()));
+        // late was sent before msg-1 but only stored after the client disconnected
+        when(channelMessageRepository.findBetween(eq("channel-1"), eq(LAST_SEEN_AT.minus(RESUME_WINDOW)),
+                eq(LAST_SEEN_AT), eq("msg-1"), any(Pageable.class)))
+                .thenReturn(Flux.just(document("late")));
+        when(channelMessageRepository.findAfter(eq("channel-1"), eq(LAST_SEEN_AT), eq("msg-1"), any(Pageable.class)))
+                .thenReturn(Flux.just(document("msg-2")));
+        String lastEventId = new MessageCursor(LAST_SEEN_AT, "msg-1").encode();
+
+        // When / Then
+        StepVerifier.create(messageTailService.tailChannel("channel-1", "user-1", lastEventId).take(3))
+                .expectNext(dto("late"), dto("msg-2"))
+                .then(() -> {
+                    // The change stream delivers the late insert too; it is not sent twice
+                    changeStream.publish(ConversationType.CHANNEL, "channel-1", dto("late"));
+                    changeStream.publish(ConversationType.CHANNEL, "channel-1", dto("msg-3"));
+                })
+                .expectNext(dto("msg-3"))
+                .verifyComplete();
+    }
+
+    @Test
+    void tailChannel_FullResumeWindow_KeepsMessagesClosestToTheCursor() {
+        // Given: more messages in the window than one page holds; Mongo honours sort and limit
+        int windowSize = MessageTailService.MAX_BACKLOG + 100;
+        List<ChannelMessage> window = IntStream.range(0, windowSize)
+                .mapToObj(i -> document(String.format("late-%03d", i), LAST_SEEN_AT.minusNanos((windowSize - i) * 1_000_000L)))
+                .toList();
+        when(channelService.isMember("channel-1", "user-1")).thenReturn(true);
+        when(chatMapper.toDTO(any(ChannelMessage.class))).thenAnswer(invocation -> dto(invocation.<ChannelMessage>getArgument(0).getId()));
+        when(channelMessageRepository.findBetween(eq("channel-1"), eq(LAST_SEEN_AT.minus(RESUME_WINDOW)),
+                eq(LAST_SEEN_AT), eq("msg-1"), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Pageable page = invocation.getArgument(4);
+                    List<ChannelMessage> sorted = new ArrayList<>(window);
+                    if (page.getSort().getOrderFor("createdAt").isDescending()) {
+                        Collections.reverse(sorted);
+                    }
+                    return Flux.fromIterable(sorted.subList(0, page.getPageSize()));
+                });
+        when(channelMessageRepository.findAfter(eq("channel-1"), eq(LAST_SEEN_AT), eq("msg-1"), any(Pageable.class)))
+                .thenReturn(Flux.just(document("msg-2")));
+        String lastEventId = new MessageCursor(LAST_SEEN_AT, "msg-1").encode();
+
+        // When
+        List<MessageDTO> replayed = messageTailService.tailChannel("channel-1", "user-1", lastEventId)
+                .take(MessageTailService.MAX_BACKLOG + 1)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then: oldest first, ending with the message right behind the cursor, then the backlog
+        assertThat(replayed).hasSize(MessageTailService.MAX_BACKLOG + 1);
+        assertThat(replayed.get(0).getId()).isEqualTo("late-100");
+        assertThat(replayed.get(MessageTailService.MAX_BACKLOG - 1).getId()).isEqualTo("late-599");
+        assertThat(replayed.get(MessageTailService.MAX_BACKLOG).getId()).isEqualTo("msg-2");
+    }
+
+    @Test
+    void tailChannel_NotMember_ThrowsBeforeRegistering() {
+        // Given
+        when(channelService.isMember("channel-1", "user-1")).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> messageTailService.tailChannel("channel-1", "user-1", null))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(changeStream.activeConversations()).isZero();
+    }
+
+    private void givenNoLateMessages(String lastSeenId) {
+        when(channelMessageRepository.findBetween(eq("channel-1"), any(LocalDateTime.class),
+                eq(LAST_SEEN_AT), eq(lastSeenId), any(Pageable.class)))
+                .thenReturn(Flux.empty());
+    }
+
+    private ChannelMessage document(String id) {
+        return document(id, LAST_SEEN_AT.plusSeconds(1));
+    }
+
+    private ChannelMessage document(String id, LocalDateTime createdAt) {
+        return ChannelMessage.builder()
+                .id(id)
+                .channelId("channel-1")
+                .senderId("user-2")
+                .content(id)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private MessageDTO dto(String id) {
+        return MessageDTO.builder().id(id).senderId("user-2").content(id).build();
+    }
+}
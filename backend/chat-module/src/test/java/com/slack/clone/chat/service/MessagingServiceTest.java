@@ -1,29 +1,45 @@
 package com.slack.clone.chat.service;
 
+import com.slack.clone.chat.cache.HistoryPageCache;
+import com.slack.clone.chat.cache.RecentMessages;
+import com.slack.clone.chat.cache.RecentMessagesCache;
 import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.dto.MessageCursor;
 import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.MessageSliceDTO;
 import com.slack.clone.chat.dto.SendMessageRequest;
+import com.slack.clone.chat.event.MessageSentEvent;
+import com.slack.clone.chat.ingest.MessageIngest;
 import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.metrics.ChatMetrics;
 import com.slack.clone.chat.repository.ChannelMessageRepository;
 import com.slack.clone.shared.exception.UnauthorizedException;
+import com.slack.clone.shared.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -41,6 +57,23 @@ class MessagingServiceTest {
     @Mock
     private ChatMapper chatMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MessageIngest messageIngest;
+
+    @Mock
+    private RecentMessagesCache recentMessagesCache;
+
+    @Mock
+    private HistoryPageCache historyPageCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ChatMetrics chatMetrics = new ChatMetrics(meterRegistry);
+
     @InjectMocks
     private MessagingService messagingService;
 
@@ -80,7 +113,7 @@ class MessagingServiceTest {
     void shouldSendChannelMessage() {
         // Given
         when(channelService.isMember(channelId, senderId)).thenReturn(true);
-        when(channelMessageRepository.save(any(ChannelMessage.class))).thenReturn(message);
+        when(messageIngest.ingest(any(ChannelMessage.class))).thenReturn(message);
         when(chatMapper.toDTO(message)).thenReturn(messageDTO);
 
         // When
@@ -92,7 +125,26 @@ class MessagingServiceTest {
         assertThat(result.getSenderId()).isEqualTo(senderId);
 
         verify(channelService).isMember(channelId, senderId);
-        verify(channelMessageRepository).save(any(ChannelMessage.class));
+        verify(messageIngest).ingest(any(ChannelMessage.class));
+    }
+
+    @Test
+    void shouldTimeSendsAndCountOnlyAcceptedMessages() {
+        // Given
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(channelService.isMember(channelId, "outsider")).thenReturn(false);
+        when(messageIngest.ingest(any(ChannelMessage.class))).thenReturn(message);
+        when(chatMapper.toDTO(message)).thenReturn(messageDTO);
+
+        // When
+        messagingService.sendChannelMessage(channelId, sendRequest, senderId);
+        assertThatThrownBy(() -> messagingService.sendChannelMessage(channelId, sendRequest, "outsider"))
+                .isInstanceOf(UnauthorizedException.class);
+
+        // Then
+        assertThat(meterRegistry.get("chat.messages.send").tag("type", "channel").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("chat.messages.sent").tag("type", "channel").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("chat.messages.sent").tag("type", "dm").counter().count()).isZero();
     }
 
     @Test
@@ -107,7 +159,7 @@ class MessagingServiceTest {
                 .hasMessageContaining("not a member");
 
         verify(channelService).isMember(channelId, senderId);
-        verify(channelMessageRepository, never()).save(any(ChannelMessage.class));
+        verify(messageIngest, never()).ingest(any(ChannelMessage.class));
     }
 
     @Test
@@ -150,4 +202,209 @@ class MessagingServiceTest {
         verify(channelService).isMember(channelId, senderId);
         verify(channelMessageRepository, never()).findByChannelIdOrderByCreatedAtDesc(any(), any());
     }
+
+    @Test
+    void shouldPublishEventAfterChannelMessagePersisted() {
+        // Given
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(messageIngest.ingest(any(ChannelMessage.class))).thenReturn(message);
+        when(chatMapper.toDTO(message)).thenReturn(messageDTO);
+
+        // When
+        messagingService.sendChannelMessage(channelId, sendRequest, senderId);
+
+        // Then
+        verify(eventPublisher).publishEvent(MessageSentEvent.channel(channelId, messageDTO));
+    }
+
+    @Test
+    void shouldAppendSentMessageToRecentMessages() {
+        // Given
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(messageIngest.ingest(any(ChannelMessage.class))).thenReturn(message);
+        when(chatMapper.toDTO(message)).thenReturn(messageDTO);
+
+        // When
+        messagingService.sendChannelMessage(channelId, sendRequest, senderId);
+
+        // Then
+        verify(recentMessagesCache).append(channelId, messageDTO);
+    }
+
+    @Test
+    void shouldServeFirstHistoryPageFromRecentMessages() {
+        // Given
+        messageDTO.setCreatedAt(message.getCreatedAt());
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(recentMessagesCache.capacity()).thenReturn(50);
+        when(recentMessagesCache.getOrLoad(eq(channelId), any(), eq(true)))
+                .thenReturn(new RecentMessages(List.of(messageDTO), false));
+
+        // When
+        MessageSliceDTO result = messagingService.getChannelHistory(channelId, senderId, null, null, 20);
+
+        // Then
+        assertThat(result.getMessages()).containsExactly(messageDTO);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        verifyNoInteractions(channelMessageRepository);
+    }
+
+    @Test
+    void shouldNotCacheRecentMessagesWhileIngestHasBacklog() {
+        // Given
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(recentMessagesCache.capacity()).thenReturn(50);
+        when(messageIngest.hasBacklog(channelId)).thenReturn(true);
+        when(recentMessagesCache.getOrLoad(eq(channelId), any(), eq(false)))
+                .thenReturn(new RecentMessages(List.of(messageDTO), false));
+
+        // When
+        MessageSliceDTO result = messagingService.getChannelHistory(channelId, senderId, null, null, 20);
+
+        // Then
+        assertThat(result.getMessages()).containsExactly(messageDTO);
+        verify(recentMessagesCache, never()).getOrLoad(eq(channelId), any(), eq(true));
+    }
+
+    @Test
+    void shouldServeFirstMessagesPageFromRecentMessagesWithoutCountingShortHistory() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(recentMessagesCache.capacity()).thenReturn(50);
+        when(recentMessagesCache.getOrLoad(eq(channelId), any(), eq(true)))
+                .thenReturn(new RecentMessages(List.of(messageDTO), false));
+
+        // When
+        Page<MessageDTO> result = messagingService.getChannelMessages(channelId, senderId, pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(messageDTO);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        verifyNoInteractions(channelMessageRepository);
+    }
+
+    @Test
+    void shouldServeFullFirstMessagesPageWithCachedTotalWithoutCounting() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 1);
+        MessageDTO older = MessageDTO.builder().id("msg-122").build();
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(recentMessagesCache.capacity()).thenReturn(50);
+        when(recentMessagesCache.getOrLoad(eq(channelId), any(), eq(true)))
+                .thenReturn(new RecentMessages(List.of(messageDTO, older), true, 120));
+
+        // When
+        Page<MessageDTO> result = messagingService.getChannelMessages(channelId, senderId, pageable);
+
+        // Then
+        assertThat(result.getContent()).containsExactly(messageDTO);
+        assertThat(result.getTotalElements()).isEqualTo(120);
+        verify(channelMessageRepository, never()).countByChannelId(any());
+        verify(recentMessagesCache, never()).countTotal(any(), any());
+    }
+
+    @Test
+    void shouldGetChannelHistoryBeforeCursorWithoutCounting() {
+        // Given
+        MessageCursor cursor = new MessageCursor(LocalDateTime.of(2024, 1, 1, 12, 0), "msg-200");
+        messageDTO.setCreatedAt(message.getCreatedAt());
+
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(channelMessageRepository.findSliceBefore(
+                eq(channelId), eq(cursor.createdAt()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(message), PageRequest.of(0, 1), true));
+        when(chatMapper.toDTO(message)).thenReturn(messageDTO);
+
+        // When
+        MessageSliceDTO result = messagingService.getChannelHistory(channelId, senderId, cursor.encode(), null, 1);
+
+        // Then
+        assertThat(result.getMessages()).containsExactly(messageDTO);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(MessageCursor.decode(result.getNextCursor()))
+                .isEqualTo(new MessageCursor(message.getCreatedAt(), "msg-123"));
+
+        verify(channelMessageRepository, never()).count();
+        verify(channelMessageRepository, never()).findByChannelIdOrderByCreatedAtDesc(any(), any());
+    }
+
+    @Test
+    void shouldServeSettledHistoryPageFromEncodedCache() {
+        // Given
+        ReflectionTestUtils.setField(messagingService, "historySettleTime", Duration.ofMinutes(5));
+        String cursor = new MessageCursor(LocalDateTime.now().minusHours(1), "msg-200").encode();
+        byte[] encoded = "{}".getBytes();
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(historyPageCache.getOrLoad(eq(channelId), eq(cursor), eq(20), any())).thenReturn(encoded);
+
+        // When
+        byte[] result = messagingService.getChannelHistoryJson(channelId, senderId, cursor, null, 20);
+
+        // Then
+        assertThat(result).isSameAs(encoded);
+        verifyNoInteractions(channelMessageRepository);
+    }
+
+    @Test
+    void shouldNotCacheOldHistoryPageWhileIngestHasBacklog() {
+        // Given
+        ReflectionTestUtils.setField(messagingService, "historySettleTime", Duration.ofMinutes(5));
+        MessageCursor cursor = new MessageCursor(LocalDateTime.now().minusHours(1), "msg-200");
+        messageDTO.setCreatedAt(message.getCreatedAt());
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(messageIngest.hasBacklog(channelId)).thenReturn(true);
+        when(channelMessageRepository.findSliceBefore(
+                eq(channelId), eq(cursor.createdAt()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(message), PageRequest.of(0, 20), false));
+        when(chatMapper.toDTO(message)).thenReturn(messageDTO);
+        when(historyPageCache.encode(any(MessageSliceDTO.class))).thenReturn("{}".getBytes());
+
+        // When
+        messagingService.getChannelHistoryJson(channelId, senderId, cursor.encode(), null, 20);
+
+        // Then
+        // A message replayed late from the WAL may still belong on this page
+        verify(historyPageCache, never()).getOrLoad(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldEncodeRecentHistoryPageWithoutCaching() {
+        // Given
+        ReflectionTestUtils.setField(messagingService, "historySettleTime", Duration.ofMinutes(5));
+        MessageCursor cursor = new MessageCursor(LocalDateTime.now(), "msg-200");
+        messageDTO.setCreatedAt(message.getCreatedAt());
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+        when(channelMessageRepository.findSliceBefore(
+                eq(channelId), eq(cursor.createdAt()), eq(cursor.id()), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(message), PageRequest.of(0, 20), false));
+        when(chatMapper.toDTO(message)).thenReturn(messageDTO);
+        when(historyPageCache.encode(any(MessageSliceDTO.class))).thenReturn("{}".getBytes());
+
+        // When
+        messagingService.getChannelHistoryJson(channelId, senderId, cursor.encode(), null, 20);
+
+        // Then
+        verify(historyPageCache).encode(any(MessageSliceDTO.class));
+        verify(historyPageCache, never()).getOrLoad(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void shouldRejectBothBeforeAndAfterCursors() {
+        // Given
+        String cursor = new MessageCursor(LocalDateTime.now(), "msg-1").encode();
+        when(channelService.isMember(channelId, senderId)).thenReturn(true);
+
+        // When & Then
+        assertThatThrownBy(() -> messagingService.getChannelHistory(channelId, senderId, cursor, cursor, 20))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> MessageCursor.decode("not-a-cursor"))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
 }
@@ -0,0 +1,153 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.SendMessageRequest;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ReactiveChannelMessageRepository;
+import com.slack.clone.chat.repository.ReactiveDmMessageRepository;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import com.slack.clone.shared.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReactiveMessagingService
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveMessagingServiceTest {
+
+    @Mock
+    private ReactiveChannelMessageRepository channelMessageRepository;
+
+    @Mock
+    private ReactiveDmMessageRepository dmMessageRepository;
+
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private DmService dmService;
+
+    @Mock
+    private MessagingService messagingService;
+
+    @Mock
+    private ChatMapper chatMapper;
+
+    @InjectMocks
+    private ReactiveMessagingService reactiveMessagingService;
+
+    @Test
+    void streamChannelHistory_WithoutCursor_StreamsNewestFirst() {
+        // Given
+        ChannelMessage newer = message("msg-2");
+        ChannelMessage older = message("msg-1");
+        when(channelService.isMember("channel-123", "user-123")).thenReturn(true);
+        when(channelMessageRepository.findByChannelId(eq("channel-123"), any(Pageable.class)))
+                .thenReturn(Flux.just(newer, older));
+        when(chatMapper.toDTO(any(ChannelMessage.class)))
+                .thenAnswer(invocation -> toDTO(invocation.getArgument(0)));
+
+        // When / Then
+        StepVerifier.create(reactiveMessagingService.streamChannelHistory("channel-123", "user-123", null, null, 500))
+                .assertNext(dto -> assertThat(dto.getId()).isEqualTo("msg-2"))
+                .assertNext(dto -> assertThat(dto.getId()).isEqualTo("msg-1"))
+                .verifyComplete();
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(channelMessageRepository).findByChannelId(eq("channel-123"), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(500);
+        assertThat(pageable.getValue().getSort().getOrderFor("createdAt").getDirection())
+                .isEqualTo(Sort.Direction.DESC);
+    }
+
+    @Test
+    void streamChannelHistory_WithBeforeCursor_QueriesOlderMessages() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        String cursor = new MessageCursor(createdAt, "msg-5").encode();
+        when(channelService.isMember("channel-123", "user-123")).thenReturn(true);
+        when(channelMessageRepository.findBefore(eq("channel-123"), eq(createdAt), eq("msg-5"), any(Pageable.class)))
+                .thenReturn(Flux.empty());
+
+        // When / Then
+        StepVerifier.create(reactiveMessagingService.streamChannelHistory("channel-123", "user-123", cursor, null, 100))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamChannelHistory_NotMember_ThrowsBeforeStreaming() {
+        // Given
+        when(channelService.isMember("channel-123", "user-123")).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> reactiveMessagingService.streamChannelHistory("channel-123", "user-123", null, null, 100))
+                .isInstanceOf(UnauthorizedException.class);
+        verifyNoInteractions(channelMessageRepository);
+    }
+
+    @Test
+    void streamChannelHistory_LimitTooLarge_ThrowsValidationException() {
+        // Given
+        when(channelService.isMember("channel-123", "user-123")).thenReturn(true);
+
+        // When / Then
+        assertThatThrownBy(() -> reactiveMessagingService.streamChannelHistory("channel-123", "user-123", null, null, 10_001))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void sendChannelMessage_DelegatesToMessagingServiceOnSubscribe() {
+        // Given
+        SendMessageRequest request = new SendMessageRequest();
+        request.setContent("Hello");
+        MessageDTO sent = toDTO(message("msg-1"));
+        when(messagingService.sendChannelMessage("channel-123", request, "user-123")).thenReturn(sent);
+
+        // When
+        var result = reactiveMessagingService.sendChannelMessage("channel-123", request, "user-123");
+
+        // Then
+        verifyNoInteractions(messagingService);
+        StepVerifier.create(result)
+                .expectNext(sent)
+                .verifyComplete();
+    }
+
+    private ChannelMessage message(String id) {
+        return ChannelMessage.builder()
+                .id(id)
+                .channelId("channel-123")
+                .senderId("user-123")
+                .content("content " + id)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private MessageDTO toDTO(ChannelMessage message) {
+        return MessageDTO.builder()
+                .id(message.getId())
+                .senderId(message.getSenderId())
+                .content(message.getContent())
+                .createdAt(message.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.dto.ChannelDTO;
+import com.slack.clone.chat.dto.DmConversationDTO;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.SidebarDTO;
+import com.slack.clone.chat.dto.UnreadSummaryDTO;
+import com.slack.clone.chat.mapper.ChatMapper;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import com.slack.clone.shared.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SidebarService
+ */
+@ExtendWith(MockitoExtension.class)
+class SidebarServiceTest {
+
+    private static final String USER_ID = "user-123";
+
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private DmService dmService;
+
+    @Mock
+    private UnreadService unreadService;
+
+    @Mock
+    private ChannelMessageRepository channelMessageRepository;
+
+    @Mock
+    private DmMessageRepository dmMessageRepository;
+
+    @Mock
+    private ChatMapper chatMapper;
+
+    private SidebarService sidebarService;
+
+    @BeforeEach
+    void setUp() {
+        sidebarService = new SidebarService(channelService, dmService, unreadService,
+                channelMessageRepository, dmMessageRepository, chatMapper, Runnable::run);
+    }
+
+    @Test
+    void shouldAssembleSidebarWithLatestMessagePerChannel() {
+        // Given
+        ChannelDTO channel = ChannelDTO.builder().id("channel-1").name("general").build();
+        ChannelMessage latest = ChannelMessage.builder().id("msg-9").channelId("channel-1").content("hi").build();
+        MessageDTO latestDTO = MessageDTO.builder().id("msg-9").content("hi").build();
+        UnreadSummaryDTO unread = UnreadSummaryDTO.builder().channels(Map.of()).dms(Map.of()).build();
+        when(channelService.getChannelsForUser(USER_ID)).thenReturn(List.of(channel));
+        when(dmService.getDmConversationsForUser(USER_ID)).thenReturn(List.of());
+        when(channelMessageRepository.findLatestByChannelIdIn(List.of("channel-1"))).thenReturn(List.of(latest));
+        when(chatMapper.toDTO(latest)).thenReturn(latestDTO);
+        when(unreadService.getUnreadCounts(USER_ID, List.of("channel-1"), List.of())).thenReturn(unread);
+
+        // When
+        SidebarDTO sidebar = sidebarService.getSidebar(USER_ID);
+
+        // Then
+        assertThat(sidebar.getChannels()).containsExactly(channel);
+        assertThat(sidebar.getLatestChannelMessages()).containsEntry("channel-1", latestDTO);
+        assertThat(sidebar.getLatestDmMessages()).isEmpty();
+        assertThat(sidebar.getUnread()).isSameAs(unread);
+        // No conversations, so no DM aggregation
+        verify(dmMessageRepository, never()).findLatestByConversationIdIn(any());
+    }
+
+    @Test
+    void shouldPropagateOriginalExceptionFromParallelRead() {
+        // Given
+        when(channelService.getChannelsForUser(USER_ID)).thenThrow(new ResourceNotFoundException("User", USER_ID));
+        when(dmService.getDmConversationsForUser(USER_ID)).thenReturn(List.of(DmConversationDTO.builder().id("dm-1").build()));
+
+        // When / Then
+        assertThatThrownBy(() -> sidebarService.getSidebar(USER_ID))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(channelMessageRepository, dmMessageRepository, unreadService);
+    }
+}
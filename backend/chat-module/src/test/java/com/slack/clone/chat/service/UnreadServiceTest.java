@@ -0,0 +1,210 @@
+package com.slack.clone.chat.service;
+
+import com.slack.clone.chat.document.ChannelMessage;
+import com.slack.clone.chat.dto.MessageCursor;
+import com.slack.clone.chat.dto.MessageDTO;
+import com.slack.clone.chat.dto.UnreadSummaryDTO;
+import com.slack.clone.chat.event.MessageSentEvent;
+import com.slack.clone.chat.repository.ChannelMemberRepository;
+import com.slack.clone.chat.repository.ChannelMessageRepository;
+import com.slack.clone.chat.repository.DmConversationRepository;
+import com.slack.clone.chat.repository.DmMessageRepository;
+import com.slack.clone.chat.unread.InMemoryReadStateStore;
+import com.slack.clone.chat.unread.ReadStateStore;
+import com.slack.clone.shared.exception.UnauthorizedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UnreadService
+ */
+@ExtendWith(MockitoExtension.class)
+class UnreadServiceTest {
+
+    private static final String CHANNEL_ID = "channel-123";
+    private static final String CONVERSATION_ID = "dm-123";
+    private static final String USER_ID = "user-123";
+    private static final String OTHER_USER_ID = "user-456";
+
+    @Mock
+    private ChannelService channelService;
+
+    @Mock
+    private DmService dmService;
+
+    @Mock
+    private ChannelMemberRepository channelMemberRepository;
+
+    @Mock
+    private DmConversationRepository dmConversationRepository;
+
+    @Mock
+    private ChannelMessageRepository channelMessageRepository;
+
+    @Mock
+    private DmMessageRepository dmMessageRepository;
+
+    private ReadStateStore readStateStore;
+    private UnreadService unreadService;
+    private int messageCount;
+
+    @BeforeEach
+    void setUp() {
+        readStateStore = new InMemoryReadStateStore();
+        unreadService = new UnreadService(readStateStore, channelService, dmService,
+                channelMemberRepository, dmConversationRepository, channelMessageRepository, dmMessageRepository);
+    }
+
+    @Test
+    void shouldCountMessagesFromOthersAsUnread() {
+        // Given
+        givenConversations();
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        unreadService.onMessageSent(MessageSentEvent.dm(CONVERSATION_ID, List.of(USER_ID, OTHER_USER_ID),
+                message(OTHER_USER_ID)));
+
+        // When
+        UnreadSummaryDTO summary = unreadService.getUnreadCounts(USER_ID);
+
+        // Then
+        assertThat(summary.getChannels().get(CHANNEL_ID).getUnreadCount()).isEqualTo(2);
+        assertThat(summary.getDms().get(CONVERSATION_ID).getUnreadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCountOwnMessagesAsUnread() {
+        // Given
+        givenConversations();
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        MessageDTO own = message(USER_ID);
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, own));
+
+        // When
+        UnreadSummaryDTO summary = unreadService.getUnreadCounts(USER_ID);
+
+        // Then
+        assertThat(summary.getChannels().get(CHANNEL_ID).getUnreadCount()).isZero();
+        assertThat(summary.getChannels().get(CHANNEL_ID).getLastReadCursor())
+                .isEqualTo(MessageCursor.of(own).encode());
+    }
+
+    @Test
+    void shouldResetUnreadCountWhenMarkedRead() {
+        // Given
+        givenConversations();
+        when(channelService.isMember(CHANNEL_ID, USER_ID)).thenReturn(true);
+        MessageDTO last = message(OTHER_USER_ID);
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, last));
+        String cursor = MessageCursor.of(last).encode();
+
+        // When
+        unreadService.markChannelRead(CHANNEL_ID, USER_ID, cursor);
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        UnreadSummaryDTO summary = unreadService.getUnreadCounts(USER_ID);
+
+        // Then
+        assertThat(summary.getChannels().get(CHANNEL_ID).getUnreadCount()).isEqualTo(1);
+        assertThat(summary.getChannels().get(CHANNEL_ID).getLastReadCursor()).isEqualTo(cursor);
+    }
+
+    @Test
+    void shouldMarkReadOnlyUpToCursor() {
+        // Given
+        givenConversations();
+        when(channelService.isMember(CHANNEL_ID, USER_ID)).thenReturn(true);
+        MessageDTO first = message(OTHER_USER_ID);
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, first));
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        when(channelMessageRepository.findIdsAfter(eq(CHANNEL_ID), eq(first.getCreatedAt()), eq(first.getId()), any(Pageable.class)))
+                .thenReturn(List.of(new ChannelMessage(), new ChannelMessage()));
+
+        // When
+        unreadService.markChannelRead(CHANNEL_ID, USER_ID, MessageCursor.of(first).encode());
+        UnreadSummaryDTO summary = unreadService.getUnreadCounts(USER_ID);
+
+        // Then
+        assertThat(summary.getChannels().get(CHANNEL_ID).getUnreadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStopCountingPastMaxUnreadWhenMarkingReadBehindLatest() {
+        // Given
+        givenConversations();
+        when(channelService.isMember(CHANNEL_ID, USER_ID)).thenReturn(true);
+        MessageDTO first = message(OTHER_USER_ID);
+        unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, first));
+        for (int i = 0; i < 500; i++) {
+            unreadService.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+        }
+        when(channelMessageRepository.findIdsAfter(eq(CHANNEL_ID), eq(first.getCreatedAt()), eq(first.getId()),
+                argThat((Pageable page) -> page.getPageSize() == UnreadService.MAX_UNREAD + 1)))
+                .thenReturn(Collections.nCopies(UnreadService.MAX_UNREAD + 1, new ChannelMessage()));
+
+        // When
+        unreadService.markChannelRead(CHANNEL_ID, USER_ID, MessageCursor.of(first).encode());
+        UnreadSummaryDTO summary = unreadService.getUnreadCounts(USER_ID);
+
+        // Then
+        assertThat(summary.getChannels().get(CHANNEL_ID).getUnreadCount()).isGreaterThan(UnreadService.MAX_UNREAD);
+    }
+
+    @Test
+    void shouldRejectMarkReadFromNonParticipant() {
+        // Given
+        when(dmService.isParticipant(CONVERSATION_ID, USER_ID)).thenReturn(false);
+
+        // When / Then
+        assertThatThrownBy(() -> unreadService.markDmRead(CONVERSATION_ID, USER_ID, null))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(readStateStore.getMarkers(USER_ID)).isEmpty();
+    }
+
+    @Test
+    void shouldNotFailSendWhenStoreIsUnavailable() {
+        // Given
+        ReadStateStore failingStore = mock(ReadStateStore.class);
+        when(failingStore.increment(anyString())).thenThrow(new IllegalStateException("store down"));
+        UnreadService service = new UnreadService(failingStore, channelService, dmService,
+                channelMemberRepository, dmConversationRepository, channelMessageRepository, dmMessageRepository);
+
+        // When
+        service.onMessageSent(MessageSentEvent.channel(CHANNEL_ID, message(OTHER_USER_ID)));
+
+        // Then
+        verify(failingStore, never()).putMarker(anyString(), anyString(), any());
+    }
+
+    private void givenConversations() {
+        when(channelMemberRepository.findChannelIdsByUserId(USER_ID)).thenReturn(List.of(CHANNEL_ID));
+        when(dmConversationRepository.findIdsByUserId(USER_ID)).thenReturn(List.of(CONVERSATION_ID));
+    }
+
+    private MessageDTO message(String senderId) {
+        messageCount++;
+        return MessageDTO.builder()
+                .id("msg-" + messageCount)
+                .senderId(senderId)
+                .content("message " + messageCount)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(messageCount))
+                .build();
+    }
+}
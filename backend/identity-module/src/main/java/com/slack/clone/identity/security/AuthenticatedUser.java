@@ -0,0 +1,24 @@
+package com.slack.clone.identity.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.security.Principal;
+
+/**
+ * Authenticated principal built from verified JWT claims and stored in the
+ * SecurityContext. The principal name is the user ID.
+ */
+public record AuthenticatedUser(String userId, String email, String displayName) implements Principal {
+
+    public static AuthenticatedUser from(Claims claims) {
+        return new AuthenticatedUser(
+                claims.get("userId", String.class),
+                claims.getSubject(),
+                claims.get("displayName", String.class));
+    }
+
+    @Override
+    public String getName() {
+        return userId;
+    }
+}
@@ -1,14 +1,16 @@
 package com.slack.clone.identity.security;
 
-import com.slack.clone.identity.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -17,9 +19,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
 /**
- * JWT Authentication Filter
+ * JWT Authentication Filter. Verifies the token once and stores an
+ * {@link AuthenticatedUser} principal in the SecurityContext.
+ * In stateless mode the principal is built from claims alone and revocation is
+ * checked against the cached token version instead of loading the user row.
  */
 @Component
 @RequiredArgsConstructor
@@ -28,6 +35,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(
@@ -44,16 +55,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            // Signature and expiry are verified here; parse failures throw
+            final Claims claims = jwtService.parseClaims(jwt);
+            final String userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtService.validateToken(jwt, userDetails.getUsername())) {
+                if (tokenRevocationService.isRevoked(claims)) {
+                    log.debug("Rejected revoked token for user: {}", claims.get("userId", String.class));
+                } else {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            AuthenticatedUser.from(claims),
                             null,
-                            userDetails.getAuthorities());
+                            resolveAuthorities(userEmail));
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
@@ -64,4 +77,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private Collection<? extends GrantedAuthority> resolveAuthorities(String userEmail) {
+        if (stateless) {
+            return List.of(); // No roles for now
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        return userDetails.getAuthorities();
+    }
 }
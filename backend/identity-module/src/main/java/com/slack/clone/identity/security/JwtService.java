@@ -1,32 +1,72 @@
 package com.slack.clone.identity.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.slack.clone.identity.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
- * Service for JWT token operations
+ * Service for JWT token operations.
+ * The signing key and parser are built once; verified claims are cached by
+ * token hash until the token expires, so a token is HMAC-verified once.
+ * Parsing is timed as {@code auth.jwt.verify}, tagged by whether the claims
+ * were cached, verified or rejected.
  */
 @Service
 @Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration:3600000}") // Default: 1 hour
-    private Long expiration;
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final Long expiration;
+    private final SecretKey signKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtService(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration:3600000}") Long expiration, // Default: 1 hour
+            @Value("${jwt.verified-cache.max-size:50000}") long verifiedCacheSize,
+            MeterRegistry meterRegistry) {
+        this.expiration = expiration;
+        this.signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parser()
+                .verifyWith(signKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(Expiry.creating((String key, Claims claims) -> remainingLifetime(claims)))
+                .build();
+        this.cachedTimer = verifyTimer("cached", meterRegistry);
+        this.verifiedTimer = verifyTimer("verified", meterRegistry);
+        this.rejectedTimer = verifyTimer("rejected", meterRegistry);
+    }
 
     /**
      * Generate JWT token for user
@@ -36,6 +76,7 @@ public class JwtService {
         claims.put("userId", user.getId());
         claims.put("email", user.getEmail());
         claims.put("displayName", user.getDisplayName());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
 
         return createToken(claims, user.getEmail());
     }
@@ -52,16 +93,33 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
     /**
-     * Get signing key
+     * Verify token signature and expiry and return its claims.
+     * Throws a {@link io.jsonwebtoken.JwtException} for invalid or expired tokens.
      */
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public Claims parseClaims(String token) {
+        long start = System.nanoTime();
+        String key = tokenHash(token);
+        Claims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException e) {
+            rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        verifiedTokens.put(key, claims);
+        verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
     }
 
     /**
@@ -89,34 +147,15 @@ public class JwtService {
      * Extract claim from token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    /**
-     * Extract all claims from token
-     */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    /**
-     * Check if token is expired
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return claimsResolver.apply(parseClaims(token));
     }
 
     /**
      * Validate token
      */
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        Claims claims = parseClaims(token);
+        return claims.getSubject().equals(username) && claims.getExpiration().after(new Date());
     }
 
     /**
@@ -125,4 +164,28 @@ public class JwtService {
     public Long getExpirationTime() {
         return expiration / 1000; // Convert to seconds
     }
+
+    private static Timer verifyTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("auth.jwt.verify")
+                .description("Time to parse and verify a JWT")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Duration remainingLifetime(Claims claims) {
+        if (claims.getExpiration() == null) {
+            return Duration.ZERO;
+        }
+        long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, remainingMillis));
+    }
+
+    private static String tokenHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
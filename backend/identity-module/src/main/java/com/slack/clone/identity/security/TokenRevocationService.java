@@ -0,0 +1,81 @@
+package com.slack.clone.identity.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.slack.clone.identity.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Token revocation based on a per-user token version.
+ * Tokens carry the version they were issued with; bumping the stored version
+ * revokes all older tokens. Current versions are cached so the check does not
+ * hit Postgres on every request; other nodes observe a revocation within the cache TTL.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    /**
+     * Cached for users that no longer exist so every token they hold is rejected
+     */
+    private static final int UNKNOWN_USER_VERSION = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Cache<String, Integer> currentVersions;
+
+    public TokenRevocationService(
+            UserRepository userRepository,
+            @Value("${jwt.revocation.cache-max-size:100000}") long maxSize,
+            @Value("${jwt.revocation.cache-ttl:30s}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.currentVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Check whether verified token claims were issued before the user's current token version
+     */
+    public boolean isRevoked(Claims claims) {
+        String userId = claims.get("userId", String.class);
+        if (userId == null) {
+            return true;
+        }
+        Integer tokenVersion = claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class);
+        // Tokens issued before versioning was introduced are treated as version 0
+        return (tokenVersion == null ? 0 : tokenVersion) < currentVersion(userId);
+    }
+
+    /**
+     * Revoke every token issued to the user so far
+     */
+    @Transactional
+    public void revokeAll(String userId) {
+        userRepository.incrementTokenVersion(userId);
+        currentVersions.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A concurrent check may re-cache the old version before the update commits
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    currentVersions.invalidate(userId);
+                }
+            });
+        }
+        log.info("Revoked all tokens for user: {}", userId);
+    }
+
+    private int currentVersion(String userId) {
+        return currentVersions.get(userId, id -> userRepository.findTokenVersionById(id)
+                .orElse(UNKNOWN_USER_VERSION));
+    }
+}
@@ -5,9 +5,12 @@ import com.slack.clone.identity.entity.User;
 import com.slack.clone.identity.mapper.UserMapper;
 import com.slack.clone.identity.repository.UserRepository;
 import com.slack.clone.identity.security.JwtService;
+import com.slack.clone.identity.security.TokenRevocationService;
 import com.slack.clone.shared.exception.UnauthorizedException;
 import com.slack.clone.shared.exception.ValidationException;
 import com.slack.clone.shared.util.IdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +31,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserMapper userMapper;
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Register a new user
@@ -56,31 +61,42 @@ public class AuthService {
     }
 
     /**
-     * Authenticate user and generate JWT token
+     * Authenticate user and generate JWT token. Timed as {@code auth.login},
+     * tagged with the outcome since failed logins skip the password check.
      */
     @Transactional(readOnly = true)
     public AuthResponse login(LoginRequest request) {
-        log.info("Login attempt for email: {}", request.getEmail());
-
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
-
-        // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            throw new UnauthorizedException("Invalid credentials");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            log.info("Login attempt for email: {}", request.getEmail());
+
+            User user = userRepository.findByEmail(request.getEmail())
+                    .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
+
+            // Verify password
+            if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+                throw new UnauthorizedException("Invalid credentials");
+            }
+
+            // Generate JWT token
+            String token = jwtService.generateToken(user);
+
+            log.info("User logged in successfully: {}", user.getId());
+            outcome = "success";
+
+            return AuthResponse.builder()
+                    .accessToken(token)
+                    .tokenType("Bearer")
+                    .expiresIn(jwtService.getExpirationTime())
+                    .user(userMapper.toDTO(user))
+                    .build();
+        } finally {
+            sample.stop(Timer.builder("auth.login")
+                    .description("Time to authenticate a user and issue a token")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
-
-        // Generate JWT token
-        String token = jwtService.generateToken(user);
-
-        log.info("User logged in successfully: {}", user.getId());
-
-        return AuthResponse.builder()
-                .accessToken(token)
-                .tokenType("Bearer")
-                .expiresIn(jwtService.getExpirationTime())
-                .user(userMapper.toDTO(user))
-                .build();
     }
 
     /**
@@ -91,4 +107,11 @@ public class AuthService {
         return userRepository.findById(userId)
                 .map(userMapper::toDTO);
     }
+
+    /**
+     * Revoke all tokens issued to the user
+     */
+    public void revokeTokens(String userId) {
+        tokenRevocationService.revokeAll(userId);
+    }
 }
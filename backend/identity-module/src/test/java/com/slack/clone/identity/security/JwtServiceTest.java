@@ -0,0 +1,122 @@
+package com.slack.clone.identity.security;
+
+import com.slack.clone.identity.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for JwtService
+ */
+class JwtServiceTest {
+
+    private static final String SECRET =
+            "c2xhY2tjbG9uZXNlY3JldGtleWZvcmp3dGVuY3J5cHRpb25hbmRkZWNyeXB0aW9ubXVzdGJlbG9uZ2Vub3VnaA==";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, 3600000L, 100, meterRegistry);
+        user = User.builder()
+                .id("user-1")
+                .email("test@example.com")
+                .displayName("Test User")
+                .build();
+    }
+
+    @Test
+    void parseClaims_ReturnsVerifiedClaims() {
+        // Given
+        String token = jwtService.generateToken(user);
+
+        // When
+        Claims claims = jwtService.parseClaims(token);
+
+        // Then
+        assertThat(claims.getSubject()).isEqualTo("test@example.com");
+        assertThat(claims.get("userId", String.class)).isEqualTo("user-1");
+        assertThat(AuthenticatedUser.from(claims).getName()).isEqualTo("user-1");
+    }
+
+    @Test
+    void parseClaims_RepeatedCallsReuseVerifiedClaims() {
+        // Given
+        String token = jwtService.generateToken(user);
+
+        // When
+        Claims first = jwtService.parseClaims(token);
+        Claims second = jwtService.parseClaims(token);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(jwtService.extractUserId(token)).isEqualTo("user-1");
+    }
+
+    @Test
+    void parseClaims_TimesEachParseByResult() {
+        // Given
+        String token = jwtService.generateToken(user);
+
+        // When
+        jwtService.parseClaims(token);
+        jwtService.parseClaims(token);
+        assertThatThrownBy(() -> jwtService.parseClaims(token + "x")).isInstanceOf(JwtException.class);
+
+        // Then
+        assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "verified").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "cached").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "rejected").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void parseClaims_TamperedPayload_ThrowsException() {
+        // Given: the same header and signature over claims for another user
+        String[] parts = jwtService.generateToken(user).split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"user-1\"", "\"user-2\"");
+        String tampered = parts[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+
+        // When & Then
+        assertThatThrownBy(() -> jwtService.parseClaims(tampered))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void parseClaims_TamperedSignature_ThrowsException() {
+        // Given: flip a character in the middle of the signature, away from the padding bits
+        String token = jwtService.generateToken(user);
+        int middle = token.lastIndexOf('.') + (token.length() - token.lastIndexOf('.')) / 2;
+        String tampered = token.substring(0, middle) + (token.charAt(middle) == 'A' ? 'B' : 'A')
+                + token.substring(middle + 1);
+
+        // When & Then
+        assertThatThrownBy(() -> jwtService.parseClaims(tampered))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void parseClaims_ExpiredToken_ThrowsException() {
+        // Given
+        JwtService expiringService = new JwtService(SECRET, -1000L, 100, new SimpleMeterRegistry());
+        String token = expiringService.generateToken(user);
+
+        // When & Then
+        assertThatThrownBy(() -> expiringService.parseClaims(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+}
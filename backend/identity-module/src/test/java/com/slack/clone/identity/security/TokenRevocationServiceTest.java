@@ -0,0 +1,81 @@
+package com.slack.clone.identity.security;
+
+import com.slack.clone.identity.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TokenRevocationService
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationService = new TokenRevocationService(userRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void isRevoked_CurrentVersion_LoadsVersionOnce() {
+        // Given
+        when(userRepository.findTokenVersionById("user-1")).thenReturn(Optional.of(0));
+        Claims claims = claims("user-1", 0);
+
+        // When
+        boolean first = tokenRevocationService.isRevoked(claims);
+        boolean second = tokenRevocationService.isRevoked(claims);
+
+        // Then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        verify(userRepository, times(1)).findTokenVersionById("user-1");
+    }
+
+    @Test
+    void isRevoked_AfterRevokeAll_RejectsOlderTokens() {
+        // Given
+        when(userRepository.findTokenVersionById("user-1")).thenReturn(Optional.of(0), Optional.of(1));
+        Claims oldToken = claims("user-1", 0);
+        assertThat(tokenRevocationService.isRevoked(oldToken)).isFalse();
+
+        // When
+        tokenRevocationService.revokeAll("user-1");
+
+        // Then
+        verify(userRepository).incrementTokenVersion("user-1");
+        assertThat(tokenRevocationService.isRevoked(oldToken)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(claims("user-1", 1))).isFalse();
+    }
+
+    @Test
+    void isRevoked_UnknownUser_ReturnsTrue() {
+        // Given
+        when(userRepository.findTokenVersionById("missing")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThat(tokenRevocationService.isRevoked(claims("missing", 0))).isTrue();
+    }
+
+    private Claims claims(String userId, int version) {
+        return Jwts.claims()
+                .add("userId", userId)
+                .add(JwtService.TOKEN_VERSION_CLAIM, version)
+                .build();
+    }
+}
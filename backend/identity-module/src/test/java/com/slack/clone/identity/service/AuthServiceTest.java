@@ -9,12 +9,14 @@ import com.slack.clone.identity.repository.UserRepository;
 import com.slack.clone.identity.security.JwtService;
 import com.slack.clone.shared.exception.UnauthorizedException;
 import com.slack.clone.shared.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -43,6 +45,9 @@ class AuthServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
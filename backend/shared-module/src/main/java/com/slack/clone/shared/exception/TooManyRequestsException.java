@@ -0,0 +1,11 @@
+package com.slack.clone.shared.exception;
+
+/**
+ * Thrown when a request is rejected because the server is at capacity
+ */
+public class TooManyRequestsException extends SlackCloneException {
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
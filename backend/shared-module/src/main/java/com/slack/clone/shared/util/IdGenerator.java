@@ -1,20 +1,74 @@
 package com.slack.clone.shared.util;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Utility class for ID generation
+ * Utility class for ID generation.
+ * IDs are UUIDv7 strings: a 48-bit Unix millisecond timestamp followed by a
+ * per-thread monotonic sequence and random bits. They keep the 36-character UUID
+ * form but sort by creation time, so primary key and _id indexes grow at the right edge.
  */
 public final class IdGenerator {
 
+    private static final int SEQUENCE_BITS = 12;
+    private static final int SEQUENCE_MAX = (1 << SEQUENCE_BITS) - 1;
+    private static final long VERSION_7 = 0x7L << SEQUENCE_BITS;
+    private static final long VARIANT_RFC_4122 = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_62_BITS = 0x3FFF_FFFF_FFFF_FFFFL;
+    /**
+     * How far the embedded timestamp may run ahead of the clock before generation waits
+     */
+    private static final long MAX_BORROW_MILLIS = 1;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
     private IdGenerator() {
         // Utility class
     }
 
     /**
-     * Generate a unique UUID string
+     * Generate a unique, time-ordered UUID string
      */
     public static String generateId() {
-        return UUID.randomUUID().toString();
+        return generateUuid().toString();
+    }
+
+    /**
+     * Generate a unique, time-ordered UUID.
+     * IDs from one thread are strictly increasing; IDs from different threads in
+     * the same millisecond are ordered by their random bits. A thread generating
+     * more than 4096 IDs per millisecond is slowed to the clock.
+     */
+    public static UUID generateUuid() {
+        State state = STATE.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long now = System.currentTimeMillis();
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            // Start low in the range so a burst within one millisecond rarely overflows
+            state.sequence = random.nextInt(SEQUENCE_MAX >> 1);
+        } else if (state.sequence < SEQUENCE_MAX) {
+            state.sequence++;
+        } else {
+            // Sequence exhausted or clock moved backwards: borrow the next millisecond,
+            // but wait for the clock rather than run more than MAX_BORROW_MILLIS ahead of it
+            while (state.lastMillis - now >= MAX_BORROW_MILLIS) {
+                Thread.onSpinWait();
+                now = System.currentTimeMillis();
+            }
+            state.lastMillis++;
+            state.sequence = 0;
+        }
+
+        long msb = (state.lastMillis << 16) | VERSION_7 | state.sequence;
+        long lsb = VARIANT_RFC_4122 | (random.nextLong() & RANDOM_62_BITS);
+        return new UUID(msb, lsb);
+    }
+
+    private static final class State {
+        private long lastMillis = -1;
+        private int sequence;
     }
 }
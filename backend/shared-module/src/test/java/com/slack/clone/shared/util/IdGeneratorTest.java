@@ -0,0 +1,103 @@
+package com.slack.clone.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for IdGenerator
+ */
+class IdGeneratorTest {
+
+    @Test
+    void generateId_ReturnsVersion7UuidString() {
+        // When
+        String id = IdGenerator.generateId();
+        UUID uuid = UUID.fromString(id);
+
+        // Then
+        assertThat(id).hasSize(36);
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void generateId_EmbedsCurrentTimestamp() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID uuid = IdGenerator.generateUuid();
+
+        // Then
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertThat(timestamp).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void generateId_BurstDoesNotRunAheadOfClock() {
+        // Given
+        int count = 200_000;
+
+        // When / Then
+        for (int i = 0; i < count; i++) {
+            long timestamp = IdGenerator.generateUuid().getMostSignificantBits() >>> 16;
+            assertThat(timestamp).isLessThanOrEqualTo(System.currentTimeMillis() + 1);
+        }
+    }
+
+    @Test
+    void generateId_IsStrictlyIncreasingWithinThread() {
+        // Given
+        int count = 200_000;
+        List<String> ids = new ArrayList<>(count);
+
+        // When
+        for (int i = 0; i < count; i++) {
+            ids.add(IdGenerator.generateId());
+        }
+
+        // Then
+        for (int i = 1; i < count; i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+        }
+    }
+
+    @Test
+    void generateId_IsUniqueAcrossThreads() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 50_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(IdGenerator.generateId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        assertThat(ids).hasSize(threads * perThread);
+    }
+}